@@ -33,6 +33,11 @@ android {
         targetCompatibility = JavaVersion.VERSION_17
     }
 
+    // JVM tests touch classes that log through android.util.Log
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
+
     // ✅ FIX FOR META-INF/DEPENDENCIES CONFLICT
     packaging {
         resources {
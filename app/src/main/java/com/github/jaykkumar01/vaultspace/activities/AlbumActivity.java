@@ -89,7 +89,7 @@ public class AlbumActivity extends AppCompatActivity {
             new AlbumStateListenerImpl(this::handleAlbumLoading, this::handleAlbumMedia, this::handleAlbumError);
 
     private final AlbumMediaRepository.MediaDeltaListener deltaListener =
-            new AlbumMediaDeltaListenerImpl(this::handleMediaAdded, this::handleMediaRemoved);
+            new AlbumMediaDeltaListenerImpl(this::handleMediaBatch);
 
     private final UploadObserver uploadObserver =
             new UploadObserverImpl(this::handleUploadSnapshot, this::handleUploadCancelled,
@@ -182,30 +182,24 @@ public class AlbumActivity extends AppCompatActivity {
         transitionTo(UiState.ERROR);
     }
 
-    private void handleMediaAdded(AlbumMedia media) {
+    private void handleMediaBatch(List<AlbumMedia> added, List<String> removed) {
         if (released || (uiState != UiState.EMPTY && uiState != UiState.CONTENT)) return;
 
-        if (uiState == UiState.CONTENT) {
-            uiController.onMediaAdded(media);
+        // snapshots are immutable: pick up the state after this batch
+        currentMedia = repo.getMediaSnapshot(albumId);
+
+        if (uiState == UiState.EMPTY) {
+            // EMPTY → CONTENT is structural
+            if (!isMediaEmpty()) transitionTo(UiState.CONTENT);
             return;
         }
 
-        // EMPTY → CONTENT is structural
-        transitionTo(UiState.CONTENT);
-
-
-    }
-
-    private void handleMediaRemoved(String mediaId) {
-        if (released || (uiState != UiState.EMPTY && uiState != UiState.CONTENT)) return;
-
-        if (uiState == UiState.CONTENT && isMediaEmpty()) {
+        if (isMediaEmpty()) {
             transitionTo(UiState.EMPTY);
             return;
         }
 
-        uiController.onMediaRemoved(mediaId);
-
+        uiController.onMediaBatch(added, removed);
     }
 
     private void onCountChanged(int photos, int videos) {
@@ -229,9 +223,13 @@ public class AlbumActivity extends AppCompatActivity {
     }
 
     private void handleMediaLongPressed(AlbumMedia m) {
+        boolean downloading = actionCoordinator.isDownloading(m);
         albumModalHandler.showActionList(
                 m.name,
-                () -> actionCoordinator.onDownloadMedia(m),
+                downloading,
+                downloading
+                        ? () -> actionCoordinator.onCancelDownload(m)
+                        : () -> actionCoordinator.onDownloadMedia(m),
                 () -> albumModalHandler.showDeleteConfirm(() -> {
                     albumModalHandler.showLoading();
                     actionCoordinator.onDeleteMedia(
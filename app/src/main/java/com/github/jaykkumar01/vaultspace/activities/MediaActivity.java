@@ -2,32 +2,46 @@ package com.github.jaykkumar01.vaultspace.activities;
 
 import android.content.pm.ActivityInfo;
 import android.content.res.Configuration;
+import android.graphics.Rect;
 import android.os.Bundle;
 import android.util.Log;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
 import android.view.OrientationEventListener;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.widget.ImageButton;
 import android.widget.ImageView;
 
 import androidx.activity.EdgeToEdge;
 import androidx.activity.OnBackPressedCallback;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.Lifecycle;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.ui.PlayerView;
 
 import com.github.jaykkumar01.vaultspace.R;
 import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
 import com.github.jaykkumar01.vaultspace.core.drive.AlbumMediaRepository;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager;
 import com.github.jaykkumar01.vaultspace.media.base.MediaLoadCallback;
+import com.github.jaykkumar01.vaultspace.media.cache.DriveAltMediaCache;
+import com.github.jaykkumar01.vaultspace.media.cache.VideoPrecacher;
 import com.github.jaykkumar01.vaultspace.media.controller.ImageMediaController;
 import com.github.jaykkumar01.vaultspace.media.controller.VideoMediaController;
 import com.github.jaykkumar01.vaultspace.views.creative.image.VaultImageView;
 import com.github.jaykkumar01.vaultspace.views.states.LoadingStateView;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 @UnstableApi
 public final class MediaActivity extends AppCompatActivity implements MediaLoadCallback {
 
     private static final String TAG = "VaultSpace:Media";
+    private static final int PRECACHE_NEIGHBOURS = 1;   // on each side
 
     private String albumId;
     private String fileId;
@@ -40,6 +54,15 @@ public final class MediaActivity extends AppCompatActivity implements MediaLoadC
     private ImageMediaController imageController;
     private VideoMediaController videoController;
     private AlbumMediaRepository repo;
+    private VideoPrecacher precacher;
+
+    /* album order (newest first) and the item on screen */
+    private List<AlbumMedia> order = Collections.emptyList();
+    private int index = -1;
+    private AlbumMedia current;
+    private AlbumMedia precachedFor;
+
+    private GestureDetector swipeDetector;
 
     private OnBackPressedCallback backCallback;
     private OrientationEventListener orientationListener;
@@ -56,9 +79,16 @@ public final class MediaActivity extends AppCompatActivity implements MediaLoadC
         setupRepository();
         setupControllers();
         setupOrientationHandling();
+        setupSwipe();
         resolveMedia();
     }
 
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        if (swipeDetector != null) swipeDetector.onTouchEvent(ev);
+        return super.dispatchTouchEvent(ev);
+    }
+
     @Override
     protected void onStart() {
         super.onStart();
@@ -123,6 +153,51 @@ public final class MediaActivity extends AppCompatActivity implements MediaLoadC
     private void setupControllers() {
         imageController = new ImageMediaController(this, imageView, this);
         videoController = new VideoMediaController(this, playerView,this);
+        precacher = new VideoPrecacher(this, new DriveAltMediaCache(this));
+    }
+
+    /* ---------------- paging ---------------- */
+
+    private void setupSwipe() {
+        ViewConfiguration vc = ViewConfiguration.get(this);
+        int minDistance = vc.getScaledTouchSlop() * 6;
+        int minVelocity = vc.getScaledMinimumFlingVelocity() * 4;
+
+        swipeDetector = new GestureDetector(this, new GestureDetector.SimpleOnGestureListener() {
+            private boolean allowed;
+
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                // scrubbing the time bar or panning a zoomed image is not a swipe
+                allowed = !imageView.isZoomed() && !onTimeBar(e);
+                return false;
+            }
+
+            @Override
+            public boolean onFling(MotionEvent e1, @NonNull MotionEvent e2, float vx, float vy) {
+                if (!allowed || e1 == null || e1.getPointerCount() > 1) return false;
+                float dx = e2.getX() - e1.getX();
+                float dy = e2.getY() - e1.getY();
+                if (Math.abs(dx) < minDistance || Math.abs(dx) < Math.abs(dy) * 2) return false;
+                if (Math.abs(vx) < minVelocity) return false;
+                return step(dx < 0 ? 1 : -1);
+            }
+        });
+    }
+
+    private boolean onTimeBar(MotionEvent e) {
+        View bar = playerView.findViewById(androidx.media3.ui.R.id.exo_bottom_bar);
+        if (bar == null || !bar.isShown()) return false;
+        Rect r = new Rect();
+        return bar.getGlobalVisibleRect(r) && r.contains((int) e.getRawX(), (int) e.getRawY());
+    }
+
+    private boolean step(int delta) {
+        int next = index + delta;
+        if (next < 0 || next >= order.size()) return false;
+        index = next;
+        show(order.get(index));
+        return true;
     }
 
     private void setupOrientationHandling() {
@@ -160,15 +235,53 @@ public final class MediaActivity extends AppCompatActivity implements MediaLoadC
             exit();
             return;
         }
+
+        // immutable snapshot, already in album grid order
+        order = repo.getMediaSnapshot(albumId);
+        index = repo.getMediaPosition(albumId, fileId);
+        if (index >= order.size() || (index >= 0 && order.get(index) != media))
+            index = order.indexOf(media);   // mutated between the two reads
+        if (index < 0) {
+            order = Collections.singletonList(media);
+            index = 0;
+        }
+        show(media);
+    }
+
+    private void show(AlbumMedia media) {
+        if (current != null) {
+            if (current.isVideo) videoController.hide();
+            else imageController.hide();
+        }
+        current = media;
+        precachedFor = null;
+        precacher.cancel();   // the item on screen gets the bandwidth first
+
         if (media.isVideo) {
             imageView.setVisibility(View.GONE);
             videoController.show(media);
+            // first show happens before onStart(), which prepares the player
+            if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED))
+                videoController.onStart();
         } else {
             playerView.setVisibility(View.GONE);
             imageController.show(media);
         }
     }
 
+    /** Next/previous videos, nearest first, once the current item is ready. */
+    private void precacheNeighbours() {
+        if (current == null || current == precachedFor) return;   // READY repeats after rebuffering
+        precachedFor = current;
+
+        List<AlbumMedia> around = new ArrayList<>(PRECACHE_NEIGHBOURS * 2);
+        for (int d = 1; d <= PRECACHE_NEIGHBOURS; d++) {
+            if (index + d < order.size()) around.add(order.get(index + d));
+            if (index - d >= 0) around.add(order.get(index - d));
+        }
+        precacher.precache(around);
+    }
+
     @Override
     public void onMediaLoading(String text) {
         loadingState.setText(text);
@@ -178,6 +291,7 @@ public final class MediaActivity extends AppCompatActivity implements MediaLoadC
     @Override
     public void onMediaReady() {
         loadingState.setVisibility(View.GONE);
+        precacheNeighbours();
     }
 
     @Override
@@ -214,6 +328,8 @@ public final class MediaActivity extends AppCompatActivity implements MediaLoadC
         if (orientationListener != null) orientationListener.disable();
         if (imageController != null) imageController.release();
         if (videoController != null) videoController.release();
+        if (precacher != null) precacher.cancel();
+        DiskCacheManager.get(this).logStats();
         super.onDestroy();
     }
 }
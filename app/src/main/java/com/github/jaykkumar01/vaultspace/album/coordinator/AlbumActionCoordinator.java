@@ -29,6 +29,7 @@ public final class AlbumActionCoordinator {
 
     public interface Listener {
         void onMediaSelected(int size);
+        /** Called once per resolved batch, from a background thread. */
         void onMediaResolved(List<UploadSelection> selections);
     }
 
@@ -111,6 +112,15 @@ public final class AlbumActionCoordinator {
         mediaActionHandler.downloadMedia(m);
     }
 
+    public void onCancelDownload(AlbumMedia m) {
+        if (released || m == null) return;
+        mediaActionHandler.cancelDownload(m);
+    }
+
+    public boolean isDownloading(AlbumMedia m) {
+        return !released && mediaActionHandler.isDownloading(m);
+    }
+
     public void onDeleteMedia(String id, Runnable onSuccess, Runnable onFailure) {
         if (released) return;
         mediaActionHandler.deleteMedia(id, onSuccess, onFailure);
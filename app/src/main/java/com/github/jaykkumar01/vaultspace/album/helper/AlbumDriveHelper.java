@@ -9,10 +9,11 @@ import androidx.annotation.NonNull;
 
 import com.github.jaykkumar01.vaultspace.core.download.base.DriveDownloadCallback;
 import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
+import com.github.jaykkumar01.vaultspace.core.drive.DriveChangeSync;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveClientProvider;
 import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
 
-import java.io.File;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -23,17 +24,19 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Orchestrates album media fetch:
  * - resolves trusted accounts
  * - delegates Drive work to AlbumMediaFetcher
- * - delivers results on main thread
+ * - delivers pages on main thread as they arrive
  */
 public final class AlbumDriveHelper {
 
     private static final String TAG = "VaultSpace:AlbumDrive";
     private final AlbumMediaFetcher fetcher;
     private final Drive primaryDrive;
+    private final DriveChangeSync changeSync;
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     public interface FetchCallback {
-        void onResult(@NonNull List<AlbumMedia> items);
+        /** One page, newest modified first; {@code last} ends the fetch. */
+        void onPage(@NonNull List<AlbumMedia> items, boolean last);
         void onError(@NonNull Exception e);
     }
 
@@ -41,6 +44,13 @@ public final class AlbumDriveHelper {
         Context appContext = context.getApplicationContext();
         this.primaryDrive = DriveClientProvider.getPrimaryDrive(context);
         this.fetcher = new AlbumMediaFetcher(appContext, albumId);
+        this.changeSync = DriveChangeSync.get(appContext);
+    }
+
+    /** Builds album media from a changed Drive file (metadata only, no IO). */
+    @NonNull
+    public static AlbumMedia toAlbumMedia(@NonNull DriveResolver resolver, @NonNull File file) {
+        return AlbumMediaFetcher.createAlbumMedia(resolver, file);
     }
 
     public void fetchAlbumMedia(@NonNull ExecutorService executor, @NonNull FetchCallback callback) {
@@ -48,8 +58,8 @@ public final class AlbumDriveHelper {
 
         executor.execute(() -> {
             try {
-                List<AlbumMedia> result = fetcher.getMedia(primaryDrive);
-                postResult(callback, result);
+                changeSync.ensureStartToken();   // before listing, so later changes are replayed
+                fetcher.fetchPages(primaryDrive, (page, last) -> postPage(callback, page, last));
             } catch (Exception e) {
                 postError(callback, e);
             }
@@ -57,8 +67,8 @@ public final class AlbumDriveHelper {
     }
 
 
-    private void postResult(FetchCallback cb, List<AlbumMedia> items) {
-        mainHandler.post(() -> cb.onResult(items));
+    private void postPage(FetchCallback cb, List<AlbumMedia> items, boolean last) {
+        mainHandler.post(() -> cb.onPage(items, last));
     }
 
     private void postError(FetchCallback cb, Exception e) {
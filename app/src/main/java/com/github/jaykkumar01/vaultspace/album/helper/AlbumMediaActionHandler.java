@@ -34,6 +34,15 @@ public final class AlbumMediaActionHandler {
         delegate.enqueue(new DownloadRequest(media.fileId,media.name,media.sizeBytes));
     }
 
+    public void cancelDownload(AlbumMedia media) {
+        if (released || media == null) return;
+        delegate.cancel(media.fileId);
+    }
+
+    public boolean isDownloading(AlbumMedia media) {
+        return !released && media != null && delegate.isActive(media.fileId);
+    }
+
     public void cancelAllDownloads() {
         if (released) return;
         delegate.cancelAll();
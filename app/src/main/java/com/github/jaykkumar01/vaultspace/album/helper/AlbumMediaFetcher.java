@@ -15,15 +15,17 @@ import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 final class AlbumMediaFetcher {
 
     private static final String TAG = "VaultSpace:AlbumFetch";
     private static final int MAX_ATTEMPTS = 2;
     private static final long RETRY_DELAY_MS = 250;
+    private static final int FIRST_PAGE_SIZE = 100;
+    private static final int PAGE_SIZE = 1000;   // Drive maximum
 
     private final Context appContext;
     private final String albumId;
@@ -35,24 +37,20 @@ final class AlbumMediaFetcher {
         this.driveResolver = new DriveResolver(appContext);
     }
 
-    public List<AlbumMedia> getMedia(Drive drive) throws Exception {
-        long startMs = System.currentTimeMillis();
-        Map<String, AlbumMedia> unique = new ConcurrentHashMap<>();
-
-        fetchFromAccountInternal(drive, unique);
-
-        List<AlbumMedia> result = new ArrayList<>(unique.values());
-        result.sort((a, b) -> Long.compare(b.momentMillis, a.momentMillis));
-
-        Log.d(TAG, "fetch single account albumId=" + albumId
-                + " items=" + result.size()
-                + " took=" + (System.currentTimeMillis() - startMs) + "ms");
-
-        return result;
+    /** Receives each page as soon as it is parsed (fetch thread). */
+    interface PageSink {
+        void onPage(@NonNull List<AlbumMedia> page, boolean last);
     }
 
-    private void fetchFromAccountInternal(@NonNull Drive drive,
-                                          @NonNull Map<String, AlbumMedia> out) throws Exception {
+    /**
+     * Streams the album newest-modified first. A small first page gets the
+     * newest bands on screen fast; later pages are large to cut round trips.
+     * Each page carries only ids not delivered before.
+     */
+    public void fetchPages(@NonNull Drive drive, @NonNull PageSink sink) throws Exception {
+        long startMs = System.currentTimeMillis();
+        Set<String> seen = new HashSet<>();
+        int pages = 0;
 
         String pageToken = null;
         int attempts = 0;
@@ -61,29 +59,43 @@ final class AlbumMediaFetcher {
             try {
                 FileList list = drive.files().list()
                         .setQ("'" + albumId + "' in parents and trashed=false")
+                        .setOrderBy("modifiedTime desc")
                         .setFields("nextPageToken,files(id,name,mimeType,createdTime,modifiedTime,size,thumbnailLink,appProperties)")
-                        .setPageSize(200)
+                        .setPageSize(pageToken == null ? FIRST_PAGE_SIZE : PAGE_SIZE)
                         .setPageToken(pageToken)
                         .execute();
 
+                List<AlbumMedia> page = new ArrayList<>();
                 if (list.getFiles() != null) {
                     for (File f : list.getFiles()) {
-                        out.computeIfAbsent(f.getId(), id -> createAlbumMedia(f));
+                        if (seen.add(f.getId())) page.add(createAlbumMedia(driveResolver, f));
                     }
                 }
 
                 pageToken = list.getNextPageToken();
                 attempts = 0; // reset on success
+                pages++;
+
+                if (pages == 1)
+                    Log.d(TAG, "first page albumId=" + albumId + " items=" + page.size()
+                            + " took=" + (System.currentTimeMillis() - startMs) + "ms");
+                sink.onPage(page, pageToken == null);
 
             } catch (Exception e) {
                 if (++attempts >= MAX_ATTEMPTS) throw e;
                 SystemClock.sleep(RETRY_DELAY_MS);
             }
         } while (pageToken != null);
+
+        Log.d(TAG, "fetch single account albumId=" + albumId
+                + " items=" + seen.size()
+                + " pages=" + pages
+                + " took=" + (System.currentTimeMillis() - startMs) + "ms");
     }
 
 
-    private AlbumMedia createAlbumMedia(@NonNull File file) {
+    /** Metadata only (no IO); shared with the change sync. */
+    static AlbumMedia createAlbumMedia(@NonNull DriveResolver driveResolver, @NonNull File file) {
 
         String thumbRef = driveResolver.resolve(file);
 
@@ -103,7 +115,8 @@ final class AlbumMediaFetcher {
                 g.aspectRatio,
                 g.rotation,
                 duration,        // 🟢 FIX
-                thumbRef
+                thumbRef,
+                driveResolver.resolveMp4Layout(file)
         );
 
 
@@ -46,10 +46,11 @@ public final class AlbumModalHandler {
 
     /* ---------- Public API ---------- */
 
-    public void showActionList(String name, Runnable onDownload, Runnable onDelete) {
+    /** {@code downloading} swaps the first action for cancelling that download. */
+    public void showActionList(String name, boolean downloading, Runnable onDownload, Runnable onDelete) {
         runOnMainThread(() -> modalHost.request(new ListSpec(
                 name,
-                Arrays.asList("Download", "Delete"),
+                Arrays.asList(downloading ? "Cancel download" : "Download", "Delete"),
                 index -> {
                     if (index == 0) {
                         onDownload.run();
@@ -13,6 +13,8 @@ import com.github.jaykkumar01.vaultspace.album.view.OnMediaActionListener;
 import com.github.jaykkumar01.vaultspace.views.states.EmptyStateView;
 import com.github.jaykkumar01.vaultspace.views.states.LoadingStateView;
 
+import java.util.List;
+
 public final class AlbumUiController {
 
 
@@ -78,12 +80,8 @@ public final class AlbumUiController {
         contentView.setMedia(mediaList);
     }
 
-    public void onMediaAdded(AlbumMedia media) {
-        contentView.addMedia(media);
-    }
-
-    public void onMediaRemoved(String mediaId) {
-        contentView.removeMedia(mediaId);
+    public void onMediaBatch(List<AlbumMedia> added, List<String> removed) {
+        contentView.applyBatch(added, removed);
     }
 
     /* ---------------- Setup ---------------- */
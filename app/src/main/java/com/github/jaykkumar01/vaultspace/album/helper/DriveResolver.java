@@ -10,6 +10,9 @@ import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
 import com.github.jaykkumar01.vaultspace.album.model.MediaGeometry;
 import com.github.jaykkumar01.vaultspace.album.model.Moments;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveClientProvider;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager.Partition;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskLruIndex;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.model.File;
 
@@ -19,31 +22,39 @@ import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 
 public final class DriveResolver {
 
     private static final String TAG = "VaultSpace:ThumbResolver";
     private static final String THUMB_PREFIX = "thumb_";
     private static final String THUMB_EXT = ".jpg";
-    private static final long MAX_THUMB_CACHE_BYTES = 12L * 1024 * 1024;
-    private static final long TOUCH_INTERVAL_MS = 60_000; // 1 minute
     private final ConcurrentHashMap<String, AtomicBoolean> liveRequests = new ConcurrentHashMap<>();
 
+    // shared across resolvers: every band holder has its own, but they fetch into one cache
+    private static final ConcurrentHashMap<String, InFlight> IN_FLIGHT = new ConcurrentHashMap<>();
+
 
     private final Context appContext;
-    private final ExecutorService executor;
+    private final ThumbnailScheduler scheduler;
+    private final DiskCacheManager diskCache;
+    private final java.io.File thumbDir;
+    private final DiskLruIndex thumbIndex;
     private final Drive primaryDrive;
 
     public DriveResolver(@NonNull Context context) {
         this.appContext = context.getApplicationContext();
-        this.executor = Executors.newFixedThreadPool(4);
+        this.scheduler = ThumbnailScheduler.get();
         this.primaryDrive = DriveClientProvider.getPrimaryDrive(context);
+        this.diskCache = DiskCacheManager.get(appContext);
+        this.thumbDir = diskCache.dir(Partition.THUMBNAILS);
+        this.thumbIndex = diskCache.index(Partition.THUMBNAILS);
     }
 
     /* ==========================================================
@@ -115,6 +126,12 @@ public final class DriveResolver {
         return parseLongSafe(props.get("vs_duration"));
     }
 
+    @Nullable
+    public String resolveMp4Layout(@NonNull File file) {
+        Map<String, String> props = file.getAppProperties();
+        return props != null ? props.get("vs_mp4_layout") : null;
+    }
+
     private static long parseLongSafe(String v) {
         try {
             return v != null ? Long.parseLong(v) : 0L;
@@ -147,24 +164,59 @@ public final class DriveResolver {
      * STEP 2: async resolution entry
      * ========================================================== */
 
-    public void resolveAsync(@NonNull AlbumMedia media, @NonNull Consumer<String> consumer) {
+    /** {@code position} is the band's adapter position, used for viewport priority. */
+    public void resolveAsync(@NonNull AlbumMedia media, int position, @NonNull Consumer<String> consumer) {
         AtomicBoolean alive = new AtomicBoolean(true);
         liveRequests.put(media.fileId, alive);
+        Waiter waiter = new Waiter(media.fileId, position, alive, consumer);
 
-        executor.execute(() -> {
-            if (!alive.get()) {
+        String key = cacheName(media);
+        if (key == null) {
+            waiter.deliver(null);
+            return;
+        }
+
+        // single-flight: later requests for the same thumbnail ride the first fetch
+        InFlight flight;
+        while (true) {
+            flight = IN_FLIGHT.computeIfAbsent(key, k -> new InFlight());
+            if (flight.attach(waiter)) break;
+            IN_FLIGHT.remove(key, flight);   // completed under us; start over
+        }
+
+        if (!flight.claim()) {
+            Log.d(TAG, "[ASYNC] coalesced id=" + media.fileId);
+            scheduler.bump(key, position);
+            return;
+        }
+
+        schedule(media, key, position, flight);
+    }
+
+    private void schedule(@NonNull AlbumMedia media, @NonNull String key, int position, @NonNull InFlight owned) {
+        scheduler.submit(key, position, () -> {
+            if (owned.abandonIfDead()) {
+                IN_FLIGHT.remove(key, owned);
                 Log.d(TAG, "[ASYNC] drop-before id=" + media.fileId);
                 return;
             }
 
-            String path = resolveOnce(media);
-
-            if (!alive.get()) {
-                Log.d(TAG, "[ASYNC] drop-after id=" + media.fileId);
+            String path = null;
+            try {
+                path = resolveOnce(media, key);
+            } finally {
+                IN_FLIGHT.remove(key, owned);
+                owned.complete(path);
+            }
+        }, () -> {
+            // a bind that attached after the drop was decided is still on screen: keep it
+            int wanted = owned.abandonUnlessWanted(scheduler::inWindow);
+            if (wanted >= 0) {
+                schedule(media, key, wanted, owned);
                 return;
             }
-
-            consumer.accept(path);
+            IN_FLIGHT.remove(key, owned);
+            Log.d(TAG, "[ASYNC] drop-offscreen id=" + media.fileId);
         });
     }
 
@@ -174,21 +226,108 @@ public final class DriveResolver {
         if (flag != null) flag.set(false);
     }
 
+    /* ==========================================================
+     * Request coalescing
+     * ========================================================== */
+
+    /** One consumer of a thumbnail fetch; dropped if cancelled before delivery. */
+    private static final class Waiter {
+        final String mediaId;
+        final int position;
+        final AtomicBoolean alive;
+        final Consumer<String> consumer;
+
+        Waiter(String mediaId, int position, AtomicBoolean alive, Consumer<String> consumer) {
+            this.mediaId = mediaId;
+            this.position = position;
+            this.alive = alive;
+            this.consumer = consumer;
+        }
+
+        void deliver(@Nullable String path) {
+            if (!alive.get()) {
+                Log.d(TAG, "[ASYNC] drop-after id=" + mediaId);
+                return;
+            }
+            consumer.accept(path);
+        }
+    }
+
+    /** A fetch in progress for one cache key, shared by every waiter on it. */
+    private static final class InFlight {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final List<Waiter> waiters = new ArrayList<>(2);
+        private boolean done;
+
+        /** False once completed or abandoned; the caller must start a new flight. */
+        synchronized boolean attach(Waiter w) {
+            if (done) return false;
+            waiters.add(w);
+            return true;
+        }
+
+        /** True for exactly one caller, which runs the fetch. */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        /** Closes the flight without fetching if every waiter was cancelled. */
+        synchronized boolean abandonIfDead() {
+            for (Waiter w : waiters) if (w.alive.get()) return false;
+            done = true;
+            return true;
+        }
+
+        /**
+         * Called when the queued fetch was dropped. Atomic with attach: a
+         * live waiter inside the window keeps the flight open and its
+         * position is returned for a re-submit; otherwise the flight
+         * closes and -1 is returned (a rebind asks again).
+         */
+        synchronized int abandonUnlessWanted(IntPredicate inWindow) {
+            for (Waiter w : waiters)
+                if (w.alive.get() && inWindow.test(w.position)) return w.position;
+            done = true;
+            waiters.clear();
+            return -1;
+        }
+
+        void complete(@Nullable String path) {
+            List<Waiter> snapshot;
+            synchronized (this) {
+                done = true;
+                snapshot = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+            for (Waiter w : snapshot) w.deliver(path);
+        }
+    }
+
     /* ==========================================================
      * Core resolution logic (single pass, no retries)
      * ========================================================== */
 
+    /** Cache file name for {@code media}'s thumbnail; null when it has none. */
     @Nullable
-    private String resolveOnce(@NonNull AlbumMedia media) {
+    private static String cacheName(@NonNull AlbumMedia media) {
         if (media.mimeType == null) return null;
 
         String ref = media.thumbnailLink;
         if (ref == null || ref.isEmpty()) return null;
 
-        if (ref.startsWith("http"))
-            return resolveHttp(ref);
+        return THUMB_PREFIX + (ref.startsWith("http") ? sha1(ref) : ref) + THUMB_EXT;
+    }
+
+    @Nullable
+    private String resolveOnce(@NonNull AlbumMedia media, @NonNull String key) {
+        String path = cached(key);
+        if (path != null) return path;
 
-        return resolveDriveThumb(ref);
+        java.io.File out = new java.io.File(thumbDir, key);
+        String ref = media.thumbnailLink;
+        return ref.startsWith("http")
+                ? downloadHttp(ref, out)
+                : fetchAndCache(primaryDrive, ref, out);
     }
 
 
@@ -196,33 +335,20 @@ public final class DriveResolver {
      * Drive thumbnail handling (explicit thumbnails)
      * ========================================================== */
 
-    private String resolveDriveThumb(@NonNull String thumbFileId) {
-        java.io.File out = new java.io.File(
-                appContext.getCacheDir(),
-                THUMB_PREFIX + thumbFileId + THUMB_EXT
-        );
-
-        if (out.exists()) {
-            touchIfStale(out);
-            return out.getAbsolutePath();
-        }
-
-        return fetchAndCache(primaryDrive, thumbFileId, out);
-    }
-
     @SuppressWarnings("ResultOfMethodCallIgnored")
     private String fetchAndCache(
             @NonNull Drive drive,
             @NonNull String thumbFileId,
             @NonNull java.io.File out
     ) {
-        try (OutputStream os = new FileOutputStream(out)) {
+        java.io.File tmp = partialOf(out);
+        try (OutputStream os = new FileOutputStream(tmp)) {
             drive.files().get(thumbFileId).executeMediaAndDownloadTo(os);
-            executor.execute(this::trimThumbCacheIfNeeded);
-            return out.getAbsolutePath();
+            os.close();
+            return publish(tmp, out);
         } catch (Exception e) {
             Log.w(TAG, "Drive thumbnail fetch failed id=" + thumbFileId, e);
-            out.delete();
+            tmp.delete();
             return null;
         }
     }
@@ -231,24 +357,11 @@ public final class DriveResolver {
      * HTTP thumbnail handling (fallback only)
      * ========================================================== */
 
-    private String resolveHttp(@NonNull String url) {
-        java.io.File out = new java.io.File(
-                appContext.getCacheDir(),
-                THUMB_PREFIX + sha1(url) + THUMB_EXT
-        );
-
-        if (out.exists()) {
-            touchIfStale(out);
-            return out.getAbsolutePath();
-        }
-
-        return downloadHttp(url, out);
-    }
-
     @SuppressWarnings("ResultOfMethodCallIgnored")
     private String downloadHttp(String url, java.io.File out) {
         HttpURLConnection conn = null;
-        try (FileOutputStream fos = new FileOutputStream(out)) {
+        java.io.File tmp = partialOf(out);
+        try (FileOutputStream fos = new FileOutputStream(tmp)) {
             conn = (HttpURLConnection) new URL(url).openConnection();
             conn.setConnectTimeout(4000);
             conn.setReadTimeout(4000);
@@ -259,11 +372,11 @@ public final class DriveResolver {
                 int n;
                 while ((n = in.read(buf)) > 0) fos.write(buf, 0, n);
             }
-            executor.execute(this::trimThumbCacheIfNeeded);
-            return out.getAbsolutePath();
+            fos.close();
+            return publish(tmp, out);
         } catch (Exception e) {
             Log.w(TAG, "HTTP thumbnail fetch failed", e);
-            out.delete();
+            tmp.delete();
             return null;
         } finally {
             if (conn != null) conn.disconnect();
@@ -271,51 +384,47 @@ public final class DriveResolver {
     }
 
     /* ==========================================================
-     * LRU thumbnail cache trim (best-effort)
+     * Thumbnail cache index
      * ========================================================== */
 
-    private void trimThumbCacheIfNeeded() {
-        java.io.File dir = appContext.getCacheDir();
-        java.io.File[] files = dir.listFiles((d, n) -> n.startsWith(THUMB_PREFIX));
-        if (files == null || files.length == 0) return;
-
-        long total = 0;
-        for (java.io.File f : files) total += f.length();
-
-        // 🔑 ALWAYS log current total
-        Log.d(TAG, "Thumb cache size: " + (total / 1024) + "KB");
-
-        if (total <= MAX_THUMB_CACHE_BYTES) return;
-
-        java.util.Arrays.sort(
-                files,
-                java.util.Comparator.comparingLong(java.io.File::lastModified)
-        );
-
-        for (java.io.File f : files) {
-            long len = f.length();
-            if (f.delete()) {
-                total -= len;
-                Log.d(
-                        TAG,
-                        "Thumb evicted: " + f.getName()
-                                + " (" + (len / 1024) + "KB)"
-                                + ", total=" + (total / 1024) + "KB"
-                );
+    /** Indexed lookup (O(1), touches LRU order); records the hit or miss. */
+    @Nullable
+    private String cached(@NonNull String name) {
+        java.io.File f = thumbIndex.get(name);
+        if (f == null) {
+            // present on disk but missing from the index (journal lost): adopt it
+            java.io.File onDisk = new java.io.File(thumbDir, name);
+            if (onDisk.length() > 0) {
+                thumbIndex.put(name, onDisk.length());
+                f = onDisk;
             }
-            if (total <= MAX_THUMB_CACHE_BYTES) break;
         }
-    }
-
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
-    private static void touchIfStale(@NonNull java.io.File f) {
-        long now = System.currentTimeMillis();
-        if (now - f.lastModified() > TOUCH_INTERVAL_MS)
-            f.setLastModified(now);
+        if (f == null) {
+            diskCache.recordMiss(Partition.THUMBNAILS);
+            return null;
+        }
+        diskCache.recordHit(Partition.THUMBNAILS, f.length());
+        return f.getAbsolutePath();
     }
 
+    private static java.io.File partialOf(@NonNull java.io.File out) {
+        return new java.io.File(out.getParentFile(), out.getName() + DiskLruIndex.PARTIAL_SUFFIX);
+    }
 
+    /** Renames a fully written temp file into place, so readers never see a partial JPEG. */
+    @Nullable
+    private String publish(@NonNull java.io.File tmp, @NonNull java.io.File out) {
+        if (tmp.length() == 0 || !tmp.renameTo(out)) {
+            Log.w(TAG, "thumbnail publish failed " + out.getName());
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return null;
+        }
+        thumbIndex.put(out.getName(), out.length());
+        diskCache.onWrite(Partition.THUMBNAILS, out);
+        return out.getAbsolutePath();
+    }
 
     /* ==========================================================
      * Utils
@@ -337,7 +446,9 @@ public final class DriveResolver {
      * Lifecycle
      * ========================================================== */
 
+    /** Cancels this resolver's pending requests; the shared scheduler stays up. */
     public void release() {
-        executor.shutdown();
+        for (AtomicBoolean alive : liveRequests.values()) alive.set(false);
+        liveRequests.clear();
     }
 }
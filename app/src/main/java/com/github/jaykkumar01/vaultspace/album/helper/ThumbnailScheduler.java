@@ -0,0 +1,268 @@
+package com.github.jaykkumar01.vaultspace.album.helper;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Runs thumbnail work for the album river in viewport order instead of
+ * submission order.
+ *
+ * Guarantees:
+ * - Queued work is picked visible > near-viewport > prefetch, nearest band
+ *   first (visible bands top to bottom), FIFO within a band
+ * - Queue is ordered by band position, so a pick is O(log n) whatever
+ *   the viewport
+ * - Priorities are re-evaluated against the latest viewport at pick time,
+ *   so a fling reorders the queue instead of draining stale requests
+ * - Work that falls outside the prefetch window is dropped (onDrop runs)
+ * - One pool for every band holder (WORKERS threads)
+ * - Visible-thumbnail latency (submit to done) is measured and logged
+ */
+public final class ThumbnailScheduler {
+
+    private static final String TAG = "VaultSpace:ThumbSched";
+
+    /* ================= Priorities ================= */
+
+    private static final int VISIBLE = 0;
+    private static final int NEAR = 1;
+    private static final int PREFETCH = 2;
+    private static final int DROP = 3;
+
+    private static final int NEAR_BANDS = 2;
+    private static final int PREFETCH_BANDS = 8;
+
+    private static final int WORKERS = 4;
+    private static final int LOG_EVERY = 50;
+
+    private static final ThumbnailScheduler INSTANCE = new ThumbnailScheduler();
+
+    /* ================= State (guarded by this) ================= */
+
+    private final HashMap<String, Task> queued = new HashMap<>();
+    private final TreeMap<Integer, ArrayDeque<Task>> byPosition = new TreeMap<>();
+    private long seq;
+    private int first = -1;
+    private int last = -1;
+
+    /* ================= Metrics (guarded by this) ================= */
+
+    private long visibleDone;
+    private long visibleTotalMs;
+    private long visibleMaxMs;
+    private long dropped;
+
+    private ThumbnailScheduler() {
+        for (int i = 0; i < WORKERS; i++) {
+            Thread t = new Thread(this::workLoop, "VaultSpace-Thumb-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    public static ThumbnailScheduler get() {
+        return INSTANCE;
+    }
+
+    /* ================= Public API ================= */
+
+    /**
+     * Queues {@code work} for the band at adapter {@code position} (-1 if
+     * unknown, treated as visible). {@code onDrop} runs instead of
+     * {@code work} if the band leaves the prefetch window first.
+     */
+    public synchronized void submit(@NonNull String key, int position,
+                                    @NonNull Runnable work, @NonNull Runnable onDrop) {
+        Task t = new Task(key, position, ++seq, work, onDrop);
+        Task old = queued.put(key, t);
+        if (old != null) unlink(old);
+        link(t);
+        notify();
+    }
+
+    /** A queued key was requested again from another band; the latest bind wins. */
+    public synchronized void bump(@NonNull String key, int position) {
+        Task t = queued.get(key);
+        if (t == null || t.position == position) return;
+        unlink(t);
+        t.position = position;
+        link(t);
+    }
+
+    /** True while a band at {@code position} is inside the prefetch window. */
+    public synchronized boolean inWindow(int position) {
+        return priorityOf(position) != DROP;
+    }
+
+    /** Visible adapter range of the river, from its scroll listener. */
+    public void onViewport(int first, int last) {
+        List<Task> drops = new ArrayList<>();
+        synchronized (this) {
+            this.first = first;
+            this.last = last;
+
+            // unknown positions (< 0) count as visible and never drop
+            if (first >= 0) {
+                int below = first - PREFETCH_BANDS;
+                if (below > 0) takeAll(byPosition.subMap(0, true, below, false), drops);
+                takeAll(byPosition.tailMap(last + PREFETCH_BANDS, false), drops);
+            }
+            dropped += drops.size();
+        }
+        for (Task t : drops) t.onDrop.run();
+    }
+
+    /** The river went away: drops everything still queued and logs metrics. */
+    public void clearViewport() {
+        List<Task> drops;
+        synchronized (this) {
+            drops = new ArrayList<>(queued.values());
+            queued.clear();
+            byPosition.clear();
+            dropped += drops.size();
+            first = -1;
+            last = -1;
+        }
+        for (Task t : drops) t.onDrop.run();
+        logMetrics();
+    }
+
+    public synchronized void logMetrics() {
+        long avg = visibleDone == 0 ? 0 : visibleTotalMs / visibleDone;
+        Log.d(TAG, "visible n=" + visibleDone
+                + " avgMs=" + avg
+                + " maxMs=" + visibleMaxMs
+                + " dropped=" + dropped
+                + " queued=" + queued.size());
+    }
+
+    /* ================= Internal ================= */
+
+    private static final class Task {
+        final String key;
+        final long seq;
+        final long submittedAt = SystemClock.elapsedRealtime();
+        final Runnable work;
+        final Runnable onDrop;
+        int position;
+
+        Task(String key, int position, long seq, Runnable work, Runnable onDrop) {
+            this.key = key;
+            this.position = position;
+            this.seq = seq;
+            this.work = work;
+            this.onDrop = onDrop;
+        }
+    }
+
+    private int distanceOf(int position) {
+        if (first < 0 || position < 0) return 0;
+        if (position < first) return first - position;
+        if (position > last) return position - last;
+        return 0;
+    }
+
+    private int priorityOf(int position) {
+        int d = distanceOf(position);
+        if (d == 0) return VISIBLE;
+        if (d <= NEAR_BANDS) return NEAR;
+        if (d <= PREFETCH_BANDS) return PREFETCH;
+        return DROP;
+    }
+
+    private void link(Task t) {
+        byPosition.computeIfAbsent(t.position, k -> new ArrayDeque<>()).addLast(t);
+    }
+
+    private void unlink(Task t) {
+        ArrayDeque<Task> band = byPosition.get(t.position);
+        if (band == null) return;
+        band.remove(t);   // a band holds a handful of keys
+        if (band.isEmpty()) byPosition.remove(t.position);
+    }
+
+    private void takeAll(NavigableMap<Integer, ArrayDeque<Task>> range, List<Task> into) {
+        Iterator<ArrayDeque<Task>> it = range.values().iterator();
+        while (it.hasNext()) {
+            for (Task t : it.next()) {
+                queued.remove(t.key);
+                into.add(t);
+            }
+            it.remove();
+        }
+    }
+
+    /**
+     * Nearest band to the viewport: the first queued band inside it, else
+     * the closer of its neighbours above and below. Unknown positions sort
+     * first and count as visible.
+     */
+    private Task pickNext() {
+        if (byPosition.isEmpty()) return null;
+
+        Map.Entry<Integer, ArrayDeque<Task>> head = byPosition.firstEntry();
+        if (first < 0 || head.getKey() < 0) return head.getValue().peekFirst();
+
+        Map.Entry<Integer, ArrayDeque<Task>> above = byPosition.ceilingEntry(first);
+        if (above != null && above.getKey() <= last) return above.getValue().peekFirst();
+
+        Map.Entry<Integer, ArrayDeque<Task>> below = byPosition.lowerEntry(first);
+        if (below == null) return above.getValue().peekFirst();
+        if (above == null) return below.getValue().peekFirst();
+
+        Task b = below.getValue().peekFirst();
+        Task a = above.getValue().peekFirst();
+        int db = first - below.getKey();
+        int da = above.getKey() - last;
+        return db < da || (db == da && b.seq < a.seq) ? b : a;
+    }
+
+    private void workLoop() {
+        while (true) {
+            Task t;
+            boolean visible;
+            synchronized (this) {
+                while ((t = pickNext()) == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                queued.remove(t.key);
+                unlink(t);
+                visible = priorityOf(t.position) == VISIBLE;
+            }
+
+            try {
+                t.work.run();
+            } catch (RuntimeException e) {
+                Log.w(TAG, "thumbnail task failed", e);
+            }
+
+            if (visible) recordVisible(SystemClock.elapsedRealtime() - t.submittedAt);
+        }
+    }
+
+    private void recordVisible(long ms) {
+        boolean log;
+        synchronized (this) {
+            visibleDone++;
+            visibleTotalMs += ms;
+            visibleMaxMs = Math.max(visibleMaxMs, ms);
+            log = visibleDone % LOG_EVERY == 0;
+        }
+        if (log) logMetrics();
+    }
+}
@@ -3,28 +3,21 @@ package com.github.jaykkumar01.vaultspace.album.listener;
 import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
 import com.github.jaykkumar01.vaultspace.core.drive.AlbumMediaRepository;
 
-import java.util.function.Consumer;
+import java.util.List;
+import java.util.function.BiConsumer;
 
 public final class AlbumMediaDeltaListenerImpl implements AlbumMediaRepository.MediaDeltaListener {
 
-    private final Consumer<AlbumMedia> onAdded;
-    private final Consumer<String> onRemoved;
+    private final BiConsumer<List<AlbumMedia>, List<String>> onBatch;
 
     public AlbumMediaDeltaListenerImpl(
-            Consumer<AlbumMedia> onAdded,
-            Consumer<String> onRemoved
+            BiConsumer<List<AlbumMedia>, List<String>> onBatch
     ) {
-        this.onAdded = onAdded;
-        this.onRemoved = onRemoved;
+        this.onBatch = onBatch;
     }
 
     @Override
-    public void onMediaAdded(AlbumMedia media) {
-        onAdded.accept(media);
-    }
-
-    @Override
-    public void onMediaRemoved(String mediaId) {
-        onRemoved.accept(mediaId);
+    public void onMediaBatch(List<AlbumMedia> added, List<String> removed) {
+        onBatch.accept(added, removed);
     }
 }
@@ -22,6 +22,7 @@ public final class AlbumMedia {
     public final float aspectRatio;
     public final int rotation;
     public final long durationMillis;
+    public final String mp4Layout;   // null unless analyzed at upload
 
     public AlbumMedia(UploadedItem item) {
         this.fileId = item.fileId;
@@ -39,5 +40,6 @@ public final class AlbumMedia {
         this.aspectRatio = item.aspectRatio;
         this.rotation = item.rotation;
         this.durationMillis = item.durationMillis;
+        this.mp4Layout = item.mp4Layout;
     }
 }
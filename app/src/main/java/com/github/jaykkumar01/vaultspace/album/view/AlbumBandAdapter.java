@@ -67,7 +67,7 @@ public final class AlbumBandAdapter extends RecyclerView.Adapter<BandViewHolder>
 
     @Override
     public void onBindViewHolder(@NonNull BandViewHolder holder, int position) {
-        holder.bind(items.get(position));
+        holder.bind(items.get(position), position);
     }
 
     @Override
@@ -6,11 +6,13 @@ import android.content.Context;
 import android.util.AttributeSet;
 import android.widget.FrameLayout;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.github.jaykkumar01.vaultspace.R;
+import com.github.jaykkumar01.vaultspace.album.helper.ThumbnailScheduler;
 import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
 
 import java.util.ArrayList;
@@ -19,6 +21,7 @@ import java.util.List;
 public final class AlbumContentView extends FrameLayout{
 
     private final RecyclerView rv;
+    private final LinearLayoutManager lm;
     private final AlbumBandAdapter adapter;
     private final LayoutStateManager state;
     private String albumId;
@@ -36,8 +39,16 @@ public final class AlbumContentView extends FrameLayout{
         setBackgroundColor(c.getColor(R.color.vs_content_bg));
 
         rv = new RecyclerView(c);
-        rv.setLayoutManager(new LinearLayoutManager(c));
+        lm = new LinearLayoutManager(c);
+        rv.setLayoutManager(lm);
         rv.setOverScrollMode(OVER_SCROLL_NEVER);
+        // also fires after layout passes, so inserts/removes re-publish too
+        rv.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView r, int dx, int dy) {
+                publishViewport();
+            }
+        });
 
 
         adapter = new AlbumBandAdapter();
@@ -55,6 +66,29 @@ public final class AlbumContentView extends FrameLayout{
         albumId = id;
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        state.cancelStream();
+        ThumbnailScheduler.get().clearViewport();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldW, int oldH) {
+        super.onSizeChanged(w, h, oldW, oldH);
+        // bands are sized to the width: relayout (cancels any stream in flight)
+        if (oldW != 0 && w != oldW) rv.post(() -> rebuild(state.snapshot()));
+    }
+
+    /* ===== VIEWPORT ===== */
+
+    private void publishViewport() {
+        int first = lm.findFirstVisibleItemPosition();
+        int last = lm.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) return;
+        ThumbnailScheduler.get().onViewport(first, last);
+    }
+
     /* ===== FULL SET ===== */
 
     public void setMedia(Iterable<AlbumMedia> snapshot) {
@@ -65,32 +99,18 @@ public final class AlbumContentView extends FrameLayout{
     }
 
 
-    /* ===== ADD (simple wiring) ===== */
-
-    public void addMedia(AlbumMedia m) {
-        if (m == null) return;
-        int w = rv.getWidth();
-        if (w == 0) {
-            rv.post(() -> addMedia(m));
-            return;
-        }
-
-        LayoutResult r = state.addMedia(albumId, w, m);
-        adapter.replaceRange(r.start(), r.removeCount(), r.items());
-    }
-
-    /* ===== REMOVE (simple wiring) ===== */
+    /* ===== BATCH (coalesced deltas) ===== */
 
-    public void removeMedia(String id) {
-        if (id == null) return;
+    public void applyBatch(List<AlbumMedia> added, List<String> removed) {
+        if (added.isEmpty() && removed.isEmpty()) return;
         int w = rv.getWidth();
         if (w == 0) {
-            rv.post(() -> removeMedia(id));
+            rv.post(() -> applyBatch(added, removed));
             return;
         }
 
-        LayoutResult r = state.removeMedia(albumId, w, id);
-        adapter.replaceRange(r.start(), r.removeCount(), r.items());
+        for (LayoutResult r : state.applyBatch(albumId, w, added, removed))
+            adapter.replaceRange(r.start(), r.removeCount(), r.items());
     }
 
     /* ===== REBUILD ===== */
@@ -102,7 +122,8 @@ public final class AlbumContentView extends FrameLayout{
             return;
         }
 
-        LayoutResult r = state.setMedia(albumId, w, media);
+        LayoutResult r = state.setMedia(albumId, w, media,
+                chunk -> adapter.replaceRange(chunk.start(), chunk.removeCount(), chunk.items()));
         adapter.setAll(r.items());
     }
 }
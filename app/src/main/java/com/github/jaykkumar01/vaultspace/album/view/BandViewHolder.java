@@ -39,6 +39,7 @@ public final class BandViewHolder extends RecyclerView.ViewHolder {
     private final FrameLayout band;
     private final DriveResolver resolver;
     private final OnMediaActionListener listener;
+    private int boundPosition = RecyclerView.NO_POSITION;
 
     /* ================= Constructor ================= */
 
@@ -76,7 +77,8 @@ public final class BandViewHolder extends RecyclerView.ViewHolder {
 
     /* ================= Bind ================= */
 
-    public void bind(@NonNull BandLayout layout) {
+    public void bind(@NonNull BandLayout layout, int position) {
+        boundPosition = position;
         activeMediaIds.clear();
         bindHeader(layout);
         band.removeAllViews();
@@ -320,7 +322,7 @@ public final class BandViewHolder extends RecyclerView.ViewHolder {
     private void loadImageAsync(Context c, ImageView image, AlbumMedia m) {
         Drawable placeholder = AppCompatResources.getDrawable(c, m.isVideo ? R.drawable.ic_play_badge : R.drawable.ic_photo);
         image.setTag(m.fileId);
-        resolver.resolveAsync(m, path -> {
+        resolver.resolveAsync(m, boundPosition, path -> {
             if (path == null) return;
             image.post(() -> {
                 if (!m.fileId.equals(image.getTag())) return;
@@ -23,6 +23,11 @@ public final class Group {
     public int layoutStart;
     public int layoutCount;
 
+    /* ===== Streaming (see LayoutStreamer) ===== */
+    int version;            // bumped on every media change
+    boolean complete = true; // all bands laid out
+    boolean removed;
+
     Group(String key) {
         this.key = key;
     }
@@ -7,11 +7,29 @@ import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Album layout state: groups, bands and the flat BandLayout list the
+ * adapter shows.
+ *
+ * Large albums are laid out incrementally: setMedia lays out the first
+ * viewport synchronously and {@link LayoutStreamer} appends the rest in
+ * chunks. Groups before {@code cursor} are complete; the group at
+ * {@code cursor} may be partially laid out and is always the tail of
+ * {@code flatLayouts}; later groups have no layouts yet. Edits to an
+ * incomplete group only touch its media and are picked up when the stream
+ * reaches it.
+ */
 public final class LayoutStateManager {
 
+    private static final int FIRST_VIEWPORT_BANDS = 24;
+
     /* ================= State ================= */
 
     private final List<AlbumMedia> media = new ArrayList<>();
@@ -23,13 +41,23 @@ public final class LayoutStateManager {
 
     private TimeBucketizer bucketizer;
 
+    private LayoutStreamer streamer;
+    private int cursor;
+    private int dirtyFrom;
+
     private final LayoutGroupBuilder groupBuilder = new LayoutGroupBuilder();
     private final BandDiffHelper bandDiffHelper = new BandDiffHelper();
     private final LayoutMutationApplier mutator = new LayoutMutationApplier(groups, flatLayouts);
 
     /* ================= Public API ================= */
 
-    public LayoutResult setMedia(String albumId, int width, List<AlbumMedia> sortedMedia) {
+    /**
+     * Lays out the first viewport now; the rest arrives through
+     * {@code onChunk} (main thread) as tail ranges for the adapter.
+     */
+    public LayoutResult setMedia(String albumId, int width, List<AlbumMedia> sortedMedia,
+                                 Consumer<LayoutResult> onChunk) {
+        cancelStream();
         clear();
         if (sortedMedia == null || sortedMedia.isEmpty()) return LayoutResult.setAll(flatLayouts);
 
@@ -49,103 +77,148 @@ public final class LayoutStateManager {
 
         groups.sort((a, b) -> Integer.compare(groupOrder(a.key), groupOrder(b.key)));
 
-        int cursor = 0;
+        int budget = FIRST_VIEWPORT_BANDS;
+        List<LayoutStreamer.Job> jobs = new ArrayList<>();
+
         for (Group g : groups) {
-            g.layoutStart = cursor;
-            g.bands = groupBuilder.buildBands(g.media, bucketizer);
-            g.layouts = groupBuilder.buildLayouts(albumId, width, g.bands);
-            g.layoutCount = g.layouts.size();
+            g.complete = false;
+            if (budget <= 0) {
+                String label = bucketizer.resolve(g.media.get(0).momentMillis).label;
+                jobs.add(LayoutStreamer.Job.fresh(g, label, new ArrayList<>(g.media)));
+                continue;
+            }
 
-            flatLayouts.addAll(g.layouts);
-            if (g.layoutCount > 0) flatLayouts.get(g.layoutStart).showTimeLabel = true;
+            List<Band> bands = groupBuilder.buildBands(g.media, bucketizer);
+            int n = Math.min(budget, bands.size());
+            appendLayouts(g, bands, groupBuilder.buildLayouts(albumId, width, bands.subList(0, n)));
+            budget -= n;
+
+            if (n == bands.size()) {
+                g.complete = true;
+                cursor++;
+            } else jobs.add(LayoutStreamer.Job.resume(g, bands, n));
+        }
 
-            cursor += g.layoutCount;
+        if (!jobs.isEmpty()) {
+            streamer = new LayoutStreamer();
+            streamer.start(albumId, width, jobs, (source, chunk) -> {
+                if (source != streamer) return;
+                LayoutResult r = applyChunk(albumId, width, chunk);
+                if (r != null) onChunk.accept(r);
+            });
         }
 
         return LayoutResult.setAll(flatLayouts);
     }
 
-    public LayoutResult addMedia(String albumId, int width, AlbumMedia m) {
-        if (m == null) return LayoutResult.replaceRange(0, 0, List.of());
-        mediaById.put(m.fileId, m);
-
-        insertMediaSorted(m);
-
-        TimeBucketizer.Result r = bucketizer().resolve(m.momentMillis);
-        Group g = groupByKey.get(r.key);
+    /** Current media, newest first (for a relayout at another width). */
+    public List<AlbumMedia> snapshot() {
+        return new ArrayList<>(media);
+    }
 
-        if (g == null) {
-            g = new Group(r.key);
-            g.media.add(m);
-            insertGroupOrdered(g);
+    public void cancelStream() {
+        if (streamer != null) streamer.cancel();
+        streamer = null;
+    }
 
-            g.bands = groupBuilder.buildBands(g.media, bucketizer);
-            g.layouts = groupBuilder.buildLayouts(albumId, width, g.bands);
-            g.layoutCount = g.layouts.size();
+    /**
+     * Applies a coalesced batch of removes then adds. Each affected group is
+     * re-paired and diffed once; the results must be applied in order.
+     */
+    public List<LayoutResult> applyBatch(String albumId, int width,
+                                         List<AlbumMedia> added, List<String> removed) {
+        Set<Group> touched = new LinkedHashSet<>();
+        Set<Group> created = new HashSet<>();
+
+        Set<AlbumMedia> gone = new HashSet<>();
+        for (String id : removed) {
+            AlbumMedia m = mediaById.remove(id);
+            if (m == null) continue;
+            Group g = groupByKey.get(bucketizer().resolve(m.momentMillis).key);
+            if (g == null || !g.media.remove(m)) continue;
+            gone.add(m);
+            touched.add(g);
+        }
+        if (!gone.isEmpty()) media.removeIf(gone::contains);
 
-            mutator.insertGroup(g, g.layouts);
-            if (g.layoutCount > 0) flatLayouts.get(g.layoutStart).showTimeLabel = true;
-            return LayoutResult.replaceRange(g.layoutStart, 0, g.layouts);
+        int before = media.size();
+        for (AlbumMedia m : added) {
+            if (m == null || mediaById.containsKey(m.fileId)) continue;
+            mediaById.put(m.fileId, m);
+            media.add(m);
+
+            String key = bucketizer().resolve(m.momentMillis).key;
+            Group g = groupByKey.get(key);
+            if (g == null) {
+                g = new Group(key);
+                groupByKey.put(key, g);   // placed in order once filled
+                created.add(g);
+            }
+            insertGroupMediaSorted(g, m);
+            touched.add(g);
         }
+        // appended run of newest-first uploads: near-sorted, cheap for TimSort
+        if (media.size() != before) media.sort((x, y) -> Long.compare(y.momentMillis, x.momentMillis));
+
+        List<LayoutResult> out = new ArrayList<>(touched.size());
+        for (Group g : touched) {
+            g.version++;
+            LayoutResult r;
+            if (created.contains(g)) r = layoutNewGroup(albumId, width, g);
+            else if (g.media.isEmpty()) r = dropGroup(g);
+            else if (!g.complete) r = null;
+            else r = rediffGroup(albumId, width, g);
+
+            if (r != null && (r.removeCount() > 0 || !r.items().isEmpty())) out.add(r);
+        }
+        return out;
+    }
 
-        insertGroupMediaSorted(g, m);
+    /* ================= Group relayout ================= */
 
-        List<Band> nextBands = groupBuilder.buildBands(g.media, bucketizer);
-        BandDiff d = bandDiffHelper.diff(g.bands, nextBands);
+    /** Places a new, filled group; null if it lies beyond the streamed region. */
+    private LayoutResult layoutNewGroup(String albumId, int width, Group g) {
+        int idx = insertGroupOrdered(g);
 
-        if (d.removeCount == 0 && d.items.isEmpty()) {
-            g.bands = nextBands;
-            if (g.layoutCount > 0) flatLayouts.get(g.layoutStart).showTimeLabel = true;
-            return LayoutResult.replaceRange(0, 0, List.of());
+        // beyond the streamed region: laid out when the stream gets there
+        if (idx > cursor) {
+            g.complete = false;
+            return null;
         }
+        cursor++;
 
-        List<BandLayout> inserted = groupBuilder.buildLayouts(albumId, width, d.items);
-
-        LayoutResult rlt = LayoutResult.replaceRange(g.layoutStart + d.start, d.removeCount, inserted);
+        g.bands = groupBuilder.buildBands(g.media, bucketizer);
+        g.layouts = groupBuilder.buildLayouts(albumId, width, g.bands);
+        g.layoutCount = g.layouts.size();
 
-        mutator.applyDiff(g, rlt, inserted.size() - d.removeCount);
+        mutator.insertGroup(g, g.layouts);
         if (g.layoutCount > 0) flatLayouts.get(g.layoutStart).showTimeLabel = true;
-
-
-        g.bands = nextBands;
-        g.layoutCount += inserted.size() - d.removeCount;
-        g.layouts = flatLayouts.subList(g.layoutStart, g.layoutStart + g.layoutCount);
-
-        return rlt;
+        return LayoutResult.replaceRange(g.layoutStart, 0, g.layouts);
     }
 
+    /** Removes a group whose media ran out. */
+    private LayoutResult dropGroup(Group g) {
+        int start = g.layoutStart, count = g.layoutCount;
+        mutator.removeGroup(g);
+        if (g.complete) cursor--;
+        groups.remove(g);
+        groupByKey.remove(g.key);
+        g.removed = true;
 
-    public LayoutResult removeMedia(String albumId, int width, String mediaId) {
-        AlbumMedia m = mediaById.get(mediaId);
-        if (m == null) return LayoutResult.replaceRange(0, 0, List.of());
-
-        TimeBucketizer.Result r = bucketizer().resolve(m.momentMillis);
-        Group g = groupByKey.get(r.key);
-        if (g == null || !g.media.remove(m)) return LayoutResult.replaceRange(0, 0, List.of());
-
-        media.remove(m);
-
-        if (g.media.isEmpty()) {
-            int start = g.layoutStart, count = g.layoutCount;
-            mutator.removeGroup(g);
-            groups.remove(g);
-            groupByKey.remove(g.key);
+        if (count > 0 && start < flatLayouts.size())
+            flatLayouts.get(start).showTimeLabel = true;
 
-            if (start < flatLayouts.size())
-                flatLayouts.get(start).showTimeLabel = true;
-
-            mediaById.remove(mediaId); // ✅ added
-            return LayoutResult.replaceRange(start, count, List.of());
-        }
+        return LayoutResult.replaceRange(start, count, List.of());
+    }
 
+    /** Re-pairs a complete group and applies the band diff. */
+    private LayoutResult rediffGroup(String albumId, int width, Group g) {
         List<Band> nextBands = groupBuilder.buildBands(g.media, bucketizer);
         BandDiff d = bandDiffHelper.diff(g.bands, nextBands);
 
         if (d.removeCount == 0 && d.items.isEmpty()) {
             g.bands = nextBands;
             if (g.layoutCount > 0) flatLayouts.get(g.layoutStart).showTimeLabel = true;
-
-            mediaById.remove(mediaId); // ✅ added
             return LayoutResult.replaceRange(0, 0, List.of());
         }
 
@@ -160,11 +233,63 @@ public final class LayoutStateManager {
         g.layoutCount += inserted.size() - d.removeCount;
         g.layouts = flatLayouts.subList(g.layoutStart, g.layoutStart + g.layoutCount);
 
-        mediaById.remove(mediaId); // ✅ added
         return rlt;
     }
 
+    /* ================= Streaming ================= */
+
+    /** Applies one streamed chunk; returns the changed tail, or null if nothing changed. */
+    private LayoutResult applyChunk(String albumId, int width, LayoutStreamer.Chunk c) {
+        int oldSize = flatLayouts.size();
+        dirtyFrom = Integer.MAX_VALUE;
+
+        if (c.group == null) {
+            // end of stream: groups added meanwhile were left for us
+            while (cursor < groups.size()) layoutWholeGroup(albumId, width, groups.get(cursor++));
+            streamer = null;
+        } else if (!c.group.removed && !c.group.complete) {
+            Group g = c.group;
+            while (cursor < groups.size() && groups.get(cursor) != g)
+                layoutWholeGroup(albumId, width, groups.get(cursor++));
+
+            if (g.version != c.version || g.layoutCount != c.from) {
+                // edited since the snapshot: lay it out from current media
+                layoutWholeGroup(albumId, width, g);
+                cursor++;
+            } else {
+                dirtyFrom = Math.min(dirtyFrom, flatLayouts.size());
+                appendLayouts(g, c.bands, c.layouts);
+                if (c.groupDone) {
+                    g.complete = true;
+                    cursor++;
+                }
+            }
+        }
 
+        if (dirtyFrom == Integer.MAX_VALUE) return null;
+        return LayoutResult.replaceRange(dirtyFrom, oldSize - dirtyFrom,
+                new ArrayList<>(flatLayouts.subList(dirtyFrom, flatLayouts.size())));
+    }
+
+    /** Lays out the group at {@code cursor} fully, replacing any partial tail. */
+    private void layoutWholeGroup(String albumId, int width, Group g) {
+        int start = g.layoutCount > 0 ? g.layoutStart : flatLayouts.size();
+        dirtyFrom = Math.min(dirtyFrom, start);
+        flatLayouts.subList(start, flatLayouts.size()).clear();
+        g.layoutCount = 0;
+
+        List<Band> bands = groupBuilder.buildBands(g.media, bucketizer);
+        appendLayouts(g, bands, groupBuilder.buildLayouts(albumId, width, bands));
+        g.complete = true;
+    }
+
+    private void appendLayouts(Group g, List<Band> bands, List<BandLayout> layouts) {
+        if (g.layoutCount == 0) g.layoutStart = flatLayouts.size();
+        flatLayouts.addAll(layouts);
+        g.bands = bands;
+        g.layoutCount += layouts.size();
+        if (g.layoutCount > 0) flatLayouts.get(g.layoutStart).showTimeLabel = true;
+    }
 
     /* ================= Helpers ================= */
 
@@ -175,6 +300,7 @@ public final class LayoutStateManager {
     }
 
     private void clear() {
+        cursor = 0;
         media.clear();
         mediaById.clear();   // ✅ REQUIRED
         groups.clear();
@@ -183,11 +309,6 @@ public final class LayoutStateManager {
     }
 
 
-    private void insertMediaSorted(AlbumMedia m) {
-        int idx = findInsertIndexDesc(media, m.momentMillis);
-        media.add(idx, m);
-    }
-
     private void insertGroupMediaSorted(Group g, AlbumMedia m) {
         int idx = findInsertIndexDesc(g.media, m.momentMillis);
         g.media.add(idx, m);
@@ -218,7 +339,7 @@ public final class LayoutStateManager {
     }
 
 
-    private void insertGroupOrdered(Group g) {
+    private int insertGroupOrdered(Group g) {
         int idx = 0;
         while (idx < groups.size() && groupOrder(groups.get(idx).key) <= groupOrder(g.key)) idx++;
 
@@ -228,5 +349,6 @@ public final class LayoutStateManager {
         g.layoutStart = (idx == 0) ? 0
                 : groups.get(idx - 1).layoutStart + groups.get(idx - 1).layoutCount;
         g.layoutCount = 0;
+        return idx;
     }
 }
@@ -0,0 +1,128 @@
+package com.github.jaykkumar01.vaultspace.album.view;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.github.jaykkumar01.vaultspace.album.band.Band;
+import com.github.jaykkumar01.vaultspace.album.layout.BandLayout;
+import com.github.jaykkumar01.vaultspace.album.layout.BandLayoutEngine;
+import com.github.jaykkumar01.vaultspace.album.layout.PairingEngine;
+import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lays out the rest of an album in the background after
+ * {@link LayoutStateManager} has laid out the first viewport.
+ *
+ * Guarantees:
+ * - Works only on snapshots (media copies, precomputed labels); never
+ *   touches LayoutStateManager state
+ * - Groups are streamed in order, CHUNK_BANDS layouts per chunk
+ * - Chunks are delivered on the main thread; none after {@link #cancel()}
+ * - A final chunk with a null group marks the end of the stream
+ */
+final class LayoutStreamer {
+
+    private static final int CHUNK_BANDS = 96;
+
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private static final Handler main = new Handler(Looper.getMainLooper());
+
+    interface Sink {
+        void onChunk(LayoutStreamer source, Chunk chunk);
+    }
+
+    /* ================= Snapshots ================= */
+
+    /** One group still to lay out, as it was when the stream started. */
+    static final class Job {
+        final Group group;
+        final int version;
+        final String label;
+        final List<AlbumMedia> media;   // null when bands are already paired
+        final List<Band> bands;         // null until paired
+        final int fromBand;
+
+        private Job(Group group, int version, String label,
+                    List<AlbumMedia> media, List<Band> bands, int fromBand) {
+            this.group = group;
+            this.version = version;
+            this.label = label;
+            this.media = media;
+            this.bands = bands;
+            this.fromBand = fromBand;
+        }
+
+        static Job fresh(Group g, String label, List<AlbumMedia> mediaCopy) {
+            return new Job(g, g.version, label, mediaCopy, null, 0);
+        }
+
+        static Job resume(Group g, List<Band> bands, int fromBand) {
+            return new Job(g, g.version, null, null, bands, fromBand);
+        }
+    }
+
+    static final class Chunk {
+        final Group group;
+        final int version;
+        final List<Band> bands;
+        final int from;
+        final List<BandLayout> layouts;
+        final boolean groupDone;
+
+        Chunk(Group group, int version, List<Band> bands, int from,
+              List<BandLayout> layouts, boolean groupDone) {
+            this.group = group;
+            this.version = version;
+            this.bands = bands;
+            this.from = from;
+            this.layouts = layouts;
+            this.groupDone = groupDone;
+        }
+    }
+
+    /* ================= State ================= */
+
+    private volatile boolean cancelled;
+
+    /* ================= Public API ================= */
+
+    void start(String albumId, int width, List<Job> jobs, Sink sink) {
+        worker.execute(() -> run(albumId, width, jobs, sink));
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    /* ================= Worker ================= */
+
+    private void run(String albumId, int width, List<Job> jobs, Sink sink) {
+        BandLayoutEngine engine = new BandLayoutEngine(albumId, width);
+
+        for (Job job : jobs) {
+            if (cancelled) return;
+
+            List<Band> bands = job.bands != null ? job.bands : PairingEngine.pair(job.media, job.label);
+            int from = job.fromBand;
+            do {
+                if (cancelled) return;
+                int to = Math.min(bands.size(), from + CHUNK_BANDS);
+                List<BandLayout> layouts = engine.computeAll(bands.subList(from, to));
+                post(sink, new Chunk(job.group, job.version, bands, from, layouts, to == bands.size()));
+                from = to;
+            } while (from < bands.size());
+        }
+
+        post(sink, new Chunk(null, 0, null, 0, List.of(), true));
+    }
+
+    private void post(Sink sink, Chunk chunk) {
+        main.post(() -> {
+            if (!cancelled) sink.onChunk(this, chunk);
+        });
+    }
+}
@@ -0,0 +1,168 @@
+package com.github.jaykkumar01.vaultspace.core.auth;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.github.jaykkumar01.vaultspace.core.session.UserSession;
+import com.google.android.gms.auth.GoogleAuthUtil;
+import com.google.api.client.googleapis.extensions.android.gms.auth.GoogleAccountCredential;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-account OAuth token cache for Drive traffic: raw HTTP (alt=media
+ * streaming, ranged downloads) and every pooled Drive API client. The
+ * ONLY place allowed to call credential.getToken() for those paths.
+ *
+ * Guarantees:
+ * - One manager per (account, scope), shared process-wide
+ * - Tokens are refreshed in the background before they expire
+ * - Concurrent refreshes collapse into one (single-flight)
+ * - The fast path never blocks and never probes the network
+ */
+public final class DriveTokenManager {
+
+    private static final String TAG = "VaultSpace:DriveToken";
+
+    // Play Services doesn't expose expiry; Google access tokens live 60 min
+    private static final long TOKEN_TTL_MS = TimeUnit.MINUTES.toMillis(55);
+    private static final long REFRESH_AHEAD_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Map<String, DriveTokenManager> managers = new ConcurrentHashMap<>();
+    private static final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "VaultSpace-TokenRefresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /* ================= State ================= */
+
+    private static final class Token {
+        final String value;
+        final long fetchedAt;
+
+        Token(String value, long fetchedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+        }
+
+        long age() {
+            return SystemClock.elapsedRealtime() - fetchedAt;
+        }
+    }
+
+    private final Context appContext;
+    private final GoogleAccountCredential credential;
+
+    private volatile Token token;
+    private CompletableFuture<String> inFlight;   // guarded by this
+
+    private DriveTokenManager(Context context, GoogleAccountCredential credential) {
+        this.appContext = context.getApplicationContext();
+        this.credential = credential;
+    }
+
+    /* ================= Lookup ================= */
+
+    /** Full drive scope, for the signed-in primary account. */
+    public static DriveTokenManager primary(Context context) {
+        String email = new UserSession(context).getPrimaryAccountEmail();
+        return managers.computeIfAbsent(key("primary", email), k ->
+                new DriveTokenManager(context, GoogleCredentialFactory.forPrimaryDrive(context)));
+    }
+
+    /** drive.file scope, for a trusted account. */
+    public static DriveTokenManager forAccount(Context context, String email) {
+        return managers.computeIfAbsent(key("file", email), k ->
+                new DriveTokenManager(context, GoogleCredentialFactory.forDrive(context, email)));
+    }
+
+    /** Drops every manager of {@code email}, e.g. after its access was revoked. */
+    public static void evict(String email) {
+        if (email == null) return;
+        String suffix = "|" + email.toLowerCase(Locale.ROOT);
+        managers.keySet().removeIf(k -> k.endsWith(suffix));
+    }
+
+    public static void onSessionCleared() {
+        managers.clear();
+    }
+
+    /* ================= Public API ================= */
+
+    /**
+     * Returns a usable token. Blocks only when there is none yet or it has
+     * expired; inside the refresh window the cached one is returned and a
+     * refresh starts in the background.
+     */
+    public String getToken() {
+        Token t = token;
+        if (t == null || t.age() >= TOKEN_TTL_MS) return await(refresh(null));
+
+        if (t.age() >= TOKEN_TTL_MS - REFRESH_AHEAD_MS) refresh(null);
+        return t.value;
+    }
+
+    /**
+     * Call after the server rejected {@code rejected} (HTTP 401). If another
+     * caller already replaced it, the newer token is returned as is.
+     */
+    public String refreshAfterFailure(String rejected) {
+        Token t = token;
+        if (t != null && !t.value.equals(rejected)) return t.value;
+        Log.w(TAG, "token rejected, refreshing");
+        return await(refresh(rejected));
+    }
+
+    /* ================= Internal ================= */
+
+    private synchronized CompletableFuture<String> refresh(String stale) {
+        if (inFlight != null) return inFlight;
+
+        CompletableFuture<String> f = new CompletableFuture<>();
+        inFlight = f;
+        refresher.execute(() -> {
+            try {
+                // Play Services hands back its cached token until told otherwise
+                String old = stale != null ? stale : token != null ? token.value : null;
+                if (old != null) GoogleAuthUtil.clearToken(appContext, old);
+
+                String fresh = credential.getToken();
+                token = new Token(fresh, SystemClock.elapsedRealtime());
+                f.complete(fresh);
+            } catch (Exception e) {
+                f.completeExceptionally(e);
+            } finally {
+                synchronized (DriveTokenManager.this) {
+                    inFlight = null;
+                }
+            }
+        });
+        return f;
+    }
+
+    private static String await(CompletableFuture<String> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static String key(String scope, String email) {
+        if (email == null || email.isBlank())
+            throw new IllegalArgumentException("Google account email is required");
+        return scope + "|" + email.toLowerCase(Locale.ROOT);
+    }
+}
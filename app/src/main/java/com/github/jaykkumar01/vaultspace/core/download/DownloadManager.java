@@ -14,7 +14,13 @@ import androidx.annotation.RequiresApi;
 import com.github.jaykkumar01.vaultspace.core.download.base.DownloadRequest;
 import com.github.jaykkumar01.vaultspace.core.download.base.DriveDownloadCallback;
 import com.github.jaykkumar01.vaultspace.core.download.engine.DownloadDriveHelper;
+import com.github.jaykkumar01.vaultspace.core.session.db.download.DownloadPartialEntity;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @RequiresApi(api = Build.VERSION_CODES.Q)
@@ -22,6 +28,9 @@ public final class DownloadManager {
 
     private static final String TAG = "DL_FINAL";
 
+    // matches how long MediaStore keeps our pending rows around
+    private static final long MAX_PARTIAL_AGE_MS = TimeUnit.DAYS.toMillis(7);
+
     /* ================= Dependencies ================= */
 
     private final ContentResolver resolver;
@@ -42,7 +51,8 @@ public final class DownloadManager {
             DriveDownloadCallback callback,
             AtomicBoolean cancelled
     ) {
-        Uri uri = createMediaStoreUri(req.name);
+        Uri uri = partialUri(req.fileId);
+        if (uri == null) uri = createMediaStoreUri(req.name);
         if (uri == null) {
             callback.onFailed(new IllegalStateException("MediaStore insert failed"));
             return;
@@ -54,7 +64,7 @@ public final class DownloadManager {
             driveHelper.streamToUri(req, uri, callback, cancelled);
 
             if (cancelled.get()) {
-                resolver.delete(uri, null, null);
+                discard(req.fileId, uri);
                 return;
             }
 
@@ -62,11 +72,73 @@ public final class DownloadManager {
             callback.onCompleted();
 
         } catch (Exception e) {
-            resolver.delete(uri, null, null);
+            // a resumable partial keeps its pending file for the next attempt
+            if (cancelled.get() || !driveHelper.hasPartial(req.fileId)) discard(req.fileId, uri);
             if (!cancelled.get()) callback.onFailed(e);
         }
     }
 
+    /* ================= Interrupted downloads ================= */
+
+    /**
+     * Called once when the service starts, before anything new is written.
+     * Deletes pending files nobody can resume and returns the downloads
+     * whose partial file survived, so they continue where they stopped.
+     */
+    public List<DownloadRequest> recoverInterrupted() {
+        Set<String> pending = pendingUris();
+        List<DownloadRequest> resumable = new ArrayList<>();
+        Set<String> kept = new HashSet<>();
+
+        for (DownloadPartialEntity p : driveHelper.listPartials()) {
+            boolean fresh = System.currentTimeMillis() - p.updatedAt < MAX_PARTIAL_AGE_MS;
+            // without a remote version the partial could never be matched again
+            if (fresh && p.remoteVersion != null && pending.contains(p.targetUri)) {
+                kept.add(p.targetUri);
+                resumable.add(new DownloadRequest(p.fileId, p.name, p.sizeBytes));
+            } else {
+                driveHelper.discardPartial(p.fileId);
+            }
+        }
+
+        for (String uri : pending)
+            if (!kept.contains(uri)) resolver.delete(Uri.parse(uri), null, null);
+
+        Log.d(TAG, "recovered " + resumable.size() + " interrupted download(s)");
+        return resumable;
+    }
+
+    private Uri partialUri(String fileId) {
+        String target = driveHelper.partialTarget(fileId);
+        if (target == null) return null;
+        if (pendingUris().contains(target)) return Uri.parse(target);
+        driveHelper.discardPartial(fileId);
+        return null;
+    }
+
+    private void discard(String fileId, Uri uri) {
+        resolver.delete(uri, null, null);
+        driveHelper.discardPartial(fileId);
+    }
+
+    private Set<String> pendingUris() {
+        Set<String> out = new HashSet<>();
+        Uri collection = MediaStore.Downloads.EXTERNAL_CONTENT_URI;
+
+        try (Cursor c = resolver.query(
+                collection,
+                new String[]{MediaStore.MediaColumns._ID},
+                MediaStore.MediaColumns.IS_PENDING + "=1",
+                null,
+                null
+        )) {
+            if (c == null) return out;
+            while (c.moveToNext())
+                out.add(Uri.withAppendedPath(collection, String.valueOf(c.getLong(0))).toString());
+        }
+        return out;
+    }
+
     /* ================= MediaStore ================= */
 
     private void finalizeMediaStore(Uri uri) {
@@ -17,33 +17,63 @@ import com.github.jaykkumar01.vaultspace.core.download.base.DriveDownloadCallbac
 import com.github.jaykkumar01.vaultspace.core.download.service.DownloadService;
 
 import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Runs queued downloads a few at a time.
+ *
+ * Fairness: large files already fan out into parallel ranges, so at most
+ * LARGE_PARALLEL of them run at once; the remaining slots keep draining
+ * small files, and neither class can starve the other.
+ */
 @RequiresApi(api = Build.VERSION_CODES.Q)
 public final class DownloadOrchestrator implements DownloadServiceCallbacks {
 
+    /* ================= Constants ================= */
+
+    private static final int PARALLEL = 3;
+    private static final int LARGE_PARALLEL = 1;
+    private static final long LARGE_FILE_BYTES = 16L * 1024 * 1024;
+
     /* ================= State ================= */
 
-    private final Queue<DownloadRequest> queue = new ArrayDeque<>();
+    private final Queue<DownloadRequest> smallQueue = new ArrayDeque<>();
+    private final Queue<DownloadRequest> largeQueue = new ArrayDeque<>();
     private final Set<String> ids = new HashSet<>();
-    private final AtomicBoolean cancelled = new AtomicBoolean(false);
 
-    private boolean active;
+    // ids of the live service, readable without binding to it (see isActive)
+    private static final Set<String> ACTIVE = ConcurrentHashMap.newKeySet();
+
+    /* fileId -> cancel flag / bytes so far, for downloads in flight */
+    private final Map<String, AtomicBoolean> running = new HashMap<>();
+    private final Map<String, Long> inFlightBytes = new HashMap<>();
+
     private boolean serviceRunning;
+    private boolean recovering;   // nothing starts until interrupted downloads are sorted out
+    private int runningLarge;
 
     private int successCount;
     private int failureCount;
     private String lastSuccessName;
 
+    // aggregated progress across the batch
+    private long batchTotalBytes;
+    private long batchDoneBytes;
+
     /* ================= Dependencies ================= */
 
     private final Context app;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = Executors.newFixedThreadPool(PARALLEL);
     private final DownloadManager downloadManager;
     private final NotificationController notifier;
     private final Handler main = new Handler(Looper.getMainLooper());
@@ -58,18 +88,46 @@ public final class DownloadOrchestrator implements DownloadServiceCallbacks {
 
     /* ================= Public API ================= */
 
+    /** True while {@code fileId} is queued or running in the download service. */
+    public static boolean isActive(String fileId) {
+        return fileId != null && ACTIVE.contains(fileId);
+    }
+
+    /** True while the download service has anything queued or running. */
+    public static boolean hasActive() {
+        return !ACTIVE.isEmpty();
+    }
+
     public synchronized void enqueue(DownloadRequest req) {
         if (req == null || ids.contains(req.fileId)) return;
-        queue.offer(req);
+        (isLarge(req) ? largeQueue : smallQueue).offer(req);
         ids.add(req.fileId);
+        ACTIVE.add(req.fileId);
+        batchTotalBytes += Math.max(0, req.sizeBytes);
         ensureService();
         maybeStartNext();
     }
 
+    /** Drops a queued download or stops one in flight. */
+    public synchronized void cancel(String fileId) {
+        if (fileId == null || !ids.contains(fileId)) return;
+
+        AtomicBoolean flag = running.get(fileId);
+        if (flag != null) {
+            flag.set(true);   // worker reports back through onFinished
+            return;
+        }
+
+        long removed = removeQueued(smallQueue, fileId) + removeQueued(largeQueue, fileId);
+        batchTotalBytes = Math.max(0, batchTotalBytes - removed);
+        ids.remove(fileId);
+        ACTIVE.remove(fileId);
+        finishIfIdle();
+    }
+
     public synchronized void cancelAll() {
-        cancelled.set(true);
-        queue.clear();
-        ids.clear();
+        for (AtomicBoolean flag : running.values()) flag.set(true);
+        clearQueues();
         resetBatch();
         notifier.stopForeground();
         stopService();
@@ -80,23 +138,22 @@ public final class DownloadOrchestrator implements DownloadServiceCallbacks {
     @Override
     public synchronized void onServiceStarted() {
         serviceRunning = true;
-        cancelled.set(false);
 
         successCount = 0;
         failureCount = 0;
         lastSuccessName = null;
 
-        maybeStartNext();
+        recovering = true;
+        executor.execute(this::recoverInterrupted);
     }
 
     @Override
     public synchronized void onServiceDestroyed() {
         serviceRunning = false;
-        cancelled.set(true);
-        active = false;
+        for (AtomicBoolean flag : running.values()) flag.set(true);
+        ACTIVE.clear();
 
-        queue.clear();
-        ids.clear();
+        clearQueues();
         resetBatch();
 
         notifier.stopForeground();
@@ -105,22 +162,51 @@ public final class DownloadOrchestrator implements DownloadServiceCallbacks {
 
     /* ================= Orchestration ================= */
 
-    private synchronized void maybeStartNext() {
-        if (!serviceRunning || active || queue.isEmpty()) return;
-        active = true;
-        executor.execute(this::runNext);
+    private void recoverInterrupted() {
+        List<DownloadRequest> resumable;
+        try {
+            resumable = downloadManager.recoverInterrupted();
+        } catch (Exception e) {
+            resumable = Collections.emptyList();
+        }
+
+        synchronized (this) {
+            recovering = false;
+            if (!serviceRunning) return;
+            for (DownloadRequest req : resumable) enqueue(req);
+            maybeStartNext();
+        }
     }
 
-    private void runNext() {
-        DownloadRequest req;
-        synchronized (this) { req = queue.poll(); }
-        if (req == null) { finishIfIdle(); return; }
+    private synchronized void maybeStartNext() {
+        if (!serviceRunning || recovering) return;
+
+        while (running.size() < PARALLEL) {
+            DownloadRequest req = pollNext();
+            if (req == null) return;
 
-        notifier.startForeground(req.name, getPendingCount());
+            if (running.isEmpty()) notifier.startForeground(req.name, getPendingCount() + 1);
 
+            AtomicBoolean cancelled = new AtomicBoolean(false);
+            running.put(req.fileId, cancelled);
+            inFlightBytes.put(req.fileId, 0L);
+            if (isLarge(req)) runningLarge++;
+
+            executor.execute(() -> run(req, cancelled));
+        }
+    }
+
+    private DownloadRequest pollNext() {
+        if (runningLarge < LARGE_PARALLEL && !largeQueue.isEmpty()) return largeQueue.poll();
+        if (!smallQueue.isEmpty()) return smallQueue.poll();
+        // only large files left: let them use the idle slots too
+        return largeQueue.poll();
+    }
+
+    private void run(DownloadRequest req, AtomicBoolean cancelled) {
         downloadManager.downloadAndFinalize(req, new DriveDownloadCallback() {
             @Override public void onProgress(long d, long t) {
-                notifier.updateProgress(req.name, d, t, getPendingCount());
+                onItemProgress(req, d);
             }
             @Override public void onCompleted() {
                 onFinished(req, true);
@@ -129,17 +215,50 @@ public final class DownloadOrchestrator implements DownloadServiceCallbacks {
                 onFinished(req, false);
             }
         }, cancelled);
+
+        // a cancelled download reports neither callback
+        if (cancelled.get()) onFinished(req, false);
+    }
+
+    private void onItemProgress(DownloadRequest req, long downloaded) {
+        String title;
+        long done, total;
+        int pending;
+
+        synchronized (this) {
+            if (!running.containsKey(req.fileId)) return;
+            inFlightBytes.put(req.fileId, downloaded);
+
+            done = batchDoneBytes;
+            for (long b : inFlightBytes.values()) done += b;
+            total = batchTotalBytes;
+            pending = getPendingCount();
+            title = running.size() == 1 ? req.name : "Downloading " + running.size() + " files";
+        }
+
+        notifier.updateProgress(title, done, total, pending);
     }
 
     private synchronized void onFinished(DownloadRequest req, boolean success) {
+        AtomicBoolean flag = running.remove(req.fileId);
+        if (flag == null) return;   // already accounted for
+
+        inFlightBytes.remove(req.fileId);
         ids.remove(req.fileId);
-        active = false;
+        ACTIVE.remove(req.fileId);
+        if (isLarge(req)) runningLarge--;
 
-        if (success) {
-            successCount++;
-            lastSuccessName = req.name;
+        if (flag.get()) {
+            // cancelled: its bytes no longer count toward the batch
+            batchTotalBytes = Math.max(0, batchTotalBytes - Math.max(0, req.sizeBytes));
         } else {
-            failureCount++;
+            batchDoneBytes += Math.max(0, req.sizeBytes);
+            if (success) {
+                successCount++;
+                lastSuccessName = req.name;
+            } else {
+                failureCount++;
+            }
         }
 
         maybeStartNext();
@@ -147,7 +266,7 @@ public final class DownloadOrchestrator implements DownloadServiceCallbacks {
     }
 
     private synchronized void finishIfIdle() {
-        if (active || !queue.isEmpty()) return;
+        if (!running.isEmpty() || !smallQueue.isEmpty() || !largeQueue.isEmpty()) return;
 
         final int successSnapshot = successCount;
         final int failureSnapshot = failureCount;
@@ -163,19 +282,44 @@ public final class DownloadOrchestrator implements DownloadServiceCallbacks {
             notifier.reset();
         }, 800);
 
+        batchTotalBytes = 0;
+        batchDoneBytes = 0;
         stopService();
     }
 
     /* ================= Helpers ================= */
 
+    private static boolean isLarge(DownloadRequest req) {
+        return req.sizeBytes >= LARGE_FILE_BYTES;
+    }
+
     private int getPendingCount() {
-        return queue.size() + (active ? 1 : 0);
+        return smallQueue.size() + largeQueue.size() + running.size();
+    }
+
+    /** Removes {@code fileId} from {@code q}; returns the bytes it would have added. */
+    private static long removeQueued(Queue<DownloadRequest> q, String fileId) {
+        for (DownloadRequest r : q) {
+            if (!r.fileId.equals(fileId)) continue;
+            q.remove(r);
+            return Math.max(0, r.sizeBytes);
+        }
+        return 0;
+    }
+
+    private void clearQueues() {
+        smallQueue.clear();
+        largeQueue.clear();
+        ids.removeIf(id -> !running.containsKey(id));
+        ACTIVE.retainAll(ids);
     }
 
     private void resetBatch() {
         successCount = 0;
         failureCount = 0;
         lastSuccessName = null;
+        batchTotalBytes = 0;
+        batchDoneBytes = 0;
         notifier.reset();
     }
 
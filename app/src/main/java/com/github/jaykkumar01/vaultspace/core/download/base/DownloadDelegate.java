@@ -2,5 +2,9 @@ package com.github.jaykkumar01.vaultspace.core.download.base;
 
 public interface DownloadDelegate {
     void enqueue(DownloadRequest media);
+    void cancel(String fileId);
     void cancelAll();
+
+    /** True while {@code fileId} is queued or downloading, so it can be cancelled. */
+    boolean isActive(String fileId);
 }
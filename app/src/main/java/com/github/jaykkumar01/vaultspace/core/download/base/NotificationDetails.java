@@ -8,4 +8,5 @@ public class NotificationDetails {
     public static final int RESULT_NOTIFICATION_ID = 1004;
 
     public static final String EXTRA_DOWNLOAD_REQUEST = "extra_download_request";
+    public static final String EXTRA_FILE_ID = "extra_file_id";
 }
@@ -3,6 +3,7 @@ package com.github.jaykkumar01.vaultspace.core.download.base;
 import static com.github.jaykkumar01.vaultspace.core.download.base.NotificationDetails.ACTION_START;
 import static com.github.jaykkumar01.vaultspace.core.download.base.NotificationDetails.ACTION_CANCEL;
 import static com.github.jaykkumar01.vaultspace.core.download.base.NotificationDetails.EXTRA_DOWNLOAD_REQUEST;
+import static com.github.jaykkumar01.vaultspace.core.download.base.NotificationDetails.EXTRA_FILE_ID;
 
 import android.content.Context;
 import android.content.Intent;
@@ -11,6 +12,7 @@ import android.os.Build;
 import androidx.annotation.RequiresApi;
 import androidx.core.content.ContextCompat;
 
+import com.github.jaykkumar01.vaultspace.core.download.DownloadOrchestrator;
 import com.github.jaykkumar01.vaultspace.core.download.service.DownloadService;
 
 @RequiresApi(api = Build.VERSION_CODES.Q)
@@ -39,10 +41,32 @@ public final class ScopedStorageDownloadDelegate implements DownloadDelegate {
         ContextCompat.startForegroundService(app, i);
     }
 
+    /**
+     * Only reaches the service while it holds {@code fileId}: starting it
+     * just to cancel would leave an idle service, and a background start
+     * throws IllegalStateException.
+     */
+    @Override
+    public void cancel(String fileId) {
+        if (!DownloadOrchestrator.isActive(fileId)) return;   // nothing to stop
+
+        Intent i = new Intent(app, DownloadService.class);
+        i.setAction(ACTION_CANCEL);
+        i.putExtra(EXTRA_FILE_ID, fileId);
+        app.startService(i);
+    }
+
     @Override
     public void cancelAll() {
+        if (!DownloadOrchestrator.hasActive()) return;
+
         Intent i = new Intent(app, DownloadService.class);
         i.setAction(ACTION_CANCEL);
         app.startService(i);
     }
+
+    @Override
+    public boolean isActive(String fileId) {
+        return DownloadOrchestrator.isActive(fileId);
+    }
 }
@@ -3,26 +3,44 @@ package com.github.jaykkumar01.vaultspace.core.download.engine;
 import android.content.ContentResolver;
 import android.content.Context;
 import android.net.Uri;
+import android.util.Log;
 
+import com.github.jaykkumar01.vaultspace.core.auth.DriveTokenManager;
 import com.github.jaykkumar01.vaultspace.core.download.base.DownloadRequest;
 import com.github.jaykkumar01.vaultspace.core.download.base.DriveDownloadCallback;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveClientProvider;
+import com.github.jaykkumar01.vaultspace.core.session.DownloadPartialStore;
+import com.github.jaykkumar01.vaultspace.core.session.UserSession;
+import com.github.jaykkumar01.vaultspace.core.session.db.download.DownloadPartialEntity;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class DownloadDriveHelper {
 
     /* ================= Constants ================= */
 
+    private static final String TAG = "VaultSpace:DownloadDrive";
     private static final int BUFFER_SIZE = 256 * 1024; // 256 KB
 
+    // below this one connection is fine and a restart is cheap; above it
+    // ranges are fetched in parallel and progress is persisted
+    private static final long SEGMENT_THRESHOLD = 16L * 1024 * 1024;
+    private static final int THROTTLE_RETRIES = 3;
+
     /* ================= Dependencies ================= */
 
     private final Drive drive;
     private final ContentResolver resolver;
+    private final SegmentedDownloader segmented;
+    private final DownloadPartialStore partials;
 
     /* ================= Constructor ================= */
 
@@ -30,10 +48,19 @@ public final class DownloadDriveHelper {
         Context app = context.getApplicationContext();
         this.drive = DriveClientProvider.getPrimaryDrive(app);
         this.resolver = app.getContentResolver();
+        this.segmented = new SegmentedDownloader(resolver, DriveTokenManager.primary(app));
+        this.partials = new UserSession(app).getDownloadPartialStore();
     }
 
     /* ================= Streaming ================= */
 
+    /**
+     * Large files go through byte ranges, continuing a recorded partial
+     * download when it targets the same Uri and the remote file is
+     * unchanged. On a transient failure the partial is kept for the next
+     * attempt; see {@link #hasPartial}. Without a remote version a later
+     * attempt could not tell the file is unchanged, so nothing is recorded.
+     */
     public void streamToUri(
             DownloadRequest req,
             Uri uri,
@@ -43,10 +70,68 @@ public final class DownloadDriveHelper {
 
         if (cancelled.get()) throw new InterruptedException("Cancelled before start");
 
+        if (req.sizeBytes < SEGMENT_THRESHOLD) {
+            streamSingle(req, uri, callback, cancelled);
+            return;
+        }
+
+        File meta = fetchMeta(req.fileId);
+        long size = meta != null && meta.getSize() != null ? meta.getSize() : req.sizeBytes;
+        String version = meta != null && meta.getModifiedTime() != null
+                ? meta.getModifiedTime().toStringRfc3339()
+                : null;
+        DownloadRequest sized = size == req.sizeBytes ? req : new DownloadRequest(req.fileId, req.name, size);
+
+        List<SegmentedDownloader.Range> ranges = resumableRanges(req.fileId, uri, size, version);
+        if (ranges == null) {
+            ranges = SegmentedDownloader.plan(size);
+            if (version != null) {
+                partials.save(new DownloadPartialEntity(
+                        req.fileId, req.name, uri.toString(), size, version,
+                        SegmentedDownloader.format(ranges), 0L, System.currentTimeMillis()
+                ));
+            } else partials.remove(req.fileId);
+        }
+
+        SegmentedDownloader.Checkpoint checkpoint = version != null
+                ? (segments, committed) -> partials.updateProgress(req.fileId, segments, committed)
+                : (segments, committed) -> {};
+
+        try {
+            segmented.download(
+                    sized, uri, meta != null ? meta.getMd5Checksum() : null, ranges,
+                    checkpoint, callback, cancelled
+            );
+            partials.remove(req.fileId);
+
+        } catch (SegmentedDownloader.RangeUnsupportedException e) {
+            Log.w(TAG, "ranged download unavailable, single stream id=" + req.fileId, e);
+            partials.remove(req.fileId);
+            streamSingle(sized, uri, callback, cancelled);
+
+        } catch (IOException e) {
+            // network trouble, throttling and refusals keep the partial;
+            // bad bytes or a deleted file (404/410) do not
+            if (e instanceof SegmentedDownloader.UnresumableException) partials.remove(req.fileId);
+            throw e;
+
+        } catch (Exception e) {
+            partials.remove(req.fileId);
+            throw e;
+        }
+    }
+
+    private void streamSingle(
+            DownloadRequest req,
+            Uri uri,
+            DriveDownloadCallback callback,
+            AtomicBoolean cancelled
+    ) throws Exception {
+
         try (InputStream in =
                      drive.files().get(req.fileId).executeMediaAsInputStream();
              OutputStream out =
-                     resolver.openOutputStream(uri, "w")) {
+                     resolver.openOutputStream(uri, "wt")) {
 
             if (out == null) throw new IllegalStateException("OutputStream is null");
 
@@ -65,4 +150,79 @@ public final class DownloadDriveHelper {
             out.flush();
         }
     }
+
+    /* ================= Partials ================= */
+
+    /** Target Uri of a recorded partial download, or null. */
+    public String partialTarget(String fileId) {
+        DownloadPartialEntity p = partials.get(fileId);
+        return p != null ? p.targetUri : null;
+    }
+
+    /** True while {@code fileId} has resumable bytes recorded. */
+    public boolean hasPartial(String fileId) {
+        return partials.get(fileId) != null;
+    }
+
+    public void discardPartial(String fileId) {
+        partials.remove(fileId);
+    }
+
+    public List<DownloadPartialEntity> listPartials() {
+        return partials.getAll();
+    }
+
+    private List<SegmentedDownloader.Range> resumableRanges(String fileId, Uri uri, long size, String version) {
+        DownloadPartialEntity p = partials.get(fileId);
+        if (p == null) return null;
+
+        boolean same = p.targetUri.equals(uri.toString())
+                && p.sizeBytes == size
+                && version != null
+                && Objects.equals(p.remoteVersion, version);
+        if (!same) {
+            Log.d(TAG, "partial stale, restarting id=" + fileId);
+            return null;
+        }
+
+        List<SegmentedDownloader.Range> ranges = SegmentedDownloader.parse(p.segments, size);
+        if (ranges != null)
+            Log.d(TAG, "resuming id=" + fileId + " at " + p.committedBytes + "/" + size);
+        return ranges;
+    }
+
+    /* ================= Metadata ================= */
+
+    /**
+     * Size, md5 and version of the remote file. Throttling is retried with
+     * backoff. A deleted file drops the partial and throws. Any other
+     * failure throws while a partial exists, so the partial is never
+     * replaced by a fresh plan; without one, null means "no version".
+     */
+    private File fetchMeta(String fileId) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return drive.files().get(fileId).setFields("size,md5Checksum,modifiedTime").execute();
+            } catch (HttpResponseException e) {
+                int code = e.getStatusCode();
+                if (SegmentedDownloader.isGone(code)) {
+                    partials.remove(fileId);
+                    throw e;
+                }
+                if (SegmentedDownloader.shouldBackOff(code, e.getContent()) && attempt <= THROTTLE_RETRIES) {
+                    SegmentedDownloader.backOff(attempt);
+                    continue;
+                }
+                return metaUnavailable(fileId, e);
+            } catch (IOException e) {
+                return metaUnavailable(fileId, e);
+            }
+        }
+    }
+
+    private File metaUnavailable(String fileId, IOException e) throws IOException {
+        if (partials.get(fileId) != null) throw e;   // retry later against the same version
+        Log.w(TAG, "metadata lookup failed id=" + fileId, e);
+        return null;
+    }
 }
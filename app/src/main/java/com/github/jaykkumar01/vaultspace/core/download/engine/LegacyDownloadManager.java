@@ -7,10 +7,9 @@ import android.os.Environment;
 import android.os.Handler;
 import android.os.Looper;
 
-import com.github.jaykkumar01.vaultspace.core.auth.GoogleCredentialFactory;
+import com.github.jaykkumar01.vaultspace.core.auth.DriveTokenManager;
 import com.github.jaykkumar01.vaultspace.core.download.base.DownloadDelegate;
 import com.github.jaykkumar01.vaultspace.core.download.base.DownloadRequest;
-import com.google.api.client.googleapis.extensions.android.gms.auth.GoogleAccountCredential;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -35,10 +34,7 @@ public final class LegacyDownloadManager implements DownloadDelegate {
     public void enqueue(DownloadRequest request) {
         executor.execute(() -> {
             try {
-                GoogleAccountCredential c =
-                        GoogleCredentialFactory.forPrimaryDrive(appContext);
-
-                String token = c.getToken();
+                String token = DriveTokenManager.primary(appContext).getToken();
                 String url = String.format(DRIVE_URL, request.fileId);
 
                 DownloadManager.Request r = new DownloadManager.Request(Uri.parse(url))
@@ -62,8 +58,18 @@ public final class LegacyDownloadManager implements DownloadDelegate {
         });
     }
 
+    @Override
+    public void cancel(String fileId) {
+        // non-goal for legacy path
+    }
+
     @Override
     public void cancelAll() {
         // non-goal for legacy path
     }
+
+    @Override
+    public boolean isActive(String fileId) {
+        return false;   // handed to the system DownloadManager, not cancellable here
+    }
 }
@@ -0,0 +1,416 @@
+package com.github.jaykkumar01.vaultspace.core.download.engine;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.github.jaykkumar01.vaultspace.core.auth.DriveTokenManager;
+import com.github.jaykkumar01.vaultspace.core.download.base.DownloadRequest;
+import com.github.jaykkumar01.vaultspace.core.download.base.DriveDownloadCallback;
+import com.github.jaykkumar01.vaultspace.core.drive.DriveHttpClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Fetches one Drive file as N byte ranges in parallel and writes each range
+ * at its offset in the destination, so per-connection throttling stops
+ * bounding large downloads.
+ *
+ * Guarantees:
+ * - Every range must come back as 206 with the exact Content-Range asked for
+ * - A range that drops mid-way is retried from where it stopped
+ * - A throttled range (429, 5xx, Drive's rate-limit 403) backs off and
+ *   retries; only a deleted file (404/410) makes the bytes unresumable
+ * - Range cursors are checkpointed only after the bytes are forced to disk,
+ *   so a later run can continue from them after a process kill
+ * - The assembled file is checked for size and, when known, md5
+ *
+ * Throws {@link RangeUnsupportedException} if the server ignores ranges;
+ * the caller then falls back to a single stream, which rewrites the file.
+ */
+final class SegmentedDownloader {
+
+    private static final String TAG = "VaultSpace:SegmentedDL";
+    private static final String BASE_URL = "https://www.googleapis.com/drive/v3/files/";
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_SEGMENTS = 4;
+    private static final long MIN_SEGMENT_BYTES = 8L * 1024 * 1024;
+    private static final int SEGMENT_RETRIES = 3;
+    private static final int THROTTLE_RETRIES = 5;
+    private static final long THROTTLE_BACKOFF_MS = 1000;
+    private static final long CHECKPOINT_INTERVAL_MS = 2000;
+
+    // shared by all downloads; MAX_SEGMENTS per file, a couple of files at once
+    private static final ExecutorService segmentPool =
+            Executors.newFixedThreadPool(MAX_SEGMENTS * 2);
+
+    static final class RangeUnsupportedException extends IOException {
+        RangeUnsupportedException(String m) {
+            super(m);
+        }
+    }
+
+    /** The bytes on disk are wrong or the file is gone; do not resume from them. */
+    static final class UnresumableException extends IOException {
+        UnresumableException(String m) {
+            super(m);
+        }
+    }
+
+    /** The file itself is gone, so a partial of it is not worth keeping. */
+    static boolean isGone(int httpCode) {
+        return httpCode == 404 || httpCode == 410;
+    }
+
+    /**
+     * Throttling or server trouble that clears on its own. Drive throttles
+     * per user with a 403 too, told apart from a real refusal by the error
+     * reason in the body.
+     */
+    static boolean shouldBackOff(int httpCode, @Nullable String errorBody) {
+        if (httpCode == 429 || httpCode >= 500) return true;
+        return httpCode == 403 && errorBody != null
+                && (errorBody.contains("\"rateLimitExceeded\"") || errorBody.contains("\"userRateLimitExceeded\""));
+    }
+
+    /** Waits before throttled retry {@code attempt} (from 1): 1s, 2s, 4s... with jitter. */
+    static void backOff(int attempt) throws InterruptedException {
+        long delay = THROTTLE_BACKOFF_MS << Math.min(attempt - 1, 5);
+        Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    /** Receives durable range state; called from download threads. */
+    interface Checkpoint {
+        void save(String segments, long committedBytes);
+    }
+
+    /* ================= Ranges ================= */
+
+    /** One byte range; {@code next} advances as bytes land, {@code end} is inclusive. */
+    static final class Range {
+        volatile long next;
+        final long end;
+
+        Range(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        long remaining() {
+            return Math.max(0, end - next + 1);
+        }
+    }
+
+    /** Splits {@code size} into up to MAX_SEGMENTS ranges of at least MIN_SEGMENT_BYTES. */
+    static List<Range> plan(long size) {
+        int n = (int) Math.max(1, Math.min(MAX_SEGMENTS, size / MIN_SEGMENT_BYTES));
+        long step = (size + n - 1) / n;
+
+        List<Range> out = new ArrayList<>(n);
+        for (long start = 0; start < size; start += step)
+            out.add(new Range(start, Math.min(size, start + step) - 1));
+        return out;
+    }
+
+    static String format(List<Range> ranges) {
+        StringBuilder sb = new StringBuilder();
+        for (Range r : ranges) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(r.next).append('-').append(r.end);
+        }
+        return sb.toString();
+    }
+
+    /** Parses {@link #format} output; null if it does not fit in {@code size} bytes. */
+    static List<Range> parse(String segments, long size) {
+        List<Range> out = new ArrayList<>();
+        try {
+            for (String part : segments.split(",")) {
+                int dash = part.indexOf('-');
+                long next = Long.parseLong(part.substring(0, dash));
+                long end = Long.parseLong(part.substring(dash + 1));
+                if (next < 0 || end >= size || next > end + 1) return null;
+                out.add(new Range(next, end));
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return out.isEmpty() ? null : out;
+    }
+
+    /* ================= Job ================= */
+
+    /** State shared by the range workers of one download. */
+    private static final class Job {
+        final DownloadRequest req;
+        final List<Range> ranges;
+        final FileChannel channel;
+        final Checkpoint checkpoint;
+        final DriveDownloadCallback callback;
+        final AtomicBoolean cancelled;
+
+        final AtomicLong done = new AtomicLong();
+        final AtomicBoolean abort = new AtomicBoolean();
+        final Set<Call> calls = ConcurrentHashMap.newKeySet();
+        final AtomicReference<String> token = new AtomicReference<>();
+        long lastCheckpoint = SystemClock.elapsedRealtime();
+
+        Job(DownloadRequest req, List<Range> ranges, FileChannel channel, Checkpoint checkpoint,
+            DriveDownloadCallback callback, AtomicBoolean cancelled) {
+            this.req = req;
+            this.ranges = ranges;
+            this.channel = channel;
+            this.checkpoint = checkpoint;
+            this.callback = callback;
+            this.cancelled = cancelled;
+        }
+
+        boolean stopped() {
+            return cancelled.get() || abort.get();
+        }
+
+        /**
+         * Records the cursors after forcing written bytes to disk. Cursors are
+         * read first, so the saved state never claims bytes the force missed.
+         */
+        synchronized void maybeCheckpoint(boolean force) throws IOException {
+            long now = SystemClock.elapsedRealtime();
+            if (!force && now - lastCheckpoint < CHECKPOINT_INTERVAL_MS) return;
+            lastCheckpoint = now;
+
+            String state = format(ranges);
+            long committed = req.sizeBytes;
+            for (Range r : ranges) committed -= r.remaining();
+
+            channel.force(false);
+            checkpoint.save(state, committed);
+        }
+    }
+
+    private final OkHttpClient client = DriveHttpClient.get();
+    private final ContentResolver resolver;
+    private final DriveTokenManager tokens;
+
+    SegmentedDownloader(ContentResolver resolver, DriveTokenManager tokens) {
+        this.resolver = resolver;
+        this.tokens = tokens;
+    }
+
+    /* ================= Public API ================= */
+
+    /**
+     * Downloads whatever is left in {@code ranges} into {@code uri}. Bytes
+     * before each range's {@code next} are assumed already on disk.
+     *
+     * @param md5 expected md5Checksum from Drive, or null to check size only
+     */
+    void download(
+            DownloadRequest req,
+            Uri uri,
+            String md5,
+            List<Range> ranges,
+            Checkpoint checkpoint,
+            DriveDownloadCallback callback,
+            AtomicBoolean cancelled
+    ) throws Exception {
+
+        ParcelFileDescriptor pfd = resolver.openFileDescriptor(uri, "rw");
+        if (pfd == null) throw new IllegalStateException("File descriptor is null");
+
+        // closing the channel closes the descriptor
+        try (FileChannel channel = new ParcelFileDescriptor.AutoCloseOutputStream(pfd).getChannel()) {
+
+            Job job = new Job(req, ranges, channel, checkpoint, callback, cancelled);
+            job.token.set(tokens.getToken());
+
+            long remaining = 0;
+            for (Range r : ranges) remaining += r.remaining();
+            job.done.set(req.sizeBytes - remaining);
+            if (job.done.get() > 0) callback.onProgress(job.done.get(), req.sizeBytes);
+
+            List<Future<?>> futures = new ArrayList<>(ranges.size());
+            for (Range r : ranges) {
+                if (r.remaining() == 0) continue;
+                futures.add(segmentPool.submit(() -> {
+                    fetchRange(job, r);
+                    return null;
+                }));
+            }
+
+            try {
+                for (Future<?> f : futures) f.get();
+            } catch (ExecutionException e) {
+                job.abort.set(true);
+                for (Call c : job.calls) c.cancel();
+                for (Future<?> f : futures) f.cancel(true);
+                for (Future<?> f : futures) awaitQuietly(f);
+                job.maybeCheckpoint(true);   // keep what did land for the next attempt
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) throw (Exception) cause;
+                throw e;
+            }
+
+            if (cancelled.get()) throw new InterruptedException("Cancelled");
+            job.maybeCheckpoint(true);
+
+            if (channel.size() != req.sizeBytes)
+                throw new UnresumableException("Size mismatch " + channel.size() + " != " + req.sizeBytes);
+        }
+
+        if (md5 != null) verifyMd5(uri, md5);
+    }
+
+    /* ================= Range worker ================= */
+
+    private void fetchRange(Job job, Range r) throws Exception {
+        int attempts = 0;
+        int throttled = 0;
+
+        while (r.next <= r.end) {
+            String token = job.token.get();
+            Call call = newCall(job.req.fileId, r.next, r.end, token);
+            job.calls.add(call);
+
+            try (Response res = call.execute()) {
+
+                if (res.code() == 401 && attempts < SEGMENT_RETRIES) {
+                    // ranges that hit the same 401 share one refresh
+                    job.token.set(tokens.refreshAfterFailure(token));
+                    attempts++;
+                    continue;
+                }
+                if (res.code() == 200)
+                    throw new RangeUnsupportedException("Range ignored");
+                if (isGone(res.code()))
+                    throw new UnresumableException("HTTP " + res.code());
+                if (res.code() != 206) {
+                    ResponseBody error = res.body();
+                    if (shouldBackOff(res.code(), error != null ? error.string() : null) && throttled < THROTTLE_RETRIES) {
+                        // the bytes already landed stay; only this range waits
+                        backOff(++throttled);
+                        if (job.stopped()) throw new InterruptedException("Cancelled");
+                        continue;
+                    }
+                    throw new IOException("HTTP " + res.code());
+                }
+
+                checkContentRange(res.header("Content-Range"), r.next, r.end, job.req.sizeBytes);
+
+                ResponseBody body = res.body();
+                if (body == null) throw new IOException("Empty body");
+
+                copyInto(job, r, body.byteStream());
+
+            } catch (RangeUnsupportedException | UnresumableException e) {
+                throw e;
+            } catch (IOException e) {
+                if (job.stopped()) throw new InterruptedException("Cancelled");
+                if (++attempts > SEGMENT_RETRIES) throw e;
+                Log.w(TAG, "range " + r.next + "-" + r.end + " dropped, retry " + attempts, e);
+            } finally {
+                job.calls.remove(call);
+            }
+        }
+    }
+
+    /** Writes the body at {@code r.next}, advancing it as bytes land. */
+    private static void copyInto(Job job, Range r, InputStream in) throws Exception {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer bb = ByteBuffer.wrap(buffer);
+        int read;
+
+        while (r.next <= r.end && (read = in.read(buffer, 0, (int) Math.min(buffer.length, r.remaining()))) != -1) {
+            if (job.stopped()) throw new InterruptedException("Cancelled");
+
+            bb.clear().limit(read);
+            long pos = r.next;
+            while (bb.hasRemaining()) pos += job.channel.write(bb, pos);
+            r.next = pos;
+
+            job.callback.onProgress(job.done.addAndGet(read), job.req.sizeBytes);
+            job.maybeCheckpoint(false);
+        }
+
+        if (r.next <= r.end) throw new IOException("Range ended early at " + r.next);
+    }
+
+    private static void checkContentRange(String header, long start, long end, long total)
+            throws IOException {
+        // e.g. "bytes 0-8388607/33554432"
+        String expected = "bytes " + start + "-" + end + "/" + total;
+        if (!expected.equals(header))
+            throw new RangeUnsupportedException("Unexpected Content-Range " + header + " wanted " + expected);
+    }
+
+    private Call newCall(String fileId, long start, long end, String token) {
+        Request request = new Request.Builder()
+                .url(BASE_URL + fileId + "?alt=media")
+                .get()
+                .header("Authorization", "Bearer " + token)
+                .header("Accept-Encoding", "identity")
+                .header("Range", "bytes=" + start + "-" + end)
+                .build();
+        return client.newCall(request);
+    }
+
+    private static void awaitQuietly(Future<?> f) {
+        try {
+            f.get();
+        } catch (Exception ignored) {
+        }
+    }
+
+    /* ================= Integrity ================= */
+
+    private void verifyMd5(Uri uri, String expected) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("MD5");
+
+        ParcelFileDescriptor pfd = resolver.openFileDescriptor(uri, "r");
+        if (pfd == null) throw new IllegalStateException("File descriptor is null");
+
+        try (FileChannel ch = new ParcelFileDescriptor.AutoCloseInputStream(pfd).getChannel()) {
+            ByteBuffer bb = ByteBuffer.allocate(BUFFER_SIZE);
+            long pos = 0;
+            int n;
+            while ((n = ch.read(bb, pos)) > 0) {
+                bb.flip();
+                md.update(bb);
+                bb.clear();
+                pos += n;
+            }
+        }
+
+        StringBuilder hex = new StringBuilder(32);
+        for (byte b : md.digest()) hex.append(String.format("%02x", b));
+
+        if (!hex.toString().equalsIgnoreCase(expected))
+            throw new UnresumableException("md5 mismatch");
+    }
+}
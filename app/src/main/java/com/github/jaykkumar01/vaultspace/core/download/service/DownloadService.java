@@ -5,14 +5,10 @@ import static com.github.jaykkumar01.vaultspace.core.download.base.NotificationD
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.Service;
-import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
-import android.database.Cursor;
-import android.net.Uri;
 import android.os.Build;
 import android.os.IBinder;
-import android.provider.MediaStore;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
@@ -35,7 +31,6 @@ public final class DownloadService extends Service {
     public void onCreate() {
         super.onCreate();
         createNotificationChannel();
-        cleanupStalePendingDownloads();
         orchestrator = new DownloadOrchestrator(this);
         orchestrator.onServiceStarted();
     }
@@ -54,8 +49,13 @@ public final class DownloadService extends Service {
             if (req != null) orchestrator.enqueue(req);
 
         } else if (ACTION_CANCEL.equals(action)) {
-            orchestrator.cancelAll();
-            stopSelf();
+            String fileId = intent.getStringExtra(EXTRA_FILE_ID);
+            if (fileId != null) {
+                orchestrator.cancel(fileId);
+            } else {
+                orchestrator.cancelAll();
+                stopSelf();
+            }
         }
 
         return START_NOT_STICKY;
@@ -100,29 +100,6 @@ public final class DownloadService extends Service {
     }
 
 
-    /* ================= Pending Cleanup ================= */
-
-    private void cleanupStalePendingDownloads() {
-        ContentResolver resolver = getContentResolver();
-        Uri collection = MediaStore.Downloads.EXTERNAL_CONTENT_URI;
-
-        try (Cursor c = resolver.query(
-                collection,
-                new String[]{MediaStore.MediaColumns._ID},
-                MediaStore.MediaColumns.IS_PENDING + "=1",
-                null,
-                null
-        )) {
-            if (c == null) return;
-
-            while (c.moveToNext()) {
-                long id = c.getLong(0);
-                Uri uri = Uri.withAppendedPath(collection, String.valueOf(id));
-                resolver.delete(uri, null, null);
-            }
-        }
-    }
-
     /* ================= Notification Channel ================= */
 
     private void createNotificationChannel() {
@@ -3,19 +3,29 @@ package com.github.jaykkumar01.vaultspace.core.drive;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
+import android.view.Choreographer;
 
 import androidx.annotation.NonNull;
 
 import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
 import com.github.jaykkumar01.vaultspace.album.helper.AlbumDriveHelper;
+import com.github.jaykkumar01.vaultspace.album.helper.DriveResolver;
 import com.github.jaykkumar01.vaultspace.core.session.UserSession;
 import com.github.jaykkumar01.vaultspace.core.session.cache.AlbumMediaCache;
 import com.github.jaykkumar01.vaultspace.core.session.cache.AlbumMediaEntry;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.File;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -43,10 +53,10 @@ public final class AlbumMediaRepository {
         void onError(Exception e);
     }
 
-    /** Used for RecyclerView delta updates (O(1)) */
+    /** Used for RecyclerView delta updates; coalesced per album per frame */
     public interface MediaDeltaListener {
-        void onMediaAdded(AlbumMedia media);
-        void onMediaRemoved(String mediaId);
+        /** Removes apply before adds; an add removed within the same frame is dropped. */
+        void onMediaBatch(List<AlbumMedia> added, List<String> removed);
     }
 
     /** Used by AlbumMetaInfoView (O(1)) */
@@ -56,31 +66,43 @@ public final class AlbumMediaRepository {
 
     /* ================= Core ================= */
 
+    private final Context appContext;
     private final AlbumMediaCache cache;
+    private final DriveChangeSync changeSync;
+    private final DriveResolver changeResolver;
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     private final Object lock = new Object();
 
-    private final Map<String,Boolean> loading = new HashMap<>();
+    /** In-flight fetch per album; a page from any other fetch is stale */
+    private final Map<String,Object> loading = new HashMap<>();
 
     private final Map<String,AlbumStateListener> stateListenerByAlbum = new HashMap<>();
     private final Map<String,MediaDeltaListener> deltaListenerByAlbum = new HashMap<>();
     private final Map<String,CountListener> countListenerByAlbum = new HashMap<>();
 
 
+    /** Deltas waiting for the next frame, per album (guarded by lock) */
+    private final Map<String,DeltaBatch> pendingDeltas = new HashMap<>();
+
     /** Derived state (owned by repo) */
     private final Map<String,Integer> photoCountByAlbum = new HashMap<>();
     private final Map<String,Integer> videoCountByAlbum = new HashMap<>();
 
     private AlbumMediaRepository(Context appContext) {
+        this.appContext = appContext;
         cache = new UserSession(appContext).getVaultCache().albumMedia;
+        changeSync = DriveChangeSync.get(appContext);
+        changeResolver = new DriveResolver(appContext);
+        changeSync.addSink(changeSink);
     }
 
     /* ================= Load / Init ================= */
 
     public void openAlbum(Context c,String albumId) {
         AlbumMediaEntry entry = cache.getOrCreateEntry(albumId);
+        Object fetch = new Object();
 
         synchronized (lock) {
             AlbumStateListener l = stateListenerByAlbum.get(albumId);
@@ -89,37 +111,66 @@ public final class AlbumMediaRepository {
             if (entry.isInitialized()) {
                 notifyMedia(albumId);
                 notifyCounts(albumId);
+                changeSync.sync();   // cached: catch up on deltas, not a re-list
                 return;
             }
 
-            if (Boolean.TRUE.equals(loading.get(albumId))) return;
-            loading.put(albumId,true);
+            if (loading.containsKey(albumId)) return;
+            loading.put(albumId,fetch);
         }
 
         notifyLoading(albumId);
 
         AlbumDriveHelper drive = new AlbumDriveHelper(c,albumId);
         drive.fetchAlbumMedia(executor,new AlbumDriveHelper.FetchCallback() {
-            @Override public void onResult(@NonNull List<AlbumMedia> items) {
-                int photos = 0, videos = 0;
-                for (AlbumMedia m : items) {
-                    if (m.isVideo) videos++; else photos++;
-                }
+            @Override public void onPage(@NonNull List<AlbumMedia> items,boolean last) {
+                boolean first;
+                List<AlbumMedia> added;
 
                 synchronized (lock) {
-                    entry.initializeFromDrive(items);
-                    photoCountByAlbum.put(albumId,photos);
-                    videoCountByAlbum.put(albumId,videos);
-                    loading.remove(albumId);
+                    if (loading.get(albumId) != fetch) return;   // superseded by a refresh
+                    first = !entry.isInitialized();
+                    if (first && items.isEmpty() && !last) return;   // nothing to show yet
+
+                    if (first) {
+                        entry.initializeFromDrive(items);
+                        added = items;
+                    } else added = entry.addAll(items);   // skips ids an upload already added
+
+                    int photos = 0, videos = 0;
+                    for (AlbumMedia m : added) {
+                        if (m.isVideo) videos++; else photos++;
+                    }
+                    if (first) {
+                        photoCountByAlbum.put(albumId,photos);
+                        videoCountByAlbum.put(albumId,videos);
+                    } else {
+                        photoCountByAlbum.merge(albumId,photos,Integer::sum);
+                        videoCountByAlbum.merge(albumId,videos,Integer::sum);
+                    }
+                    if (last) loading.remove(albumId);
                 }
 
-                notifyMedia(albumId);
-                notifyCounts(albumId);
+                if (first) {
+                    // newest page renders now; older pages append as deltas
+                    notifyMedia(albumId);
+                    notifyCounts(albumId);
+                    return;
+                }
+                for (AlbumMedia m : added) notifyDeltaAdded(albumId,m);
             }
 
             @Override public void onError(@NonNull Exception e) {
                 synchronized (lock) {
+                    if (loading.get(albumId) != fetch) return;
                     loading.remove(albumId);
+                    // a partial album must not pass for a loaded one next time
+                    if (entry.isInitialized()) {
+                        cache.invalidateAlbum(albumId);
+                        photoCountByAlbum.remove(albumId);
+                        videoCountByAlbum.remove(albumId);
+                        pendingDeltas.remove(albumId);
+                    }
                 }
                 notifyError(albumId,e);
             }
@@ -129,12 +180,17 @@ public final class AlbumMediaRepository {
 
     /* ================= Reads ================= */
 
+    /** Immutable, newest first; positional get is O(log n). */
     public List<AlbumMedia> getMediaSnapshot(String albumId) {
         AlbumMediaEntry entry = cache.getOrCreateEntry(albumId);
-        List<AlbumMedia> out = new ArrayList<>();
-        if (!entry.isInitialized()) return out;
-        for (AlbumMedia m : entry.getMediaView()) out.add(m);
-        return out;
+        if (!entry.isInitialized()) return Collections.emptyList();
+        return entry.getMediaSnapshot();
+    }
+
+    public int getMediaPosition(String albumId, String fileId) {
+        AlbumMediaEntry entry = cache.getOrCreateEntry(albumId);
+        if (!entry.isInitialized()) return -1;
+        return entry.positionOf(fileId);
     }
 
     public boolean isAlbumEmpty(String albumId) {
@@ -146,41 +202,40 @@ public final class AlbumMediaRepository {
 
 
 
-    /* ================= Mutations (O(1)) ================= */
+    /* ================= Mutations (O(log n)) ================= */
+
+    // UI and change-sync threads: check, entry change, counts and delta
+    // are one step under lock, so neither counts nor delta order interleave
 
     public void addMedia(String albumId,AlbumMedia media) {
         AlbumMediaEntry entry = cache.getOrCreateEntry(albumId);
-        if (!entry.isInitialized()) return;
-
-        entry.addMedia(media);
-
         synchronized (lock) {
-            if (media.isVideo)
-                videoCountByAlbum.compute(albumId,(k,v) -> v == null ? 1 : v + 1);
-            else
-                photoCountByAlbum.compute(albumId,(k,v) -> v == null ? 1 : v + 1);
-        }
+            if (!entry.isInitialized()) return;
+            if (entry.getByMediaId(media.fileId) != null) return;   // re-delivered (dedup hit, change sync)
 
-        notifyDeltaAdded(albumId,media);
-        notifyCounts(albumId);
+            entry.addMedia(media);
+            countMedia(albumId,media,1);
+            notifyDeltaAdded(albumId,media);
+        }
     }
 
     public void removeMedia(String albumId,AlbumMedia media) {
         AlbumMediaEntry entry = cache.getOrCreateEntry(albumId);
-        if (!entry.isInitialized()) return;
-
-        boolean wasVideo = media.isVideo;
-        entry.removeMedia(media.fileId);
-
         synchronized (lock) {
-            if (wasVideo)
-                videoCountByAlbum.compute(albumId,(k,v) -> v == null || v <= 1 ? 0 : v - 1);
-            else
-                photoCountByAlbum.compute(albumId,(k,v) -> v == null || v <= 1 ? 0 : v - 1);
+            if (!entry.isInitialized()) return;
+            AlbumMedia current = entry.getByMediaId(media.fileId);
+            if (current == null) return;   // already gone
+
+            entry.removeMedia(media.fileId);
+            countMedia(albumId,current,-1);
+            notifyDeltaRemoved(albumId,media.fileId);
         }
+    }
 
-        notifyDeltaRemoved(albumId,media.fileId);
-        notifyCounts(albumId);
+    /** Guarded by lock. */
+    private void countMedia(String albumId,AlbumMedia media,int delta) {
+        Map<String,Integer> counts = media.isVideo ? videoCountByAlbum : photoCountByAlbum;
+        counts.compute(albumId,(k,v) -> Math.max(0,(v == null ? 0 : v) + delta));
     }
 
     public AlbumMedia getMediaById(String albumId,String fileId) {
@@ -192,16 +247,110 @@ public final class AlbumMediaRepository {
 
     /* ================= Refresh ================= */
 
+    /**
+     * A loaded album catches up through the change feed (O(changes));
+     * anything else, e.g. a retry after a failed load, is fetched in full.
+     */
     public void refreshAlbum(Context c,String albumId) {
+        synchronized (lock) {
+            if (cache.isAlbumLoaded(albumId) && !loading.containsKey(albumId)) {
+                changeSync.sync();
+                return;
+            }
+        }
+        reloadAlbum(c,albumId);
+    }
+
+    private void reloadAlbum(Context c,String albumId) {
         synchronized (lock) {
             cache.invalidateAlbum(albumId);
             photoCountByAlbum.remove(albumId);
             videoCountByAlbum.remove(albumId);
+            pendingDeltas.remove(albumId);   // the reload supersedes them
+            loading.remove(albumId);         // and any fetch still streaming
         }
         openAlbum(c,albumId);
     }
 
 
+    /* ================= Change sync ================= */
+
+    private final DriveChangeSync.ChangeSink changeSink = new DriveChangeSync.ChangeSink() {
+        @Override public void onChanges(@NonNull List<Change> changes) {
+            for (Change ch : changes) applyChange(ch);
+        }
+
+        @Override public void onResyncRequired() {
+            for (String albumId : cache.getLoadedAlbumIds()) {
+                boolean open;
+                synchronized (lock) { open = stateListenerByAlbum.containsKey(albumId); }
+                if (open) mainHandler.post(() -> reloadAlbum(appContext,albumId));
+                else reloadLater(albumId);
+            }
+        }
+    };
+
+    /** Sync thread. Only loaded albums are touched; others list on open. */
+    private void applyChange(Change ch) {
+        String fileId = ch.getFileId();
+        if (fileId == null) return;
+
+        File f = ch.getFile();
+        boolean gone = Boolean.TRUE.equals(ch.getRemoved()) || f == null || Boolean.TRUE.equals(f.getTrashed());
+
+        Set<String> targets = new HashSet<>();
+        if (!gone && f.getParents() != null)
+            for (String parent : f.getParents()) if (cache.isAlbumLoaded(parent)) targets.add(parent);
+
+        // removed, trashed or moved out
+        for (String albumId : cache.getAlbumsContaining(fileId)) {
+            if (targets.contains(albumId)) continue;
+            AlbumMedia old = getMediaById(albumId,fileId);
+            if (old != null) removeMedia(albumId,old);
+        }
+        if (targets.isEmpty()) return;
+
+        AlbumMedia media = AlbumDriveHelper.toAlbumMedia(changeResolver,f);
+        for (String albumId : targets) {
+            if (getMediaById(albumId,fileId) == null) addMedia(albumId,media);
+            else replaceMedia(albumId,media);
+        }
+    }
+
+    private void reloadLater(String albumId) {
+        synchronized (lock) {
+            cache.invalidateAlbum(albumId);
+            photoCountByAlbum.remove(albumId);
+            videoCountByAlbum.remove(albumId);
+            pendingDeltas.remove(albumId);
+        }
+    }
+
+    private void replaceMedia(String albumId,AlbumMedia updated) {
+        AlbumMediaEntry entry = cache.getOrCreateEntry(albumId);
+        synchronized (lock) {
+            AlbumMedia old = entry.getByMediaId(updated.fileId);
+            if (old == null || sameContent(old,updated)) return;
+
+            entry.replaceMedia(updated);
+            countMedia(albumId,old,-1);
+            countMedia(albumId,updated,1);
+
+            // removes apply before adds, so the band re-lays out with the new metadata
+            notifyDeltaRemoved(albumId,old.fileId);
+            notifyDeltaAdded(albumId,updated);
+        }
+    }
+
+    /** Thumbnail links are re-signed per request, so they never count as a change. */
+    private static boolean sameContent(AlbumMedia a,AlbumMedia b) {
+        return a.momentMillis == b.momentMillis
+                && a.sizeBytes == b.sizeBytes
+                && Objects.equals(a.name,b.name)
+                && Objects.equals(a.mimeType,b.mimeType);
+    }
+
+
     /* ================= Listeners ================= */
 
     public void addAlbumStateListener(String albumId,AlbumStateListener l) {
@@ -283,22 +432,54 @@ public final class AlbumMediaRepository {
     }
 
 
+    /* ================= Delta batching ================= */
+
+    private static final class DeltaBatch {
+        final LinkedHashMap<String,AlbumMedia> added = new LinkedHashMap<>();
+        final LinkedHashSet<String> removed = new LinkedHashSet<>();
+    }
+
     private void notifyDeltaAdded(String albumId,AlbumMedia media) {
-        MediaDeltaListener l;
+        boolean schedule;
         synchronized (lock) {
-            l = deltaListenerByAlbum.get(albumId);
-            if (l == null) return;
+            DeltaBatch b = pendingDeltas.get(albumId);
+            schedule = b == null;
+            if (schedule) pendingDeltas.put(albumId,b = new DeltaBatch());
+            b.added.put(media.fileId,media);
         }
-        mainHandler.post(() -> l.onMediaAdded(media));
+        if (schedule) scheduleFlush(albumId);
     }
 
     private void notifyDeltaRemoved(String albumId,String mediaId) {
+        boolean schedule;
+        synchronized (lock) {
+            DeltaBatch b = pendingDeltas.get(albumId);
+            schedule = b == null;
+            if (schedule) pendingDeltas.put(albumId,b = new DeltaBatch());
+            // added and removed within one frame: the UI never needs to see it
+            if (b.added.remove(mediaId) == null) b.removed.add(mediaId);
+        }
+        if (schedule) scheduleFlush(albumId);
+    }
+
+    /** Flushes on the next vsync, so a burst of uploads lands as one batch. */
+    private void scheduleFlush(String albumId) {
+        mainHandler.post(() ->
+                Choreographer.getInstance().postFrameCallback(frameTimeNanos -> flushDeltas(albumId)));
+    }
+
+    private void flushDeltas(String albumId) {
+        DeltaBatch b;
         MediaDeltaListener l;
         synchronized (lock) {
+            b = pendingDeltas.remove(albumId);
+            if (b == null) return;
             l = deltaListenerByAlbum.get(albumId);
-            if (l == null) return;
         }
-        mainHandler.post(() -> l.onMediaRemoved(mediaId));
+
+        if (l != null && (!b.added.isEmpty() || !b.removed.isEmpty()))
+            l.onMediaBatch(new ArrayList<>(b.added.values()),new ArrayList<>(b.removed));
+        notifyCounts(albumId);
     }
 
     private void notifyCounts(String albumId) {
@@ -329,6 +510,7 @@ public final class AlbumMediaRepository {
     }
 
     private void releaseInternal() {
+        changeSync.removeSink(changeSink);
         executor.shutdown();
     }
 }
@@ -3,6 +3,7 @@ package com.github.jaykkumar01.vaultspace.core.drive;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
 
@@ -10,16 +11,22 @@ import com.github.jaykkumar01.vaultspace.core.session.UserSession;
 import com.github.jaykkumar01.vaultspace.core.session.cache.AlbumsCache;
 import com.github.jaykkumar01.vaultspace.dashboard.albums.helper.AlbumsDriveHelper;
 import com.github.jaykkumar01.vaultspace.models.AlbumInfo;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.File;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public final class AlbumsRepository {
 
+    private static final String TAG = "VaultSpace:AlbumsRepo";
+    private static final String FOLDER_MIME = "application/vnd.google-apps.folder";
+
     /* ================= Singleton ================= */
 
     private static volatile AlbumsRepository INSTANCE;
@@ -46,8 +53,10 @@ public final class AlbumsRepository {
 
     /* ================= Core ================= */
 
+    private final Context appContext;
     private final AlbumsCache cache;
     private final AlbumsDriveHelper drive;
+    private final DriveChangeSync changeSync;
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
@@ -55,8 +64,11 @@ public final class AlbumsRepository {
     private final Set<AlbumsListener> listeners = new HashSet<>();
 
     private AlbumsRepository(Context appContext) {
+        this.appContext = appContext;
         cache = new UserSession(appContext).getVaultCache().albums;
         drive = new AlbumsDriveHelper(appContext);
+        changeSync = DriveChangeSync.get(appContext);
+        changeSync.addSink(changeSink);
     }
 
     /* ================= Load ================= */
@@ -65,6 +77,7 @@ public final class AlbumsRepository {
         synchronized (lock) {
             if (cache.isInitialized()) {
                 notifyLoaded();
+                changeSync.sync();   // cached: catch up on deltas, not a re-list
                 return;
             }
         }
@@ -102,12 +115,14 @@ public final class AlbumsRepository {
 
         drive.createAlbum(executor, name,
                 real -> {
+                    boolean synced;
                     synchronized (lock) {
                         cache.removeAlbum(temp.id);
+                        synced = cache.getAlbumById(real.id) != null;   // the change sync got there first
                         cache.addAlbum(real);
                     }
                     notifyRemoved(temp.id);
-                    notifyAdded(real);
+                    if (!synced) notifyAdded(real);
                 },
                 e -> {
                     synchronized (lock) { cache.removeAlbum(temp.id); }
@@ -188,6 +203,83 @@ public final class AlbumsRepository {
     }
 
 
+    /* ================= Change sync ================= */
+
+    private final DriveChangeSync.ChangeSink changeSink = new DriveChangeSync.ChangeSink() {
+        // cover downloads block: keep them off the shared sync thread
+        @Override public void onChanges(@NonNull List<Change> changes) {
+            executor.execute(() -> applyChanges(changes));
+        }
+
+        @Override public void onResyncRequired() {
+            executor.execute(() -> {
+                synchronized (lock) {
+                    if (!cache.isInitialized()) return;
+                    cache.invalidate();
+                }
+                load(e -> Log.w(TAG, "albums resync failed", e));
+            });
+        }
+    };
+
+    /** Executor thread. */
+    private void applyChanges(List<Change> changes) {
+        synchronized (lock) {
+            if (!cache.isInitialized()) return;   // lists in full on first load
+        }
+
+        String rootId;
+        try {
+            rootId = DriveFolderRepository.getAlbumsRootId(appContext);   // resolved by the first load
+        } catch (Exception e) {
+            Log.w(TAG, "albums root unavailable, changes skipped", e);
+            return;
+        }
+
+        for (Change ch : changes) applyChange(ch, rootId);
+    }
+
+    /** Executor thread. An album is a live folder directly under the albums root. */
+    private void applyChange(Change ch, String rootId) {
+        String id = ch.getFileId();
+        if (id == null) return;
+
+        File f = ch.getFile();
+        boolean isAlbum = !Boolean.TRUE.equals(ch.getRemoved())
+                && f != null
+                && !Boolean.TRUE.equals(f.getTrashed())
+                && FOLDER_MIME.equals(f.getMimeType())
+                && f.getParents() != null
+                && f.getParents().contains(rootId);
+
+        AlbumInfo old;
+        synchronized (lock) { old = cache.getAlbumById(id); }
+
+        if (!isAlbum) {
+            if (old == null) return;
+            synchronized (lock) { cache.removeAlbum(id); }
+            notifyRemoved(id);
+            return;
+        }
+
+        AlbumInfo updated;
+        try {
+            updated = drive.toAlbumInfo(f);
+        } catch (Exception e) {
+            Log.w(TAG, "album change skipped id=" + id, e);
+            return;
+        }
+
+        if (old == null) {
+            synchronized (lock) { cache.addAlbum(updated); }
+            notifyAdded(updated);
+        } else if (!old.name.equals(updated.name) || !Objects.equals(old.coverPath, updated.coverPath)) {
+            synchronized (lock) { cache.replaceAlbum(updated); }
+            notifyUpdated(updated);
+        }
+    }
+
+
     /* ================= Listeners ================= */
 
     public void addListener(AlbumsListener l) {
@@ -238,6 +330,7 @@ public final class AlbumsRepository {
     }
 
     private void releaseInternal() {
+        changeSync.removeSink(changeSink);
         listeners.clear();
         executor.shutdown();
     }
@@ -0,0 +1,240 @@
+package com.github.jaykkumar01.vaultspace.core.drive;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.github.jaykkumar01.vaultspace.core.session.DriveSyncTokenStore;
+import com.github.jaykkumar01.vaultspace.core.session.UserSession;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * DriveChangeSync
+ *
+ * Incremental sync over Drive's changes feed. Keeps one start page token
+ * per account and hands every change since it to the registered sinks
+ * (album media, albums, files), so refreshing cached state costs
+ * O(changes) round trips instead of re-listing folders.
+ *
+ * Guarantees:
+ * - A token is taken BEFORE the first full listing (ensureStartToken), so
+ *   nothing that changes after a listing is missed; sinks apply replays
+ *   of already-listed items idempotently
+ * - One sync at a time; requests during a sync coalesce into one rerun
+ * - The stored token advances only after every page was applied, so a
+ *   failed sync replays from the same point next time
+ * - An expired or unknown token re-baselines and calls onResyncRequired
+ */
+public final class DriveChangeSync {
+
+    private static final String TAG = "VaultSpace:ChangeSync";
+
+    private static final int PAGE_SIZE = 1000;   // Drive maximum
+    private static final String CHANGE_FIELDS =
+            "nextPageToken,newStartPageToken,changes(fileId,removed,file(id,name,mimeType,parents,trashed,"
+                    + "createdTime,modifiedTime,size,thumbnailLink,appProperties))";
+
+    /* ================= Singleton ================= */
+
+    private static volatile DriveChangeSync INSTANCE;
+
+    public static DriveChangeSync get(Context c) {
+        if (INSTANCE == null) {
+            synchronized (DriveChangeSync.class) {
+                if (INSTANCE == null) INSTANCE = new DriveChangeSync(c.getApplicationContext());
+            }
+        }
+        return INSTANCE;
+    }
+
+    /* ================= APIs ================= */
+
+    /** Receives changes on the shared sync thread; must be idempotent and hand blocking work to its own executor. */
+    public interface ChangeSink {
+        void onChanges(@NonNull List<Change> changes);
+
+        /** The token was lost: cached state may be arbitrarily stale. */
+        void onResyncRequired();
+    }
+
+    /* ================= Core ================= */
+
+    private final Context appContext;
+    private final DriveSyncTokenStore tokens;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Set<ChangeSink> sinks = new CopyOnWriteArraySet<>();
+
+    private final Object lock = new Object();
+    private boolean running;
+    private boolean pending;
+
+    /** Set by destroy(); token writes check it under the store's monitor */
+    private boolean released;
+
+    private DriveChangeSync(Context appContext) {
+        this.appContext = appContext;
+        this.tokens = new UserSession(appContext).getSyncTokenStore();
+    }
+
+    public void addSink(ChangeSink s) {
+        if (s != null) sinks.add(s);
+    }
+
+    public void removeSink(ChangeSink s) {
+        sinks.remove(s);
+    }
+
+    /* ================= Baseline ================= */
+
+    /**
+     * Takes a start token if this account has none yet.
+     * Blocking; call on a worker thread right before a full listing.
+     * Serialized so the earliest token always wins.
+     */
+    public synchronized void ensureStartToken() {
+        String account = account();
+        if (account == null || tokens.get(account) != null) return;
+
+        try {
+            Drive drive = DriveClientProvider.getPrimaryDrive(appContext);
+            storeToken(account, drive.changes().getStartPageToken().execute().getStartPageToken());
+        } catch (Exception e) {
+            // next sync has no token and falls back to a resync
+            Log.w(TAG, "start token unavailable", e);
+        }
+    }
+
+    /* ================= Sync ================= */
+
+    /** Applies everything that changed since the last sync; returns immediately. */
+    public void sync() {
+        synchronized (lock) {
+            if (running) {
+                pending = true;
+                return;
+            }
+            running = true;
+        }
+        executor.execute(this::runLoop);
+    }
+
+    private void runLoop() {
+        while (true) {
+            runOnce();
+            synchronized (lock) {
+                if (!pending) {
+                    running = false;
+                    return;
+                }
+                pending = false;
+            }
+        }
+    }
+
+    private void runOnce() {
+        String account = account();
+        if (account == null) return;
+
+        String token = tokens.get(account);
+        if (token == null) {
+            resync(account);
+            return;
+        }
+
+        long startMs = SystemClock.elapsedRealtime();
+        int applied = 0;
+        int pages = 0;
+
+        try {
+            Drive drive = DriveClientProvider.getPrimaryDrive(appContext);
+            String pageToken = token;
+
+            while (true) {
+                ChangeList list = drive.changes().list(pageToken)
+                        .setFields(CHANGE_FIELDS)
+                        .setPageSize(PAGE_SIZE)
+                        .setSpaces("drive")
+                        .setIncludeRemoved(true)
+                        .execute();
+                pages++;
+
+                List<Change> changes = list.getChanges();
+                if (changes != null && !changes.isEmpty()) {
+                    for (ChangeSink s : sinks) s.onChanges(changes);
+                    applied += changes.size();
+                }
+
+                if (list.getNewStartPageToken() != null) {
+                    storeToken(account, list.getNewStartPageToken());
+                    break;
+                }
+                pageToken = list.getNextPageToken();
+            }
+
+            Log.d(TAG, "sync changes=" + applied + " pages=" + pages
+                    + " took=" + (SystemClock.elapsedRealtime() - startMs) + "ms");
+
+        } catch (HttpResponseException e) {
+            int c = e.getStatusCode();
+            if (c == 404 || c == 410) {
+                Log.w(TAG, "start token rejected (" + c + "), resyncing");
+                resync(account);
+            } else Log.w(TAG, "sync failed: Drive HTTP " + c, e);
+
+        } catch (Exception e) {
+            // token untouched: the next sync replays from the same point
+            Log.w(TAG, "sync failed", e);
+        }
+    }
+
+    private void resync(String account) {
+        synchronized (tokens) {
+            if (released) return;
+            tokens.remove(account);
+        }
+        ensureStartToken();
+        for (ChangeSink s : sinks) s.onResyncRequired();
+    }
+
+    /** A sync still running at logout must not re-persist a token after the clear. */
+    private void storeToken(String account, String token) {
+        synchronized (tokens) {
+            if (!released) tokens.put(account, token);
+        }
+    }
+
+    private String account() {
+        return new UserSession(appContext).getPrimaryAccountEmail();
+    }
+
+    /* ================= Lifecycle ================= */
+
+    /** After this returns no token is written, so the caller may clear the store. */
+    public static void destroy() {
+        synchronized (DriveChangeSync.class) {
+            if (INSTANCE != null) {
+                INSTANCE.releaseInternal();
+                INSTANCE = null;
+            }
+        }
+    }
+
+    private void releaseInternal() {
+        synchronized (tokens) {
+            released = true;
+        }
+        sinks.clear();
+        executor.shutdown();
+    }
+}
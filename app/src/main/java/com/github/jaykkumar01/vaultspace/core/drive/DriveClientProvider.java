@@ -2,50 +2,28 @@ package com.github.jaykkumar01.vaultspace.core.drive;
 
 import android.content.Context;
 
-import com.github.jaykkumar01.vaultspace.core.auth.GoogleCredentialFactory;
 import com.google.api.client.googleapis.extensions.android.gms.auth.GoogleAccountCredential;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.drive.Drive;
 
+/**
+ * Entry point for Drive clients. Clients are pooled per account in
+ * {@link DriveClientRegistry} and share one transport, so calling these
+ * repeatedly is cheap.
+ */
 public final class DriveClientProvider {
 
-    private static final String APP_NAME = "VaultSpace";
-
     private DriveClientProvider() {
     }
 
     public static Drive forAccount(Context context, String email) {
-        GoogleAccountCredential credential =
-                GoogleCredentialFactory.forDrive(context, email);
-
-        return new Drive.Builder(
-                new NetHttpTransport(),
-                GsonFactory.getDefaultInstance(),
-                credential
-        )
-                .setApplicationName(APP_NAME)
-                .build();
+        return DriveClientRegistry.forAccount(context, email);
     }
 
     public static Drive getPrimaryDrive(Context context) {
-        GoogleAccountCredential credential =
-                GoogleCredentialFactory.forPrimaryDrive(context);
-
-        return new Drive.Builder(new NetHttpTransport(),
-                GsonFactory.getDefaultInstance(),
-                credential
-        )
-                .setApplicationName(APP_NAME)
-                .build();
+        return DriveClientRegistry.primary(context);
     }
 
     public static Drive getDriveForCredential(GoogleAccountCredential credential) {
-        return new Drive.Builder(new NetHttpTransport(),
-                GsonFactory.getDefaultInstance(),
-                credential
-        )
-                .setApplicationName(APP_NAME)
-                .build();
+        return DriveClientRegistry.forCredential(credential);
     }
 }
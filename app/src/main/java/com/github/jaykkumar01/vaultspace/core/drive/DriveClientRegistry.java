@@ -0,0 +1,124 @@
+package com.github.jaykkumar01.vaultspace.core.drive;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.github.jaykkumar01.vaultspace.core.auth.DriveTokenManager;
+import com.github.jaykkumar01.vaultspace.core.session.UserSession;
+import com.google.api.client.googleapis.extensions.android.gms.auth.GoogleAccountCredential;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.drive.Drive;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide pool of Drive clients, one per (account, scope).
+ *
+ * Guarantees:
+ * - Every client shares one OkHttp-backed transport (HTTP/2, pooled, keep-alive)
+ * - A client is built once per account and reused until evicted
+ * - Pooled clients authorize through the account's {@link DriveTokenManager},
+ *   so API calls and raw HTTP share its cached token
+ * - Cleared on session clear; callers never own or close a client
+ */
+public final class DriveClientRegistry {
+
+    private static final String TAG = "VaultSpace:DriveClients";
+    private static final String APP_NAME = "VaultSpace";
+
+    // google-http-client defaults; keeps per-request timeouts on the shared client
+    private static final int API_TIMEOUT_MS = 20_000;
+
+    private static final HttpTransport TRANSPORT = new OkHttpTransport(
+            DriveHttpClient.get().newBuilder()
+                    .connectTimeout(API_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                    .readTimeout(API_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                    .writeTimeout(0, TimeUnit.MILLISECONDS)
+                    .build()
+    );
+
+    private static final Map<String, Drive> clients = new ConcurrentHashMap<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private DriveClientRegistry() {
+    }
+
+    /* ================= Public API ================= */
+
+    /** Full drive scope, for the signed-in primary account. */
+    public static Drive primary(Context context) {
+        String email = new UserSession(context).getPrimaryAccountEmail();
+        return clients.computeIfAbsent(key("primary", email), k ->
+                build(new TokenRequestInitializer(DriveTokenManager.primary(context))));
+    }
+
+    /** drive.file scope, for a trusted account. */
+    public static Drive forAccount(Context context, String email) {
+        return clients.computeIfAbsent(key("file", email), k ->
+                build(new TokenRequestInitializer(DriveTokenManager.forAccount(context, email))));
+    }
+
+    /** Not pooled (the caller owns the credential), but still on the shared transport. */
+    public static Drive forCredential(GoogleAccountCredential credential) {
+        return build(credential);
+    }
+
+    /** Drops every client of {@code email}, e.g. after its access was revoked. */
+    public static void evict(String email) {
+        if (email == null) return;
+        String suffix = "|" + email.toLowerCase(Locale.ROOT);
+        clients.keySet().removeIf(k -> k.endsWith(suffix));
+        DriveTokenManager.evict(email);
+    }
+
+    public static void onSessionCleared() {
+        logMetrics();
+        clients.clear();
+    }
+
+    /* ================= Metrics ================= */
+
+    public static long poolHits() {
+        return hits.get();
+    }
+
+    public static long poolMisses() {
+        return misses.get();
+    }
+
+    public static void logMetrics() {
+        long acquired = DriveHttpClient.connectionsAcquired();
+        long opened = DriveHttpClient.connectionsOpened();
+        Log.d(TAG, "clients=" + clients.size()
+                + " hits=" + hits.get()
+                + " misses=" + misses.get()
+                + " connAcquired=" + acquired
+                + " connReused=" + Math.max(0, acquired - opened)
+                + " idle=" + DriveHttpClient.idleConnections());
+    }
+
+    /* ================= Internal ================= */
+
+    private static String key(String scope, String email) {
+        if (email == null || email.isBlank())
+            throw new IllegalArgumentException("Google account email is required");
+        String key = scope + "|" + email.toLowerCase(Locale.ROOT);
+        if (clients.containsKey(key)) hits.incrementAndGet();
+        else misses.incrementAndGet();
+        return key;
+    }
+
+    private static Drive build(HttpRequestInitializer auth) {
+        return new Drive.Builder(TRANSPORT, GsonFactory.getDefaultInstance(), auth)
+                .setApplicationName(APP_NAME)
+                .build();
+    }
+}
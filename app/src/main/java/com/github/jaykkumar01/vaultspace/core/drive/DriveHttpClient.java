@@ -0,0 +1,77 @@
+package com.github.jaykkumar01.vaultspace.core.drive;
+
+import androidx.annotation.NonNull;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Process-wide OkHttp client for all Drive traffic: raw media (alt=media
+ * streaming, ranged downloads) and, through {@link DriveClientRegistry},
+ * the Drive API itself. One pool, so HTTP/2 connections are multiplexed
+ * across subsystems instead of re-handshaking.
+ */
+public final class DriveHttpClient {
+
+    private static final int CONNECT_TIMEOUT_MS = 6000;
+    private static final int READ_TIMEOUT_MS = 15000;
+
+    private static final ConnectionPool CONNECTION_POOL =
+            new ConnectionPool(8, 5, TimeUnit.MINUTES);
+
+    /* connections acquired vs. actually opened; the difference is reuse */
+    private static final AtomicLong acquired = new AtomicLong();
+    private static final AtomicLong opened = new AtomicLong();
+
+    private static final EventListener METRICS = new EventListener() {
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress address, @NonNull Proxy proxy) {
+            opened.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+            acquired.incrementAndGet();
+        }
+    };
+
+    private static final OkHttpClient CLIENT = new OkHttpClient.Builder()
+            .connectTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .readTimeout(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .connectionPool(CONNECTION_POOL)
+            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .retryOnConnectionFailure(true)
+            .eventListener(METRICS)
+            .build();
+
+    private DriveHttpClient() {
+    }
+
+    public static OkHttpClient get() {
+        return CLIENT;
+    }
+
+    /* ================= Metrics ================= */
+
+    public static long connectionsAcquired() {
+        return acquired.get();
+    }
+
+    public static long connectionsOpened() {
+        return opened.get();
+    }
+
+    public static int idleConnections() {
+        return CONNECTION_POOL.idleConnectionCount();
+    }
+}
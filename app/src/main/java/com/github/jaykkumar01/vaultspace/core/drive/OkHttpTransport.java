@@ -0,0 +1,204 @@
+package com.github.jaykkumar01.vaultspace.core.drive;
+
+import androidx.annotation.NonNull;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.util.StreamingContent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+
+/**
+ * google-http-client transport backed by the shared OkHttp client, so
+ * Drive API calls ride the same HTTP/2 connection pool as media traffic.
+ *
+ * Guarantees:
+ * - Never owns the OkHttpClient (shutdown is a no-op)
+ * - Per-request timeouts derive from the shared client (pool is shared)
+ * - Response bodies are handed back unbuffered; gzip is left to HttpResponse
+ */
+final class OkHttpTransport extends HttpTransport {
+
+    private final OkHttpClient client;
+
+    OkHttpTransport(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public boolean supportsMethod(String method) {
+        return true;
+    }
+
+    @Override
+    protected LowLevelHttpRequest buildRequest(String method, String url) {
+        return new OkRequest(method, url);
+    }
+
+    /* ================= Request ================= */
+
+    private final class OkRequest extends LowLevelHttpRequest {
+
+        private final String method;
+        private final Request.Builder builder;
+
+        private int connectTimeoutMs = -1;
+        private int readTimeoutMs = -1;
+        private int writeTimeoutMs = -1;
+
+        OkRequest(String method, String url) {
+            this.method = method;
+            this.builder = new Request.Builder().url(url);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            builder.addHeader(name, value);
+        }
+
+        @Override
+        public void setTimeout(int connectTimeout, int readTimeout) {
+            connectTimeoutMs = connectTimeout;
+            readTimeoutMs = readTimeout;
+        }
+
+        @Override
+        public void setWriteTimeout(int writeTimeout) {
+            writeTimeoutMs = writeTimeout;
+        }
+
+        @Override
+        public LowLevelHttpResponse execute() throws IOException {
+            if (getContentEncoding() != null) builder.header("Content-Encoding", getContentEncoding());
+            builder.method(method, body());
+
+            Call call = clientForTimeouts().newCall(builder.build());
+            return new OkResponse(call.execute());
+        }
+
+        private RequestBody body() {
+            StreamingContent content = getStreamingContent();
+            if (content == null) {
+                // OkHttp rejects a null body for methods that require one
+                boolean needsBody = "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+                return needsBody ? RequestBody.create(new byte[0], null) : null;
+            }
+
+            String type = getContentType();
+            MediaType mediaType = type == null ? null : MediaType.parse(type);
+            long length = getContentLength();
+
+            return new RequestBody() {
+                @Override public MediaType contentType() {
+                    return mediaType;
+                }
+                @Override public long contentLength() {
+                    return length;
+                }
+                @Override public boolean isOneShot() {
+                    return true;   // upload streams can't be replayed
+                }
+                @Override public void writeTo(@NonNull BufferedSink sink) throws IOException {
+                    content.writeTo(sink.outputStream());
+                }
+            };
+        }
+
+        /** Derived clients share the pool and dispatcher, only timeouts differ. */
+        private OkHttpClient clientForTimeouts() {
+            boolean same = (connectTimeoutMs < 0 || connectTimeoutMs == client.connectTimeoutMillis())
+                    && (readTimeoutMs < 0 || readTimeoutMs == client.readTimeoutMillis())
+                    && (writeTimeoutMs < 0 || writeTimeoutMs == client.writeTimeoutMillis());
+            if (same) return client;
+
+            OkHttpClient.Builder b = client.newBuilder();
+            if (connectTimeoutMs >= 0) b.connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS);
+            if (readTimeoutMs >= 0) b.readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS);
+            if (writeTimeoutMs >= 0) b.writeTimeout(writeTimeoutMs, TimeUnit.MILLISECONDS);
+            return b.build();
+        }
+    }
+
+    /* ================= Response ================= */
+
+    private static final class OkResponse extends LowLevelHttpResponse {
+
+        private final Response response;
+        private final Headers headers;
+
+        OkResponse(Response response) {
+            this.response = response;
+            this.headers = response.headers();
+        }
+
+        @Override
+        public InputStream getContent() {
+            ResponseBody body = response.body();
+            return body == null ? null : body.byteStream();
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return response.header("Content-Encoding");
+        }
+
+        @Override
+        public long getContentLength() {
+            ResponseBody body = response.body();
+            return body == null ? -1 : body.contentLength();
+        }
+
+        @Override
+        public String getContentType() {
+            return response.header("Content-Type");
+        }
+
+        @Override
+        public String getStatusLine() {
+            return response.protocol() + " " + response.code() + " " + response.message();
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.code();
+        }
+
+        @Override
+        public String getReasonPhrase() {
+            return response.message();
+        }
+
+        @Override
+        public int getHeaderCount() {
+            return headers.size();
+        }
+
+        @Override
+        public String getHeaderName(int index) {
+            return headers.name(index);
+        }
+
+        @Override
+        public String getHeaderValue(int index) {
+            return headers.value(index);
+        }
+
+        @Override
+        public void disconnect() {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.jaykkumar01.vaultspace.core.drive;
+
+import com.github.jaykkumar01.vaultspace.core.auth.DriveTokenManager;
+import com.google.android.gms.auth.GoogleAuthException;
+import com.google.android.gms.auth.UserRecoverableAuthException;
+import com.google.api.client.googleapis.extensions.android.gms.auth.GoogleAuthIOException;
+import com.google.api.client.googleapis.extensions.android.gms.auth.UserRecoverableAuthIOException;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+
+import java.io.IOException;
+
+/**
+ * Authorizes Drive API requests from a {@link DriveTokenManager} instead of
+ * the credential, so API calls and raw HTTP share one cached token per
+ * account and one refresh.
+ *
+ * Guarantees:
+ * - The token is read before every attempt, retries included
+ * - A 401 refreshes once (single-flight in the manager) and retries
+ * - Auth failures surface as the credential's would: consent checks still
+ *   see {@link UserRecoverableAuthIOException}
+ */
+final class TokenRequestInitializer
+        implements HttpRequestInitializer, HttpExecuteInterceptor, HttpUnsuccessfulResponseHandler {
+
+    private static final String BEARER = "Bearer ";
+
+    private final DriveTokenManager tokens;
+
+    TokenRequestInitializer(DriveTokenManager tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public void initialize(HttpRequest request) {
+        request.setInterceptor(this);
+        request.setUnsuccessfulResponseHandler(this);
+    }
+
+    @Override
+    public void intercept(HttpRequest request) throws IOException {
+        try {
+            request.getHeaders().setAuthorization(BEARER + tokens.getToken());
+        } catch (RuntimeException e) {
+            throw asIOException(e);
+        }
+    }
+
+    @Override
+    public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry)
+            throws IOException {
+        if (response.getStatusCode() != 401 || !supportsRetry) return false;
+
+        String header = request.getHeaders().getAuthorization();
+        String rejected = header != null && header.startsWith(BEARER) ? header.substring(BEARER.length()) : null;
+        try {
+            tokens.refreshAfterFailure(rejected);   // intercept() picks the new one up
+        } catch (RuntimeException e) {
+            throw asIOException(e);
+        }
+        return true;
+    }
+
+    /** The manager wraps fetch failures; unwrap them into what callers catch. */
+    private static IOException asIOException(RuntimeException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof UserRecoverableAuthException)
+            return new UserRecoverableAuthIOException((UserRecoverableAuthException) cause);
+        if (cause instanceof GoogleAuthException)
+            return new GoogleAuthIOException((GoogleAuthException) cause);
+        if (cause instanceof IOException) return (IOException) cause;
+        throw e;
+    }
+}
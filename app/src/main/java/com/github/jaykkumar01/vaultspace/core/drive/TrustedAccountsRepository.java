@@ -15,6 +15,7 @@ import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
@@ -68,6 +69,9 @@ public final class TrustedAccountsRepository {
     private final AtomicLong totalStorageBytes = new AtomicLong();
     private final AtomicLong usedStorageBytes = new AtomicLong();
 
+    // bumped whenever the account set is (re)loaded or changes
+    private final AtomicInteger accountsVersion = new AtomicInteger();
+
 
     /* ================= Constructor ================= */
 
@@ -90,6 +94,7 @@ public final class TrustedAccountsRepository {
 
                     linkedEmails = new HashSet<>(linkedEmailsFromDrive); // always overwrite
                     recomputeTotalsLocked();
+                    accountsVersion.incrementAndGet();
                 }
                 afterInit.run();
                 notifyListeners();
@@ -154,6 +159,10 @@ public final class TrustedAccountsRepository {
         ));
     }
 
+    public int getAccountsVersion() {
+        return accountsVersion.get();
+    }
+
     public Set<String> getLinkedEmailsSnapshot() {
         initBlockingIfNeeded();
         synchronized (initLock) {
@@ -172,6 +181,7 @@ public final class TrustedAccountsRepository {
         linkedEmails.add(a.email);
         totalStorageBytes.addAndGet(a.totalQuota);
         usedStorageBytes.addAndGet(a.usedQuota);
+        accountsVersion.incrementAndGet();
         notifyListeners();
         notifyUsageListeners();
     }
@@ -184,6 +194,8 @@ public final class TrustedAccountsRepository {
             usedStorageBytes.addAndGet(-a.usedQuota);
         }
         if (linkedEmails != null) linkedEmails.remove(email);
+        DriveClientRegistry.evict(email);
+        accountsVersion.incrementAndGet();
         notifyListeners();
         notifyUsageListeners();
     }
@@ -243,6 +255,7 @@ public final class TrustedAccountsRepository {
             linkedEmails = null;
             totalStorageBytes.set(0L);
             usedStorageBytes.set(0L);
+            accountsVersion.incrementAndGet();
         }
         initIfNeeded(() -> {
         });
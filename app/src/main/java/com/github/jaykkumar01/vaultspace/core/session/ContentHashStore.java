@@ -0,0 +1,71 @@
+package com.github.jaykkumar01.vaultspace.core.session;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.jaykkumar01.vaultspace.core.session.db.SessionStore;
+import com.github.jaykkumar01.vaultspace.core.session.db.VaultSessionDatabase;
+import com.github.jaykkumar01.vaultspace.core.session.db.dedup.VaultedContentDao;
+import com.github.jaykkumar01.vaultspace.core.session.db.dedup.VaultedContentEntity;
+import com.github.jaykkumar01.vaultspace.core.upload.base.UploadSelection;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Local index of content already vaulted per album.
+ *
+ * Keyed by the local source (uri, size, modified moment), so re-selecting
+ * the same camera-roll items finds their Drive copy without re-reading
+ * them; the sha256 of the uploaded bytes is indexed too, so the same
+ * bytes from another uri match once hashed.
+ * Calls are blocking; use from upload threads.
+ */
+public final class ContentHashStore implements SessionStore {
+
+    private final VaultedContentDao dao;
+
+    public ContentHashStore(@NonNull Context context) {
+        this.dao = VaultSessionDatabase.get(context).vaultedContentDao();
+    }
+
+    @NonNull
+    public static String sourceKey(@NonNull UploadSelection s) {
+        return s.uri + "|" + s.sizeBytes + "|" + s.momentMillis;
+    }
+
+    /* ================= Read ================= */
+
+    @Nullable
+    public VaultedContentEntity find(@NonNull UploadSelection s) {
+        return dao.get(sourceKey(s), s.context.groupId);
+    }
+
+    @Nullable
+    public VaultedContentEntity findByHash(@NonNull String sha256, @NonNull String groupId) {
+        return dao.getByHash(sha256, groupId);
+    }
+
+    /* ================= Write ================= */
+
+    public void record(@NonNull UploadSelection s, @NonNull String sha256, @NonNull String fileId) {
+        dao.upsert(new VaultedContentEntity(
+                sourceKey(s),
+                s.context.groupId,
+                sha256,
+                fileId,
+                s.sizeBytes,
+                System.currentTimeMillis()
+        ));
+    }
+
+    public void forgetFile(@NonNull String fileId) {
+        dao.deleteByFileId(fileId);
+    }
+
+    @Override
+    public void onSessionCleared() {
+        Executors.newSingleThreadExecutor().execute(dao::deleteAll);
+    }
+}
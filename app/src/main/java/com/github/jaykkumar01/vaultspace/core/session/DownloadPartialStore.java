@@ -0,0 +1,59 @@
+package com.github.jaykkumar01.vaultspace.core.session;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.jaykkumar01.vaultspace.core.session.db.SessionStore;
+import com.github.jaykkumar01.vaultspace.core.session.db.VaultSessionDatabase;
+import com.github.jaykkumar01.vaultspace.core.session.db.download.DownloadPartialDao;
+import com.github.jaykkumar01.vaultspace.core.session.db.download.DownloadPartialEntity;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Tracks downloads that have bytes on disk but are not finished, so a
+ * download cut off by a service kill continues with Range requests instead
+ * of starting over. Calls are blocking; use from download threads.
+ */
+public final class DownloadPartialStore implements SessionStore {
+
+    private final DownloadPartialDao dao;
+
+    public DownloadPartialStore(@NonNull Context context) {
+        this.dao = VaultSessionDatabase.get(context).downloadPartialDao();
+    }
+
+    /* ================= Read ================= */
+
+    @Nullable
+    public DownloadPartialEntity get(@NonNull String fileId) {
+        return dao.getById(fileId);
+    }
+
+    @NonNull
+    public List<DownloadPartialEntity> getAll() {
+        return dao.getAll();
+    }
+
+    /* ================= Write ================= */
+
+    public void save(@NonNull DownloadPartialEntity e) {
+        dao.upsert(e);
+    }
+
+    public void updateProgress(@NonNull String fileId, @NonNull String segments, long committedBytes) {
+        dao.updateProgress(fileId, segments, committedBytes, System.currentTimeMillis());
+    }
+
+    public void remove(@NonNull String fileId) {
+        dao.deleteById(fileId);
+    }
+
+    @Override
+    public void onSessionCleared() {
+        Executors.newSingleThreadExecutor().execute(dao::deleteAll);
+    }
+}
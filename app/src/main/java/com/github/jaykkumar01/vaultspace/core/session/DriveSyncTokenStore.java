@@ -0,0 +1,44 @@
+package com.github.jaykkumar01.vaultspace.core.session;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * Drive changes start page token, one per account.
+ *
+ * A single string per account read once per sync, so this stays in
+ * SharedPreferences rather than the session database.
+ */
+public final class DriveSyncTokenStore {
+
+    private static final String PREF_NAME = "vaultspace_drive_sync";
+    private static final String KEY_PREFIX = "start_token:";
+
+    private final SharedPreferences prefs;
+
+    public DriveSyncTokenStore(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    /* ================= Reads ================= */
+
+    public String get(String account) {
+        return account == null ? null : prefs.getString(KEY_PREFIX + account, null);
+    }
+
+    /* ================= Writes ================= */
+
+    public void put(String account, String token) {
+        if (account == null || token == null) return;
+        prefs.edit().putString(KEY_PREFIX + account, token).apply();
+    }
+
+    public void remove(String account) {
+        if (account == null) return;
+        prefs.edit().remove(KEY_PREFIX + account).apply();
+    }
+
+    public void clear() {
+        prefs.edit().clear().apply();
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.jaykkumar01.vaultspace.core.session;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.jaykkumar01.vaultspace.core.session.db.SessionStore;
+import com.github.jaykkumar01.vaultspace.core.session.db.VaultSessionDatabase;
+import com.github.jaykkumar01.vaultspace.core.session.db.resume.UploadSessionDao;
+import com.github.jaykkumar01.vaultspace.core.session.db.resume.UploadSessionEntity;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists Drive resumable upload sessions per UploadSelection.id so an
+ * upload interrupted by a process kill or network drop continues from the
+ * server-confirmed offset. Calls are blocking; use from upload threads.
+ */
+public final class UploadSessionStore implements SessionStore {
+
+    // Drive keeps resumable sessions for about a week
+    private static final long MAX_SESSION_AGE_MS = TimeUnit.DAYS.toMillis(6);
+
+    private final UploadSessionDao dao;
+
+    public UploadSessionStore(@NonNull Context context) {
+        this.dao = VaultSessionDatabase.get(context).uploadSessionDao();
+    }
+
+    /* ================= Read ================= */
+
+    /** Returns the live session for {@code uploadId}, dropping stale ones. */
+    @Nullable
+    public UploadSessionEntity get(@NonNull String uploadId) {
+        UploadSessionEntity e = dao.getById(uploadId);
+        if (e == null) return null;
+        if (System.currentTimeMillis() - e.createdAt > MAX_SESSION_AGE_MS) {
+            dao.deleteById(uploadId);
+            return null;
+        }
+        return e;
+    }
+
+    /* ================= Write ================= */
+
+    public void save(@NonNull UploadSessionEntity e) {
+        dao.upsert(e);
+    }
+
+    public void updateCommitted(@NonNull String uploadId, long committedBytes) {
+        dao.updateCommitted(uploadId, committedBytes);
+    }
+
+    public void remove(@NonNull String uploadId) {
+        dao.deleteById(uploadId);
+    }
+
+    /* ================= Clear ================= */
+
+    public void clearGroup(@NonNull String groupId) {
+        dao.deleteGroup(groupId);
+    }
+
+    @Override
+    public void onSessionCleared() {
+        Executors.newSingleThreadExecutor().execute(dao::deleteAll);
+    }
+}
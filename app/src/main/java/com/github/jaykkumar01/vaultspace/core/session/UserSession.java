@@ -3,8 +3,11 @@ package com.github.jaykkumar01.vaultspace.core.session;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import com.github.jaykkumar01.vaultspace.core.auth.DriveTokenManager;
 import com.github.jaykkumar01.vaultspace.core.drive.AlbumMediaRepository;
 import com.github.jaykkumar01.vaultspace.core.drive.AlbumsRepository;
+import com.github.jaykkumar01.vaultspace.core.drive.DriveChangeSync;
+import com.github.jaykkumar01.vaultspace.core.drive.DriveClientRegistry;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveFolderRepository;
 import com.github.jaykkumar01.vaultspace.core.drive.TrustedAccountsRepository;
 import com.github.jaykkumar01.vaultspace.core.session.cache.AppCacheManager;
@@ -62,10 +65,26 @@ public class UserSession {
         return storeRegistry.get(UploadRetryStore.class);
     }
 
+    public UploadSessionStore getUploadSessionStore() {
+        return storeRegistry.get(UploadSessionStore.class);
+    }
+
+    public ContentHashStore getContentHashStore() {
+        return storeRegistry.get(ContentHashStore.class);
+    }
+
+    public DownloadPartialStore getDownloadPartialStore() {
+        return storeRegistry.get(DownloadPartialStore.class);
+    }
+
     public SetupIgnoreStore getSetupIgnoreStore() {
         return storeRegistry.get(SetupIgnoreStore.class);
     }
 
+    public DriveSyncTokenStore getSyncTokenStore() {
+        return new DriveSyncTokenStore(appContext);
+    }
+
     /* ---------------- Session ---------------- */
 
     public boolean isLoggedOut() {
@@ -86,9 +105,13 @@ public class UserSession {
         PrimaryUserCoordinator.clearSavedProfilePhoto(appContext);
         UploadOrchestrator.getInstance(appContext).onSessionCleared();
         DriveFolderRepository.onSessionCleared();
+        DriveClientRegistry.onSessionCleared();
+        DriveTokenManager.onSessionCleared();
         TrustedAccountsRepository.destroy();
         AlbumsRepository.destroy();
         AlbumMediaRepository.destroy();
+        DriveChangeSync.destroy();
+        getSyncTokenStore().clear();
         AppCacheManager.clearCache(appContext);
 
         prefs.edit().clear().apply();
@@ -1,6 +1,8 @@
 package com.github.jaykkumar01.vaultspace.core.session.cache;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -17,6 +19,8 @@ import java.util.Map;
  * - Talk to Drive
  * - Decide fetch timing
  * - Expose collections
+ *
+ * Routing is synchronized: the change sync reads it off the main thread.
  */
 public final class AlbumMediaCache extends VaultCache {
 
@@ -36,7 +40,7 @@ public final class AlbumMediaCache extends VaultCache {
      *
      * Safe to call anytime.
      */
-    public AlbumMediaEntry getOrCreateEntry(String albumId) {
+    public synchronized AlbumMediaEntry getOrCreateEntry(String albumId) {
         if (albumId == null) {
             throw new IllegalArgumentException("groupId == null");
         }
@@ -53,7 +57,7 @@ public final class AlbumMediaCache extends VaultCache {
      * Invalidates media cache for a single album.
      * UI will refetch if needed.
      */
-    public void invalidateAlbum(String albumId) {
+    public synchronized void invalidateAlbum(String albumId) {
         if (albumId == null) return;
 
         AlbumMediaEntry entry = entriesByAlbumId.get(albumId);
@@ -62,12 +66,38 @@ public final class AlbumMediaCache extends VaultCache {
         }
     }
 
+    /* ==========================================================
+     * Change routing (O(albums))
+     * ========================================================== */
+
+    /** Ids of albums whose media is loaded. */
+    public synchronized List<String> getLoadedAlbumIds() {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, AlbumMediaEntry> e : entriesByAlbumId.entrySet())
+            if (e.getValue().isInitialized()) out.add(e.getKey());
+        return out;
+    }
+
+    public synchronized boolean isAlbumLoaded(String albumId) {
+        AlbumMediaEntry entry = albumId == null ? null : entriesByAlbumId.get(albumId);
+        return entry != null && entry.isInitialized();
+    }
+
+    /** Loaded albums that currently hold {@code fileId}. */
+    public synchronized List<String> getAlbumsContaining(String fileId) {
+        List<String> out = new ArrayList<>();
+        if (fileId == null) return out;
+        for (Map.Entry<String, AlbumMediaEntry> e : entriesByAlbumId.entrySet())
+            if (e.getValue().getByMediaId(fileId) != null) out.add(e.getKey());
+        return out;
+    }
+
     /* ==========================================================
      * VaultCache hook
      * ========================================================== */
 
     @Override
-    protected void onClear() {
+    protected synchronized void onClear() {
         entriesByAlbumId.clear();
     }
 }
@@ -2,8 +2,9 @@ package com.github.jaykkumar01.vaultspace.core.session.cache;
 
 import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
 /**
  * AlbumMediaEntry
@@ -12,11 +13,12 @@ import java.util.LinkedHashMap;
  *
  * Guarantees:
  * - O(1) lookup by fileId
- * - O(1) add / remove / replace
- * - Ordered iteration (newest first)
- * - O(n) ONLY during initialization
+ * - O(log n) add / remove / replace, kept in (momentMillis desc, fileId) order
+ * - O(log n) positional lookup and position-of-fileId
+ * - O(1) immutable snapshots (unaffected by later mutations)
+ * - O(n log n) ONLY during initialization
  *
- * UI-facing via safe iterables.
+ * UI-facing via snapshots; mutations are serialized on the entry.
  */
 public final class AlbumMediaEntry {
 
@@ -30,115 +32,145 @@ public final class AlbumMediaEntry {
      * Storage
      * ========================================================== */
 
-    /**
-     * fileId -> AlbumMedia
-     *
-     * accessOrder = false
-     * We control insertion position explicitly.
-     */
-    private final LinkedHashMap<String, AlbumMedia> mediaById =
-            new LinkedHashMap<>();
+    /** fileId -> AlbumMedia (the instance currently in the index) */
+    private final HashMap<String, AlbumMedia> mediaById = new HashMap<>();
+
+    /** Newest first; shares structure with every snapshot handed out. */
+    private final OrderedMediaIndex index = new OrderedMediaIndex();
 
     /* ==========================================================
      * Lifecycle
      * ========================================================== */
 
-    public boolean isInitialized() {
+    public synchronized boolean isInitialized() {
         return initialized;
     }
 
     /**
      * Initializes media from Drive result.
-     * Order is preserved exactly as provided.
+     * Duplicates (by fileId) keep the first occurrence.
      *
-     * O(n) — allowed ONLY here.
+     * O(n log n) — allowed ONLY here.
      */
-    public void initializeFromDrive(Iterable<AlbumMedia> media) {
+    public synchronized void initializeFromDrive(Iterable<AlbumMedia> media) {
         if (initialized) return;
 
         mediaById.clear();
+        List<AlbumMedia> sorted = new ArrayList<>();
 
         if (media != null) {
             for (AlbumMedia m : media) {
-                mediaById.put(m.fileId, m);
+                if (m == null || mediaById.putIfAbsent(m.fileId, m) != null) continue;
+                sorted.add(m);
             }
         }
 
+        sorted.sort(OrderedMediaIndex::compare);
+        index.build(sorted);
         initialized = true;
     }
 
     /**
      * Clears media and resets state.
      */
-    public void clear() {
+    public synchronized void clear() {
         mediaById.clear();
+        index.clear();
         initialized = false;
     }
 
     /* ==========================================================
-     * Read APIs (O(1))
+     * Read APIs
      * ========================================================== */
 
     /**
-     * Read-only ordered view.
-     * Safe for UI iteration.
+     * Immutable ordered snapshot (O(1)).
+     * Safe for UI iteration on any thread.
      */
-    public Iterable<AlbumMedia> getMediaView() {
-        return Collections.unmodifiableCollection(mediaById.values());
+    public synchronized Iterable<AlbumMedia> getMediaView() {
+        return index.snapshot();
+    }
+
+    /** Same snapshot, with O(log n) positional access for adapters. */
+    public synchronized List<AlbumMedia> getMediaSnapshot() {
+        return index.snapshot();
     }
 
     /**
      * O(1) lookup by fileId.
      */
-    public AlbumMedia getByMediaId(String fileId) {
+    public synchronized AlbumMedia getByMediaId(String fileId) {
         if (!initialized || fileId == null) return null;
         return mediaById.get(fileId);
     }
 
-    public boolean isEmpty() {
+    /** O(log n) position in the current order, or -1. */
+    public synchronized int positionOf(String fileId) {
+        AlbumMedia m = getByMediaId(fileId);
+        return m == null ? -1 : index.rank(m);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized boolean isEmpty() {
         return initialized && mediaById.isEmpty();
     }
 
 
     /* ==========================================================
-     * Mutation APIs (ALL O(1))
+     * Mutation APIs (O(log n))
      * ========================================================== */
 
     /**
-     * Adds new media at top (newest first).
+     * Adds new media at its time position.
      * Ignores duplicates.
      */
-    public void addMedia(AlbumMedia media) {
+    public synchronized void addMedia(AlbumMedia media) {
         if (!initialized || media == null) return;
         if (mediaById.containsKey(media.fileId)) return;
 
-        // Insert-at-top trick: rebuild head only
-        LinkedHashMap<String, AlbumMedia> reordered =
-                new LinkedHashMap<>();
-
-        reordered.put(media.fileId, media);
-        reordered.putAll(mediaById);
+        mediaById.put(media.fileId, media);
+        index.insert(media);
+    }
 
-        mediaById.clear();
-        mediaById.putAll(reordered);
+    /**
+     * Adds a page of media; returns the items that were new.
+     * O(k log n).
+     */
+    public synchronized List<AlbumMedia> addAll(List<AlbumMedia> page) {
+        List<AlbumMedia> added = new ArrayList<>(page.size());
+        if (!initialized) return added;
+
+        for (AlbumMedia m : page) {
+            if (m == null || mediaById.putIfAbsent(m.fileId, m) != null) continue;
+            index.insert(m);
+            added.add(m);
+        }
+        return added;
     }
 
     /**
      * Removes media by fileId.
      */
-    public void removeMedia(String fileId) {
+    public synchronized void removeMedia(String fileId) {
         if (!initialized || fileId == null) return;
-        mediaById.remove(fileId);
+        AlbumMedia old = mediaById.remove(fileId);
+        if (old != null) index.remove(old);
     }
 
     /**
      * Replaces existing media metadata.
-     * Order is preserved.
+     * Moves it if its moment changed.
      */
-    public void replaceMedia(AlbumMedia updated) {
+    public synchronized void replaceMedia(AlbumMedia updated) {
         if (!initialized || updated == null) return;
-        if (!mediaById.containsKey(updated.fileId)) return;
+        AlbumMedia old = mediaById.get(updated.fileId);
+        if (old == null) return;
 
+        index.remove(old);
+        index.insert(updated);
         mediaById.put(updated.fileId, updated);
     }
 }
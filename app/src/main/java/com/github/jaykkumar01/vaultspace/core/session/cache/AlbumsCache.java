@@ -127,6 +127,15 @@ public final class AlbumsCache extends VaultCache {
         albumsById.get(albumId);
     }
 
+    /**
+     * Drops everything so the next initializeFromDrive() is accepted.
+     * Used when incremental sync can no longer vouch for the contents.
+     */
+    public void invalidate() {
+        onClear();
+        resetState();
+    }
+
     /* ==========================================================
      * VaultCache hook
      * ========================================================== */
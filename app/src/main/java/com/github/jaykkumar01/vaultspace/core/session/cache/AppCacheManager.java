@@ -10,6 +10,7 @@ public final class AppCacheManager {
 
     public static void clearCache(Context context) {
         deleteDir(context.getCacheDir());
+        DiskCacheManager.get(context).onCleared();
     }
 
     private static void deleteDir(File dir) {
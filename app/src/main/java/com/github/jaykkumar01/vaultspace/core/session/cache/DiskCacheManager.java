@@ -0,0 +1,368 @@
+package com.github.jaykkumar01.vaultspace.core.session.cache;
+
+import android.content.Context;
+import android.os.StatFs;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the on-disk cache budget, split into partitions.
+ *
+ * Guarantees:
+ * - Total budget is a fraction of free storage plus what the partitions
+ *   actually hold on disk (re-read at most once a minute)
+ * - Each partition gets a share of it, clamped to [min, max]
+ * - A write over a partition's budget trims that partition (LRU by mtime,
+ *   or through its {@link DiskLruIndex} when it has one)
+ * - When the total is exceeded, the partition furthest over its share is
+ *   trimmed first (cross-partition pressure)
+ * - Per-partition stats: hits, misses, bytes served, evictions
+ * - Files still being written ({@link DiskLruIndex#PARTIAL_SUFFIX}) are never evicted
+ */
+public final class DiskCacheManager {
+
+    private static final String TAG = "VaultSpace:DiskCache";
+
+    /* ================= Partitions ================= */
+
+    public enum Partition {
+        VIDEO("exo_drive_altmedia_cache", 0.45f, 32, 512),
+        ORIGINALS("media_originals", 0.35f, 16, 256),
+        THUMBNAILS("drive_thumbs", 0.15f, 8, 96),
+        COVERS("album_covers", 0.05f, 2, 32);
+
+        final String dirName;
+        final float share;
+        final long minBytes;
+        final long maxBytes;
+
+        Partition(String dirName, float share, long minMb, long maxMb) {
+            this.dirName = dirName;
+            this.share = share;
+            this.minBytes = minMb * MB;
+            this.maxBytes = maxMb * MB;
+        }
+    }
+
+    /** A partition that manages its own files (the video SimpleCache). */
+    public interface Evictable {
+        long usedBytes();
+
+        /** Frees at least {@code bytes} if possible; returns bytes freed. */
+        long evict(long bytes);
+
+        /** The partition's budget moved; called under the manager lock, must not block. */
+        default void onBudgetChanged(long budget) {
+        }
+    }
+
+    /* ================= Constants ================= */
+
+    private static final long MB = 1024L * 1024;
+    private static final float FREE_FRACTION = 0.10f;
+    private static final long MIN_TOTAL = 64 * MB;
+    private static final long MAX_TOTAL = 1024 * MB;
+    private static final long BUDGET_REFRESH_MS = 60_000;
+
+    // old thumbnails lived loose in cacheDir
+    private static final String LEGACY_THUMB_PREFIX = "thumb_";
+
+    private static volatile DiskCacheManager INSTANCE;
+
+    /* ================= State ================= */
+
+    private final File root;
+    private final Map<Partition, Stats> stats = new EnumMap<>(Partition.class);
+    private final Map<Partition, Evictable> evictables = new EnumMap<>(Partition.class);
+    private final Map<Partition, Long> budgets = new EnumMap<>(Partition.class);
+    private final Map<Partition, DiskLruIndex> indexes = new EnumMap<>(Partition.class);
+    private final ExecutorService trimmer = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean trimQueued = new AtomicBoolean();
+
+    private long totalBudget;
+    private long budgetsAt;
+
+    // bytes the partitions occupy, measured by the last trim pass
+    private long heldBytes;
+    private boolean heldMeasured;
+
+    /* ================= Lifecycle ================= */
+
+    private DiskCacheManager(Context context) {
+        this.root = context.getApplicationContext().getCacheDir();
+        for (Partition p : Partition.values()) stats.put(p, new Stats());
+        refreshBudgets(true);
+        trimmer.execute(this::dropLegacyThumbs);
+        scheduleTrim();   // measures real usage for the budget
+    }
+
+    public static DiskCacheManager get(Context context) {
+        if (INSTANCE == null) {
+            synchronized (DiskCacheManager.class) {
+                if (INSTANCE == null)
+                    INSTANCE = new DiskCacheManager(context);
+            }
+        }
+        return INSTANCE;
+    }
+
+    /* ================= Public API ================= */
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    public File dir(@NonNull Partition p) {
+        File d = new File(root, p.dirName);
+        if (!d.exists()) d.mkdirs();
+        return d;
+    }
+
+    public synchronized long budget(@NonNull Partition p) {
+        refreshBudgets(false);
+        return budgets.get(p);
+    }
+
+    public synchronized void register(@NonNull Partition p, @NonNull Evictable e) {
+        evictables.put(p, e);
+        e.onBudgetChanged(budgets.get(p));
+    }
+
+    /**
+     * Journal-backed LRU index for a file-backed partition, created on first
+     * request and used for its trimming from then on (no directory scans).
+     */
+    public synchronized DiskLruIndex index(@NonNull Partition p) {
+        DiskLruIndex idx = indexes.get(p);
+        if (idx == null) {
+            idx = new DiskLruIndex(dir(p));
+            indexes.put(p, idx);
+            evictables.put(p, idx);
+        }
+        return idx;
+    }
+
+    /** Call after writing into a file-backed partition; trims in the background. */
+    public void onWrite(@NonNull Partition p, @NonNull File written) {
+        stats.get(p).bytesWritten.addAndGet(written.length());
+        scheduleTrim();
+    }
+
+    public void recordHit(@NonNull Partition p, long bytesServed) {
+        Stats s = stats.get(p);
+        s.hits.incrementAndGet();
+        s.bytesServed.addAndGet(Math.max(0, bytesServed));
+    }
+
+    public void recordMiss(@NonNull Partition p) {
+        stats.get(p).misses.incrementAndGet();
+    }
+
+    /** Called when the whole cacheDir is wiped (session clear). */
+    public void onCleared() {
+        for (Stats s : stats.values()) s.reset();
+        synchronized (this) {
+            for (DiskLruIndex idx : indexes.values()) idx.reset();
+        }
+    }
+
+    /* ================= Stats ================= */
+
+    public static final class Stats {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong bytesServed = new AtomicLong();
+        final AtomicLong bytesWritten = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+        final AtomicLong evictedBytes = new AtomicLong();
+
+        public float hitRate() {
+            long h = hits.get(), total = h + misses.get();
+            return total == 0 ? 0f : (float) h / total;
+        }
+
+        void reset() {
+            hits.set(0);
+            misses.set(0);
+            bytesServed.set(0);
+            bytesWritten.set(0);
+            evictions.set(0);
+            evictedBytes.set(0);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "hitRate=" + Math.round(hitRate() * 100) + "%"
+                    + " hits=" + hits.get()
+                    + " misses=" + misses.get()
+                    + " servedKB=" + bytesServed.get() / 1024
+                    + " writtenKB=" + bytesWritten.get() / 1024
+                    + " evictions=" + evictions.get()
+                    + " evictedKB=" + evictedBytes.get() / 1024;
+        }
+    }
+
+    public Stats stats(@NonNull Partition p) {
+        return stats.get(p);
+    }
+
+    /** Logs usage, budget and stats per partition (sizes are read in the background). */
+    public void logStats() {
+        trimmer.execute(() -> {
+            for (Partition p : Partition.values())
+                Log.d(TAG, p + " used=" + usedBytes(p) / 1024 + "KB budget=" + budget(p) / 1024 + "KB " + stats.get(p));
+        });
+    }
+
+    /* ================= Trimming ================= */
+
+    private void scheduleTrim() {
+        if (!trimQueued.compareAndSet(false, true)) return;
+        trimmer.execute(() -> {
+            trimQueued.set(false);
+            trimAll();
+        });
+    }
+
+    private void trimAll() {
+        long total = 0;
+        Map<Partition, Long> used = new EnumMap<>(Partition.class);
+
+        // measured outside the lock: directory listings and index loads
+        for (Partition p : Partition.values()) {
+            long u = usedBytes(p);
+            used.put(p, u);
+            total += u;
+        }
+        synchronized (this) {
+            heldBytes = total;
+            if (!heldMeasured) {
+                heldMeasured = true;
+                refreshBudgets(true);
+            }
+        }
+
+        // each partition within its own budget first
+        for (Partition p : Partition.values()) {
+            long u = used.get(p);
+            long b = budget(p);
+            if (u <= b) continue;
+            long freed = evict(p, u - b);
+            used.put(p, u - freed);
+            total -= freed;
+        }
+
+        // then, if storage shrank under us, lean on whoever is furthest over its share
+        long limit;
+        synchronized (this) {
+            limit = totalBudget;
+        }
+        while (total > limit) {
+            Partition worst = null;
+            float worstRatio = 0f;
+            for (Partition p : Partition.values()) {
+                float ratio = used.get(p) / (float) Math.max(1, limit * p.share);
+                if (ratio > worstRatio) {
+                    worstRatio = ratio;
+                    worst = p;
+                }
+            }
+            if (worst == null) break;
+
+            long freed = evict(worst, total - limit);
+            if (freed <= 0) break;
+            used.put(worst, used.get(worst) - freed);
+            total -= freed;
+        }
+    }
+
+    private long evict(Partition p, long bytes) {
+        Evictable e;
+        synchronized (this) {
+            e = evictables.get(p);
+        }
+        long freed = e != null ? e.evict(bytes) : evictOldestFiles(dir(p), bytes);
+        if (freed > 0) {
+            Stats s = stats.get(p);
+            s.evictedBytes.addAndGet(freed);
+            s.evictions.incrementAndGet();
+            Log.d(TAG, "evicted " + freed / 1024 + "KB from " + p);
+        }
+        return freed;
+    }
+
+    private long usedBytes(Partition p) {
+        Evictable e;
+        synchronized (this) {
+            e = evictables.get(p);
+        }
+        if (e != null) return e.usedBytes();
+
+        File[] files = dir(p).listFiles(File::isFile);
+        if (files == null) return 0;
+        long total = 0;
+        for (File f : files) total += f.length();
+        return total;
+    }
+
+    private static long evictOldestFiles(File dir, long bytes) {
+        // a .part file is still being written by its owner
+        File[] files = dir.listFiles(f -> f.isFile() && !f.getName().endsWith(DiskLruIndex.PARTIAL_SUFFIX));
+        if (files == null) return 0;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+
+        long freed = 0;
+        for (File f : files) {
+            if (freed >= bytes) break;
+            long len = f.length();
+            if (f.delete()) freed += len;
+        }
+        return freed;
+    }
+
+    /* ================= Budgets ================= */
+
+    private void refreshBudgets(boolean force) {
+        long now = SystemClock.elapsedRealtime();
+        if (!force && now - budgetsAt < BUDGET_REFRESH_MS) return;
+        budgetsAt = now;
+
+        long free;
+        try {
+            free = new StatFs(root.getAbsolutePath()).getAvailableBytes();
+        } catch (IllegalArgumentException e) {
+            free = 0;
+        }
+
+        // space our partitions already occupy counts as available to us,
+        // otherwise a full cache would shrink its own budget
+        totalBudget = clamp((long) ((free + heldBytes) * FREE_FRACTION), MIN_TOTAL, MAX_TOTAL);
+        for (Partition p : Partition.values()) {
+            long b = clamp((long) (totalBudget * p.share), p.minBytes, p.maxBytes);
+            Long old = budgets.put(p, b);
+            Evictable e = evictables.get(p);
+            if (e != null && old != null && old != b) e.onBudgetChanged(b);
+        }
+    }
+
+    private static long clamp(long v, long lo, long hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private void dropLegacyThumbs() {
+        File[] legacy = root.listFiles((d, n) -> n.startsWith(LEGACY_THUMB_PREFIX));
+        if (legacy == null) return;
+        for (File f : legacy) f.delete();
+    }
+}
@@ -0,0 +1,247 @@
+package com.github.jaykkumar01.vaultspace.core.session.cache;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory LRU index over the files of one cache directory, persisted as
+ * an append-only journal.
+ *
+ * Guarantees:
+ * - O(1) lookup / touch / insert; eviction is O(evicted entries)
+ * - Loaded lazily on first use: journal replay, or one directory scan if
+ *   there is no journal yet
+ * - Journal is compacted once it grows well past the live entry count
+ * - Touches are buffered (losing some on a crash only blurs LRU order)
+ */
+public final class DiskLruIndex implements DiskCacheManager.Evictable {
+
+    private static final String TAG = "VaultSpace:DiskLru";
+
+    /** Suffix for files still being written; never indexed. */
+    public static final String PARTIAL_SUFFIX = ".part";
+
+    private static final String JOURNAL = "journal";
+    private static final String JOURNAL_TMP = "journal.tmp";
+    private static final String PUT = "PUT";
+    private static final String DEL = "DEL";
+    private static final String HIT = "HIT";
+
+    private static final int MIN_COMPACT_OPS = 1000;
+
+    private final File dir;
+
+    /* name -> size, least recently used first */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private boolean loaded;
+    private long totalBytes;
+    private int journalOps;
+    private Writer journal;
+
+    DiskLruIndex(@NonNull File dir) {
+        this.dir = dir;
+    }
+
+    /* ================= Public API ================= */
+
+    /** The cached file for {@code name}, touched as most recent; null on a miss. */
+    @Nullable
+    public synchronized File get(@NonNull String name) {
+        ensureLoaded();
+        if (!entries.containsKey(name)) return null;
+
+        File f = new File(dir, name);
+        if (!f.exists()) {
+            // wiped behind our back (cache clear, OS trim)
+            remove(name);
+            return null;
+        }
+        entries.get(name);   // access order: move to most recent
+        append(HIT, name, -1, false);
+        return f;
+    }
+
+    /** Records a file that was just written into the directory. */
+    public synchronized void put(@NonNull String name, long size) {
+        ensureLoaded();
+        Long old = entries.put(name, size);
+        totalBytes += size - (old != null ? old : 0);
+        append(PUT, name, size, true);
+    }
+
+    public synchronized void remove(@NonNull String name) {
+        ensureLoaded();
+        Long old = entries.remove(name);
+        if (old == null) return;
+        totalBytes -= old;
+        append(DEL, name, -1, true);
+    }
+
+    /** Forgets everything; the directory was wiped. */
+    public synchronized void reset() {
+        closeJournal();
+        entries.clear();
+        totalBytes = 0;
+        journalOps = 0;
+        loaded = false;
+    }
+
+    /* ================= Evictable ================= */
+
+    @Override
+    public synchronized long usedBytes() {
+        ensureLoaded();
+        return totalBytes;
+    }
+
+    @Override
+    public synchronized long evict(long bytes) {
+        ensureLoaded();
+        long freed = 0;
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (freed < bytes && it.hasNext()) {
+            Map.Entry<String, Long> e = it.next();
+            String name = e.getKey();
+            long size = e.getValue();
+            // out of the map before the DEL: an append may compact, and a
+            // snapshot that still held the entry would write it back as a PUT
+            it.remove();
+            //noinspection ResultOfMethodCallIgnored
+            new File(dir, name).delete();
+            freed += size;
+            totalBytes -= size;
+            append(DEL, name, -1, false);
+        }
+        flushJournal();
+        return freed;
+    }
+
+    /* ================= Loading ================= */
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        File file = new File(dir, JOURNAL);
+        if (!file.exists() || !replay(file)) {
+            entries.clear();
+            totalBytes = 0;
+            scanDirectory();
+        }
+        compact();
+    }
+
+    private boolean replay(File file) {
+        int ops = 0;
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                ops++;
+                String[] parts = line.split(" ", 3);
+                if (parts.length < 2) continue;   // torn last line
+                String name = parts[1];
+
+                switch (parts[0]) {
+                    case PUT -> {
+                        if (parts.length < 3) continue;
+                        long size = Long.parseLong(parts[2]);
+                        Long old = entries.put(name, size);
+                        totalBytes += size - (old != null ? old : 0);
+                    }
+                    case DEL -> {
+                        Long old = entries.remove(name);
+                        if (old != null) totalBytes -= old;
+                    }
+                    case HIT -> entries.get(name);
+                    default -> { }
+                }
+            }
+            Log.d(TAG, "replayed " + ops + " ops, " + entries.size() + " entries in " + dir.getName());
+            return true;
+        } catch (IOException | NumberFormatException e) {
+            Log.w(TAG, "journal unreadable in " + dir.getName() + ", rescanning", e);
+            return false;
+        }
+    }
+
+    private void scanDirectory() {
+        File[] files = dir.listFiles(f -> f.isFile()
+                && !f.getName().startsWith(JOURNAL)
+                && !f.getName().endsWith(PARTIAL_SUFFIX));
+        if (files == null) return;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File f : files) {
+            entries.put(f.getName(), f.length());
+            totalBytes += f.length();
+        }
+        Log.d(TAG, "scanned " + files.length + " files in " + dir.getName());
+    }
+
+    /* ================= Journal ================= */
+
+    private void append(String op, String name, long size, boolean flush) {
+        try {
+            if (journal == null) journal = new BufferedWriter(new FileWriter(new File(dir, JOURNAL), true));
+            journal.write(size >= 0 ? op + " " + name + " " + size + "\n" : op + " " + name + "\n");
+            if (flush) journal.flush();
+        } catch (IOException e) {
+            Log.w(TAG, "journal write failed", e);
+            closeJournal();
+        }
+
+        if (++journalOps > Math.max(MIN_COMPACT_OPS, entries.size() * 2)) compact();
+    }
+
+    /** Rewrites the journal as one PUT per live entry, in LRU order. */
+    private void compact() {
+        closeJournal();
+        File tmp = new File(dir, JOURNAL_TMP);
+        List<Map.Entry<String, Long>> snapshot = new ArrayList<>(entries.entrySet());
+
+        try (Writer out = new BufferedWriter(new FileWriter(tmp, false))) {
+            for (Map.Entry<String, Long> e : snapshot)
+                out.write(PUT + " " + e.getKey() + " " + e.getValue() + "\n");
+        } catch (IOException e) {
+            Log.w(TAG, "journal compaction failed", e);
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return;
+        }
+
+        if (tmp.renameTo(new File(dir, JOURNAL))) journalOps = snapshot.size();
+    }
+
+    private void flushJournal() {
+        try {
+            if (journal != null) journal.flush();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException ignored) {
+        }
+        journal = null;
+    }
+}
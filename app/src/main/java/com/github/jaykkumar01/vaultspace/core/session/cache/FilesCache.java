@@ -47,6 +47,14 @@ public final class FilesCache extends VaultCache {
         return id == null ? null : parentMap.get(id);
     }
 
+    public FileNode getNode(String id) {
+        String parent = getParent(id);
+        List<FileNode> siblings = parent == null ? null : childrenMap.get(parent);
+        if (siblings == null) return null;
+        int index = indexOf(siblings, id);
+        return index == -1 ? null : siblings.get(index);
+    }
+
     /* ================= Sorted Insert ================= */
 
     private int compare(FileNode a, FileNode b) {
@@ -66,11 +74,12 @@ public final class FilesCache extends VaultCache {
 
     /* ================= Mutations ================= */
 
-    public void addNode(String parentId, FileNode node) {
-        if (parentId == null || node == null) return;
+    /** Returns false if a sibling already has the name. */
+    public boolean addNode(String parentId, FileNode node) {
+        if (parentId == null || node == null) return false;
 
         // 🚫 Prevent duplicate
-        if (existsWithSameName(parentId, node.name)) return;
+        if (existsWithSameName(parentId, node.name)) return false;
 
         parentMap.put(node.id, parentId);
 
@@ -78,6 +87,7 @@ public final class FilesCache extends VaultCache {
         insertSorted(siblings, node);
 
         if (node.isFolder) childrenMap.putIfAbsent(node.id, new ArrayList<>());
+        return true;
     }
 
     public void replaceNode(String id, FileNode updated) {
@@ -115,6 +125,14 @@ public final class FilesCache extends VaultCache {
         loadedFolders.add(parentId);
     }
 
+    /**
+     * Keeps contents but marks every folder unloaded, so each is
+     * listed again on next open. Used when change sync lost its token.
+     */
+    public void markAllStale() {
+        loadedFolders.clear();
+    }
+
     /* ================= Optimized Delete ================= */
 
     public void deleteNode(String rootId) {
@@ -0,0 +1,235 @@
+package com.github.jaykkumar01.vaultspace.core.session.cache;
+
+import androidx.annotation.NonNull;
+
+import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Album media ordered newest first, keyed by (momentMillis desc, fileId).
+ *
+ * Persistent AVL tree with subtree sizes: every mutation copies only the
+ * O(log n) nodes on its path, so a snapshot is just the current root.
+ *
+ * Guarantees:
+ * - O(log n) insert / remove / positional get / rank
+ * - O(1) immutable snapshots, unaffected by later mutations
+ * - O(n) bulk build from sorted input
+ *
+ * Not thread-safe for writers; snapshots may be read from any thread.
+ */
+final class OrderedMediaIndex {
+
+    /* ================= Nodes (immutable) ================= */
+
+    private static final class Node {
+        final AlbumMedia media;
+        final Node left, right;
+        final int height, size;
+
+        Node(AlbumMedia media, Node left, Node right) {
+            this.media = media;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    private Node root;
+
+    /* ================= Ordering ================= */
+
+    static int compare(AlbumMedia a, AlbumMedia b) {
+        int c = Long.compare(b.momentMillis, a.momentMillis);
+        return c != 0 ? c : a.fileId.compareTo(b.fileId);
+    }
+
+    /* ================= Public API ================= */
+
+    int size() {
+        return size(root);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /** Replaces the contents; {@code sorted} must be in index order without duplicates. */
+    void build(@NonNull List<AlbumMedia> sorted) {
+        root = build(sorted, 0, sorted.size());
+    }
+
+    /** Inserts, or replaces an entry with the same key. */
+    void insert(@NonNull AlbumMedia m) {
+        root = insert(root, m);
+    }
+
+    /** Removes the entry with {@code m}'s key, if present. */
+    void remove(@NonNull AlbumMedia m) {
+        root = remove(root, m);
+    }
+
+    AlbumMedia get(int position) {
+        return get(root, position);
+    }
+
+    /** Position of {@code m}'s key, or -1. */
+    int rank(@NonNull AlbumMedia m) {
+        Node n = root;
+        int before = 0;
+        while (n != null) {
+            int c = compare(m, n.media);
+            if (c < 0) n = n.left;
+            else if (c > 0) {
+                before += size(n.left) + 1;
+                n = n.right;
+            } else return before + size(n.left);
+        }
+        return -1;
+    }
+
+    @NonNull
+    Snapshot snapshot() {
+        return new Snapshot(root);
+    }
+
+    /* ================= Snapshot ================= */
+
+    /** Immutable ordered view; positional get is O(log n), iteration O(n). */
+    static final class Snapshot extends AbstractList<AlbumMedia> {
+        private final Node root;
+
+        private Snapshot(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        public AlbumMedia get(int index) {
+            if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("index " + index);
+            return OrderedMediaIndex.get(root, index);
+        }
+
+        @Override
+        public int size() {
+            return OrderedMediaIndex.size(root);
+        }
+
+        @NonNull
+        @Override
+        public Iterator<AlbumMedia> iterator() {
+            return new Iterator<>() {
+                private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+                {
+                    pushLeft(root);
+                }
+
+                private void pushLeft(Node n) {
+                    for (; n != null; n = n.left) stack.push(n);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return !stack.isEmpty();
+                }
+
+                @Override
+                public AlbumMedia next() {
+                    if (stack.isEmpty()) throw new NoSuchElementException();
+                    Node n = stack.pop();
+                    pushLeft(n.right);
+                    return n.media;
+                }
+            };
+        }
+    }
+
+    /* ================= Tree ops ================= */
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static Node build(List<AlbumMedia> sorted, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node(sorted.get(mid), build(sorted, from, mid), build(sorted, mid + 1, to));
+    }
+
+    private static AlbumMedia get(Node n, int position) {
+        while (n != null) {
+            int left = size(n.left);
+            if (position < left) n = n.left;
+            else if (position > left) {
+                position -= left + 1;
+                n = n.right;
+            } else return n.media;
+        }
+        throw new IndexOutOfBoundsException("position " + position);
+    }
+
+    private static Node insert(Node n, AlbumMedia m) {
+        if (n == null) return new Node(m, null, null);
+        int c = compare(m, n.media);
+        if (c < 0) return balance(n.media, insert(n.left, m), n.right);
+        if (c > 0) return balance(n.media, n.left, insert(n.right, m));
+        return new Node(m, n.left, n.right);
+    }
+
+    private static Node remove(Node n, AlbumMedia m) {
+        if (n == null) return null;
+        int c = compare(m, n.media);
+        if (c < 0) {
+            Node l = remove(n.left, m);
+            return l == n.left ? n : balance(n.media, l, n.right);
+        }
+        if (c > 0) {
+            Node r = remove(n.right, m);
+            return r == n.right ? n : balance(n.media, n.left, r);
+        }
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+
+        Node min = n.right;
+        while (min.left != null) min = min.left;
+        return balance(min.media, n.left, removeMin(n.right));
+    }
+
+    private static Node removeMin(Node n) {
+        if (n.left == null) return n.right;
+        return balance(n.media, removeMin(n.left), n.right);
+    }
+
+    private static Node balance(AlbumMedia m, Node l, Node r) {
+        int diff = height(l) - height(r);
+        if (diff > 1) {
+            if (height(l.left) < height(l.right)) l = rotateLeft(l.media, l.left, l.right);
+            return rotateRight(m, l, r);
+        }
+        if (diff < -1) {
+            if (height(r.right) < height(r.left)) r = rotateRight(r.media, r.left, r.right);
+            return rotateLeft(m, l, r);
+        }
+        return new Node(m, l, r);
+    }
+
+    /** (l.left, l.media, (l.right, m, r)) */
+    private static Node rotateRight(AlbumMedia m, Node l, Node r) {
+        return new Node(l.media, l.left, new Node(m, l.right, r));
+    }
+
+    /** ((l, m, r.left), r.media, r.right) */
+    private static Node rotateLeft(AlbumMedia m, Node l, Node r) {
+        return new Node(r.media, new Node(m, l, r.left), r.right);
+    }
+}
@@ -2,8 +2,11 @@ package com.github.jaykkumar01.vaultspace.core.session.db;
 
 import android.content.Context;
 
+import com.github.jaykkumar01.vaultspace.core.session.ContentHashStore;
+import com.github.jaykkumar01.vaultspace.core.session.DownloadPartialStore;
 import com.github.jaykkumar01.vaultspace.core.session.SetupIgnoreStore;
 import com.github.jaykkumar01.vaultspace.core.session.UploadRetryStore;
+import com.github.jaykkumar01.vaultspace.core.session.UploadSessionStore;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -34,6 +37,15 @@ public final class SessionStoreRegistry {
         if (cls == SetupIgnoreStore.class)
             return new SetupIgnoreStore(appContext);
 
+        if (cls == UploadSessionStore.class)
+            return new UploadSessionStore(appContext);
+
+        if (cls == ContentHashStore.class)
+            return new ContentHashStore(appContext);
+
+        if (cls == DownloadPartialStore.class)
+            return new DownloadPartialStore(appContext);
+
         throw new IllegalArgumentException("Unknown SessionStore: " + cls);
     }
 
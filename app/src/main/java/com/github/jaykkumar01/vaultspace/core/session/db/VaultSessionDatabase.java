@@ -2,10 +2,19 @@ package com.github.jaykkumar01.vaultspace.core.session.db;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import com.github.jaykkumar01.vaultspace.core.session.db.dedup.VaultedContentDao;
+import com.github.jaykkumar01.vaultspace.core.session.db.download.DownloadPartialDao;
+import com.github.jaykkumar01.vaultspace.core.session.db.download.DownloadPartialEntity;
+import com.github.jaykkumar01.vaultspace.core.session.db.dedup.VaultedContentEntity;
+import com.github.jaykkumar01.vaultspace.core.session.db.resume.UploadSessionDao;
+import com.github.jaykkumar01.vaultspace.core.session.db.resume.UploadSessionEntity;
 import com.github.jaykkumar01.vaultspace.core.session.db.retry.UploadRetryDao;
 import com.github.jaykkumar01.vaultspace.core.session.db.retry.UploadRetryEntity;
 import com.github.jaykkumar01.vaultspace.core.session.db.setup.SetupIgnoreDao;
@@ -14,9 +23,12 @@ import com.github.jaykkumar01.vaultspace.core.session.db.setup.SetupIgnoreEntity
 @Database(
         entities = {
                 UploadRetryEntity.class,
-                SetupIgnoreEntity.class
+                SetupIgnoreEntity.class,
+                UploadSessionEntity.class,
+                VaultedContentEntity.class,
+                DownloadPartialEntity.class
         },
-        version = 1,
+        version = 4,
         exportSchema = false
 )
 public abstract class VaultSessionDatabase extends RoomDatabase {
@@ -25,6 +37,70 @@ public abstract class VaultSessionDatabase extends RoomDatabase {
 
     public abstract UploadRetryDao uploadRetryDao();
     public abstract SetupIgnoreDao setupIgnoreDao();
+    public abstract UploadSessionDao uploadSessionDao();
+    public abstract VaultedContentDao vaultedContentDao();
+    public abstract DownloadPartialDao downloadPartialDao();
+
+    /* ================= Migrations ================= */
+
+    private static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("""
+                    CREATE TABLE IF NOT EXISTS `upload_session` (
+                        `id` TEXT NOT NULL,
+                        `groupId` TEXT NOT NULL,
+                        `accountEmail` TEXT NOT NULL,
+                        `sessionUri` TEXT NOT NULL,
+                        `committedBytes` INTEGER NOT NULL,
+                        `sizeBytes` INTEGER NOT NULL,
+                        `thumbFileId` TEXT,
+                        `createdAt` INTEGER NOT NULL,
+                        PRIMARY KEY(`id`)
+                    )
+                    """);
+        }
+    };
+
+    private static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("""
+                    CREATE TABLE IF NOT EXISTS `vaulted_content` (
+                        `sourceKey` TEXT NOT NULL,
+                        `groupId` TEXT NOT NULL,
+                        `sha256` TEXT NOT NULL,
+                        `fileId` TEXT NOT NULL,
+                        `sizeBytes` INTEGER NOT NULL,
+                        `createdAt` INTEGER NOT NULL,
+                        PRIMARY KEY(`sourceKey`, `groupId`)
+                    )
+                    """);
+            db.execSQL("""
+                    CREATE INDEX IF NOT EXISTS `index_vaulted_content_sha256_groupId`
+                    ON `vaulted_content` (`sha256`, `groupId`)
+                    """);
+        }
+    };
+
+    private static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("""
+                    CREATE TABLE IF NOT EXISTS `download_partial` (
+                        `fileId` TEXT NOT NULL,
+                        `name` TEXT NOT NULL,
+                        `targetUri` TEXT NOT NULL,
+                        `sizeBytes` INTEGER NOT NULL,
+                        `remoteVersion` TEXT,
+                        `segments` TEXT NOT NULL,
+                        `committedBytes` INTEGER NOT NULL,
+                        `updatedAt` INTEGER NOT NULL,
+                        PRIMARY KEY(`fileId`)
+                    )
+                    """);
+        }
+    };
 
     public static VaultSessionDatabase get(Context context) {
         if (INSTANCE == null) {
@@ -34,7 +110,7 @@ public abstract class VaultSessionDatabase extends RoomDatabase {
                             context.getApplicationContext(),
                             VaultSessionDatabase.class,
                             "vault_session.db"
-                    ).build();
+                    ).addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4).build();
                 }
             }
         }
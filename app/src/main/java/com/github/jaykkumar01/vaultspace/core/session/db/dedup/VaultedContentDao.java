@@ -0,0 +1,35 @@
+package com.github.jaykkumar01.vaultspace.core.session.db.dedup;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface VaultedContentDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(VaultedContentEntity entity);
+
+    @Query("""
+            SELECT * FROM vaulted_content
+            WHERE sourceKey = :sourceKey AND groupId = :groupId
+           """)
+    VaultedContentEntity get(String sourceKey, String groupId);
+
+    @Query("""
+            SELECT * FROM vaulted_content
+            WHERE sha256 = :sha256 AND groupId = :groupId
+            LIMIT 1
+           """)
+    VaultedContentEntity getByHash(String sha256, String groupId);
+
+    @Query("""
+            DELETE FROM vaulted_content
+            WHERE fileId = :fileId
+           """)
+    void deleteByFileId(String fileId);
+
+    @Query("DELETE FROM vaulted_content")
+    void deleteAll();
+}
@@ -0,0 +1,37 @@
+package com.github.jaykkumar01.vaultspace.core.session.db.dedup;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+@Entity(
+        tableName = "vaulted_content",
+        primaryKeys = { "sourceKey", "groupId" },
+        indices = { @Index(value = { "sha256", "groupId" }) }
+)
+public final class VaultedContentEntity {
+
+    @NonNull public final String sourceKey;   // uri|size|moment of the local source
+    @NonNull public final String groupId;     // album folder id
+
+    @NonNull public final String sha256;      // hash of the uploaded bytes
+    @NonNull public final String fileId;      // Drive file holding those bytes
+    public final long sizeBytes;
+    public final long createdAt;
+
+    public VaultedContentEntity(
+            @NonNull String sourceKey,
+            @NonNull String groupId,
+            @NonNull String sha256,
+            @NonNull String fileId,
+            long sizeBytes,
+            long createdAt
+    ) {
+        this.sourceKey = sourceKey;
+        this.groupId = groupId;
+        this.sha256 = sha256;
+        this.fileId = fileId;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+    }
+}
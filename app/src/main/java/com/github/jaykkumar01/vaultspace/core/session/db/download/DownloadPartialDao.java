@@ -0,0 +1,40 @@
+package com.github.jaykkumar01.vaultspace.core.session.db.download;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface DownloadPartialDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(DownloadPartialEntity entity);
+
+    @Query("""
+            SELECT * FROM download_partial
+            WHERE fileId = :fileId
+           """)
+    DownloadPartialEntity getById(String fileId);
+
+    @Query("SELECT * FROM download_partial")
+    List<DownloadPartialEntity> getAll();
+
+    @Query("""
+        UPDATE download_partial
+        SET segments = :segments, committedBytes = :committedBytes, updatedAt = :updatedAt
+        WHERE fileId = :fileId
+       """)
+    void updateProgress(String fileId, String segments, long committedBytes, long updatedAt);
+
+    @Query("""
+            DELETE FROM download_partial
+            WHERE fileId = :fileId
+           """)
+    void deleteById(String fileId);
+
+    @Query("DELETE FROM download_partial")
+    void deleteAll();
+}
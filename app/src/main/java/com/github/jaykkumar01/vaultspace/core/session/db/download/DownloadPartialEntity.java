@@ -0,0 +1,43 @@
+package com.github.jaykkumar01.vaultspace.core.session.db.download;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Entity;
+
+@Entity(
+        tableName = "download_partial",
+        primaryKeys = { "fileId" }
+)
+public final class DownloadPartialEntity {
+
+    @NonNull public final String fileId;
+    @NonNull public final String name;
+    @NonNull public final String targetUri;      // pending MediaStore row being written
+
+    public final long sizeBytes;                 // remote size when the download started
+    @Nullable public final String remoteVersion; // remote modifiedTime; a change invalidates the bytes
+
+    @NonNull public final String segments;       // "next-end,next-end" per range, end inclusive
+    public final long committedBytes;            // durable bytes across all ranges
+    public final long updatedAt;
+
+    public DownloadPartialEntity(
+            @NonNull String fileId,
+            @NonNull String name,
+            @NonNull String targetUri,
+            long sizeBytes,
+            @Nullable String remoteVersion,
+            @NonNull String segments,
+            long committedBytes,
+            long updatedAt
+    ) {
+        this.fileId = fileId;
+        this.name = name;
+        this.targetUri = targetUri;
+        this.sizeBytes = sizeBytes;
+        this.remoteVersion = remoteVersion;
+        this.segments = segments;
+        this.committedBytes = committedBytes;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.jaykkumar01.vaultspace.core.session.db.resume;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface UploadSessionDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(UploadSessionEntity entity);
+
+    @Query("""
+            SELECT * FROM upload_session
+            WHERE id = :id
+           """)
+    UploadSessionEntity getById(String id);
+
+    @Query("""
+        UPDATE upload_session
+        SET committedBytes = :committedBytes
+        WHERE id = :id
+       """)
+    void updateCommitted(String id, long committedBytes);
+
+    @Query("""
+            DELETE FROM upload_session
+            WHERE id = :id
+           """)
+    void deleteById(String id);
+
+    @Query("""
+            DELETE FROM upload_session
+            WHERE groupId = :groupId
+           """)
+    void deleteGroup(String groupId);
+
+    @Query("DELETE FROM upload_session")
+    void deleteAll();
+}
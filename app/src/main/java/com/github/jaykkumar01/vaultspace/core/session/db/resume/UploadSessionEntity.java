@@ -0,0 +1,43 @@
+package com.github.jaykkumar01.vaultspace.core.session.db.resume;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Entity;
+
+@Entity(
+        tableName = "upload_session",
+        primaryKeys = { "id" }
+)
+public final class UploadSessionEntity {
+
+    @NonNull public final String id;          // UploadSelection.id
+    @NonNull public final String groupId;
+    @NonNull public final String accountEmail;
+
+    @NonNull public final String sessionUri;  // Drive resumable session URL
+    public final long committedBytes;         // last server-acknowledged offset
+    public final long sizeBytes;
+
+    @Nullable public final String thumbFileId;
+    public final long createdAt;
+
+    public UploadSessionEntity(
+            @NonNull String id,
+            @NonNull String groupId,
+            @NonNull String accountEmail,
+            @NonNull String sessionUri,
+            long committedBytes,
+            long sizeBytes,
+            @Nullable String thumbFileId,
+            long createdAt
+    ) {
+        this.id = id;
+        this.groupId = groupId;
+        this.accountEmail = accountEmail;
+        this.sessionUri = sessionUri;
+        this.committedBytes = committedBytes;
+        this.sizeBytes = sizeBytes;
+        this.thumbFileId = thumbFileId;
+        this.createdAt = createdAt;
+    }
+}
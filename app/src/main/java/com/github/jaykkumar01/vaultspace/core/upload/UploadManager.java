@@ -70,7 +70,8 @@ public final class UploadManager implements UploadTask.Callback {
 
         snapshotReducer = new UploadSnapshotReducer(appContext, uploadCache, retryStore);
 
-        failureCoordinator = new UploadFailureCoordinator(appContext, uploadCache, retryStore);
+        failureCoordinator = new UploadFailureCoordinator(
+                appContext, uploadCache, retryStore, session.getUploadSessionStore());
         dispatcher = new UploadDispatcher(context);
     }
 
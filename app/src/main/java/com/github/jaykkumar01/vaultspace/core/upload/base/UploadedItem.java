@@ -22,6 +22,8 @@ public final class UploadedItem {
 
     @Nullable public final String thumbnailLink;
 
+    @Nullable public final String mp4Layout;   // "vs_mp4_layout", see Mp4LayoutAnalyzer
+
     public UploadedItem(
             @NonNull String fileId,
             @NonNull String name,
@@ -33,7 +35,8 @@ public final class UploadedItem {
             float aspectRatio,
             int rotation,
             long durationMillis,
-            @Nullable String thumbnailLink
+            @Nullable String thumbnailLink,
+            @Nullable String mp4Layout
     ) {
         this.fileId = fileId;
         this.name = name;
@@ -46,6 +49,7 @@ public final class UploadedItem {
         this.rotation = rotation;
         this.durationMillis = durationMillis;
         this.thumbnailLink = thumbnailLink;
+        this.mp4Layout = mp4Layout;
     }
 
     @NonNull
@@ -0,0 +1,80 @@
+package com.github.jaykkumar01.vaultspace.core.upload.drive;
+
+import android.os.SystemClock;
+
+import com.google.api.client.googleapis.media.MediaHttpUploader;
+
+/**
+ * Picks the resumable-upload chunk size from measured per-chunk throughput.
+ *
+ * Every chunk costs one round-trip, so the goal is chunks that take about
+ * {@link #TARGET_CHUNK_MS} on the wire: grow (at most 2x per chunk) while
+ * chunks finish quickly, halve as soon as one is slow. Sizes are always
+ * multiples of {@link MediaHttpUploader#MINIMUM_CHUNK_SIZE} within [floor, ceiling];
+ * the bounds are per instance, defaulting to {@link #DEFAULT_FLOOR} and
+ * {@link #DEFAULT_CEILING}.
+ *
+ * Not thread-safe; one instance per upload.
+ */
+final class AdaptiveChunkSizer {
+
+    private static final long TARGET_CHUNK_MS = 3000L;
+    private static final long SLOW_CHUNK_MS = 2 * TARGET_CHUNK_MS;
+    private static final double EWMA_ALPHA = 0.3;
+    private static final int UNIT = MediaHttpUploader.MINIMUM_CHUNK_SIZE;
+
+    static final int DEFAULT_FLOOR = UNIT;
+    // chunks are buffered in memory, and up to a dozen uploads run at once
+    static final int DEFAULT_CEILING = 32 * UNIT;
+    static final int DEFAULT_INITIAL = 4 * UNIT;
+
+    private final int floor;
+    private final int ceiling;
+
+    private int chunkSize;
+    private long lastBytes;
+    private long lastMs;
+    private double bytesPerMs;
+
+    AdaptiveChunkSizer(int floor, int ceiling, int initial) {
+        this.floor = Math.max(UNIT, floor / UNIT * UNIT);
+        this.ceiling = Math.max(this.floor, ceiling / UNIT * UNIT);
+        this.chunkSize = align(initial);
+    }
+
+    int current() {
+        return chunkSize;
+    }
+
+    /** Marks the start of the first chunk (session initiated). */
+    void start(long uploadedBytes) {
+        lastBytes = uploadedBytes;
+        lastMs = SystemClock.elapsedRealtime();
+    }
+
+    /** Called after each committed chunk; returns the size for the next one. */
+    int onChunkCommitted(long uploadedBytes) {
+        long now = SystemClock.elapsedRealtime();
+        long bytes = uploadedBytes - lastBytes;
+        long ms = Math.max(1L, now - lastMs);
+        lastBytes = uploadedBytes;
+        lastMs = now;
+
+        if (bytes <= 0) return chunkSize;
+
+        double rate = bytes / (double) ms;
+        bytesPerMs = bytesPerMs == 0 ? rate : EWMA_ALPHA * rate + (1 - EWMA_ALPHA) * bytesPerMs;
+
+        long next;
+        if (ms > SLOW_CHUNK_MS) next = chunkSize / 2;
+        else next = Math.min((long) (bytesPerMs * TARGET_CHUNK_MS), 2L * chunkSize);
+
+        chunkSize = align(next);
+        return chunkSize;
+    }
+
+    private int align(long size) {
+        long clamped = Math.max(floor, Math.min(ceiling, size));
+        return (int) (clamped / UNIT * UNIT);
+    }
+}
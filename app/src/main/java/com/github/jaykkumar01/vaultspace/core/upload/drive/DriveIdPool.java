@@ -0,0 +1,38 @@
+package com.github.jaykkumar01.vaultspace.core.upload.drive;
+
+import com.google.api.services.drive.Drive;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * File ids pre-allocated for one account with {@code files.generateIds}.
+ *
+ * One request covers {@code batchSize} uploads, and knowing the thumbnail's
+ * id up front lets the thumbnail and its media be created concurrently.
+ */
+final class DriveIdPool {
+
+    private final Drive drive;
+    private final int batchSize;
+    private final ArrayDeque<String> ids = new ArrayDeque<>();
+
+    DriveIdPool(Drive drive, int batchSize) {
+        this.drive = drive;
+        this.batchSize = batchSize;
+    }
+
+    synchronized String next() throws IOException {
+        if (ids.isEmpty()) {
+            List<String> fresh = drive.files().generateIds()
+                    .setCount(batchSize)
+                    .setSpace("drive")
+                    .execute()
+                    .getIds();
+            if (fresh == null || fresh.isEmpty()) throw new IOException("generateIds returned nothing");
+            ids.addAll(fresh);
+        }
+        return ids.poll();
+    }
+}
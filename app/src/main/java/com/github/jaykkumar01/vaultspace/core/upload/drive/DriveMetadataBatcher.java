@@ -0,0 +1,120 @@
+package com.github.jaykkumar01.vaultspace.core.upload.drive;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups metadata-only patches (appProperties) for one account into Drive
+ * batch requests. Batches cannot carry media, so uploads themselves stay
+ * separate; this covers the follow-up patches of a small-file burst.
+ *
+ * Guarantees:
+ * - A patch is sent with everything queued within {@code windowMs} of the
+ *   first one, at most MAX_BATCH per request (Drive's limit)
+ * - Patches to the same file merge; the latest value of a key wins
+ * - Fire-and-forget: failures are logged, callers never wait
+ */
+final class DriveMetadataBatcher {
+
+    private static final String TAG = "VaultSpace:MetaBatch";
+    private static final int MAX_BATCH = 100;
+
+    private final Drive drive;
+    private final long windowMs;
+    private final ScheduledExecutorService scheduler;
+
+    /* ================= State (guarded by this) ================= */
+
+    private LinkedHashMap<String, Map<String, String>> queued = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    private long patches;
+    private long requests;
+
+    DriveMetadataBatcher(Drive drive, long windowMs, ScheduledExecutorService scheduler) {
+        this.drive = drive;
+        this.windowMs = windowMs;
+        this.scheduler = scheduler;
+    }
+
+    /* ================= Public API ================= */
+
+    /** Queues an appProperties patch; a null-string value removes the key. */
+    void patchAppProperties(@NonNull String fileId, @NonNull Map<String, String> props) {
+        boolean full;
+        synchronized (this) {
+            queued.computeIfAbsent(fileId, k -> new HashMap<>()).putAll(props);
+            patches++;
+            full = queued.size() >= MAX_BATCH;
+            if (!full && !scheduled) {
+                scheduled = true;
+                scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full) scheduler.execute(this::flush);
+    }
+
+    /** Sends everything queued now. */
+    void flush() {
+        LinkedHashMap<String, Map<String, String>> batch;
+        synchronized (this) {
+            scheduled = false;
+            if (queued.isEmpty()) return;
+            batch = queued;
+            queued = new LinkedHashMap<>();
+        }
+
+        try {
+            if (batch.size() == 1) {
+                Map.Entry<String, Map<String, String>> e = batch.entrySet().iterator().next();
+                update(e.getKey(), e.getValue()).execute();   // a batch of one costs more than the call
+            } else {
+                BatchRequest request = drive.batch();
+                for (Map.Entry<String, Map<String, String>> e : batch.entrySet())
+                    update(e.getKey(), e.getValue()).queue(request, callback(e.getKey()));
+                request.execute();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "metadata batch failed files=" + batch.size(), e);
+        }
+
+        synchronized (this) {
+            requests++;
+            Log.d(TAG, "flushed files=" + batch.size() + " patches=" + patches + " requests=" + requests);
+        }
+    }
+
+    /* ================= Internal ================= */
+
+    private Drive.Files.Update update(String fileId, Map<String, String> props) throws IOException {
+        return drive.files().update(fileId, new File().setAppProperties(props)).setFields("id");
+    }
+
+    private static JsonBatchCallback<File> callback(String fileId) {
+        return new JsonBatchCallback<>() {
+            @Override
+            public void onSuccess(File f, HttpHeaders headers) {
+            }
+
+            @Override
+            public void onFailure(GoogleJsonError e, HttpHeaders headers) {
+                Log.w(TAG, "patch failed id=" + fileId + ": " + e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.jaykkumar01.vaultspace.core.upload.drive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes the sha256 of the bytes read through it, so an upload is hashed
+ * on the way out instead of in a separate pass over the file.
+ *
+ * skip() reads through instead of seeking, so resumed uploads still hash
+ * the prefix the server already has.
+ */
+final class HashingInputStream extends InputStream {
+
+    private static final int SKIP_BUFFER = 64 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final InputStream in;
+    private final MessageDigest digest;
+    private long count;
+
+    HashingInputStream(InputStream in) {
+        this.in = in;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b != -1) {
+            digest.update((byte) b);
+            count++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            digest.update(b, off, n);
+            count += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) return 0;
+        byte[] buf = new byte[(int) Math.min(n, SKIP_BUFFER)];
+        long left = n;
+        while (left > 0) {
+            int r = read(buf, 0, (int) Math.min(left, buf.length));
+            if (r == -1) break;
+            left -= r;
+        }
+        return n - left;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /** Hex sha256 if exactly {@code expected} bytes went through, else null. */
+    String hexIfComplete(long expected) {
+        if (count != expected) return null;
+        byte[] d = digest.digest();
+        char[] out = new char[d.length * 2];
+        for (int i = 0; i < d.length; i++) {
+            out[i * 2] = HEX[(d[i] >> 4) & 0xF];
+            out[i * 2 + 1] = HEX[d[i] & 0xF];
+        }
+        return new String(out);
+    }
+}
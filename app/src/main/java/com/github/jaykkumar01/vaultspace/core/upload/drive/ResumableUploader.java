@@ -0,0 +1,184 @@
+package com.github.jaykkumar01.vaultspace.core.upload.drive;
+
+import androidx.annotation.Nullable;
+
+import com.github.jaykkumar01.vaultspace.core.upload.base.ProgressCallback;
+import com.github.jaykkumar01.vaultspace.core.upload.helper.CancelToken;
+import com.google.api.client.http.ByteArrayContent;
+import com.google.api.client.http.EmptyContent;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Drive resumable upload protocol, driven directly so the session URI and
+ * the committed offset can be persisted and resumed after a restart
+ * (MediaHttpUploader exposes neither).
+ */
+final class ResumableUploader {
+
+    private static final int HTTP_RESUME_INCOMPLETE = 308;
+
+    interface SessionListener {
+        void onCommitted(long committedBytes);
+    }
+
+    /** Server view of a session: committed bytes, or the finished file. */
+    record Status(long committed, @Nullable File file) {
+    }
+
+    private final Drive drive;
+    private final String fields;
+
+    ResumableUploader(Drive drive, String fields) {
+        this.drive = drive;
+        this.fields = fields;
+    }
+
+    /* ================= Initiate ================= */
+
+    String initiate(File meta, String mime, long length) throws IOException {
+        GenericUrl url = new GenericUrl(drive.getRootUrl() + "upload/" + drive.getServicePath() + "files");
+        url.put("uploadType", "resumable");
+        url.put("fields", fields);
+
+        HttpRequest req = newRequest("POST", url, new JsonHttpContent(drive.getJsonFactory(), meta));
+        req.getHeaders().set("X-Upload-Content-Type", mime);
+        req.getHeaders().set("X-Upload-Content-Length", length);
+
+        HttpResponse res = req.execute();
+        try {
+            if (!res.isSuccessStatusCode()) throw new HttpResponseException(res);
+            String location = res.getHeaders().getLocation();
+            if (location == null) throw new IOException("Resumable session without Location");
+            return location;
+        } finally {
+            res.disconnect();
+        }
+    }
+
+    /* ================= Query ================= */
+
+    /** Returns null when the session no longer exists on the server. */
+    @Nullable
+    Status query(String sessionUri, long length) throws IOException {
+        HttpRequest req = newRequest("PUT", new GenericUrl(sessionUri), new EmptyContent());
+        req.getHeaders().setContentRange("bytes */" + length);
+
+        HttpResponse res = req.execute();
+        try {
+            int code = res.getStatusCode();
+            if (code == 404 || code == 410) return null;
+            if (code == HTTP_RESUME_INCOMPLETE) return new Status(committedFrom(res), null);
+            if (res.isSuccessStatusCode()) return new Status(length, res.parseAs(File.class));
+            throw new HttpResponseException(res);
+        } finally {
+            res.disconnect();
+        }
+    }
+
+    /* ================= Upload ================= */
+
+    /**
+     * Streams {@code in} (already positioned at {@code offset}) in chunks
+     * sized by {@code sizer}. Bytes the server did not acknowledge are
+     * re-sent from the local buffer. Progress is reported at
+     * {@code offset} first, then after every committed chunk.
+     */
+    File upload(
+            String sessionUri,
+            InputStream in,
+            String mime,
+            long length,
+            long offset,
+            AdaptiveChunkSizer sizer,
+            ProgressCallback cb,
+            SessionListener listener,
+            CancelToken token
+    ) throws IOException {
+
+        byte[] buf = new byte[sizer.current()];
+        int buffered = 0;
+        long committed = offset;
+
+        sizer.start(committed);
+        cb.onProgress(committed, length);   // where this attempt starts, before any bytes move
+
+        while (true) {
+            if (token.isCancelled()) throw new CancellationException();
+
+            int chunk = (int) Math.min(sizer.current(), length - committed);
+            if (buf.length < chunk) {
+                byte[] grown = new byte[chunk];
+                System.arraycopy(buf, 0, grown, 0, buffered);
+                buf = grown;
+            }
+            while (buffered < chunk) {
+                int r = in.read(buf, buffered, chunk - buffered);
+                if (r == -1) break;
+                buffered += r;
+            }
+            if (buffered < chunk)
+                throw new IOException("Stream ended at " + (committed + buffered) + " of " + length);
+
+            long end = committed + chunk - 1;
+            HttpContent content = new ByteArrayContent(mime, buf, 0, chunk);
+            HttpRequest req = newRequest("PUT", new GenericUrl(sessionUri), content);
+            req.getHeaders().setContentRange("bytes " + committed + "-" + end + "/" + length);
+
+            HttpResponse res = req.execute();
+            try {
+                int code = res.getStatusCode();
+                if (res.isSuccessStatusCode()) {
+                    cb.onProgress(length, length);
+                    return res.parseAs(File.class);
+                }
+                if (code != HTTP_RESUME_INCOMPLETE) throw new HttpResponseException(res);
+
+                long acked = committedFrom(res);
+                int consumed = (int) Math.max(0L, Math.min(acked - committed, chunk));
+                System.arraycopy(buf, consumed, buf, 0, buffered - consumed);
+                buffered -= consumed;
+                committed += consumed;
+            } finally {
+                res.disconnect();
+            }
+
+            sizer.onChunkCommitted(committed);
+            listener.onCommitted(committed);
+            cb.onProgress(committed, length);
+        }
+    }
+
+    /* ================= Internal ================= */
+
+    private HttpRequest newRequest(String method, GenericUrl url, HttpContent content) throws IOException {
+        HttpRequest req = drive.getRequestFactory().buildRequest(method, url, content);
+        req.setParser(drive.getObjectParser());
+        req.setThrowExceptionOnExecuteError(false);
+        req.setFollowRedirects(false);
+        return req;
+    }
+
+    /** Parses "Range: bytes=0-N"; no header means nothing was stored yet. */
+    private static long committedFrom(HttpResponse res) {
+        String range = res.getHeaders().getRange();
+        if (range == null) return 0L;
+        int dash = range.indexOf('-');
+        if (dash < 0) return 0L;
+        try {
+            return Long.parseLong(range.substring(dash + 1).trim()) + 1;
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
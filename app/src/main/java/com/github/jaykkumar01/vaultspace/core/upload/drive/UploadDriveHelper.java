@@ -10,15 +10,22 @@ import androidx.annotation.NonNull;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveClientProvider;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveFolderRepository;
 import com.github.jaykkumar01.vaultspace.core.drive.TrustedAccountsRepository;
+import com.github.jaykkumar01.vaultspace.core.session.ContentHashStore;
+import com.github.jaykkumar01.vaultspace.core.session.UploadSessionStore;
+import com.github.jaykkumar01.vaultspace.core.session.UserSession;
+import com.github.jaykkumar01.vaultspace.core.session.db.dedup.VaultedContentEntity;
+import com.github.jaykkumar01.vaultspace.core.session.db.resume.UploadSessionEntity;
 import com.github.jaykkumar01.vaultspace.core.upload.base.*;
 import com.github.jaykkumar01.vaultspace.core.upload.helper.CancelToken;
-import com.github.jaykkumar01.vaultspace.models.TrustedAccount;
+import com.github.jaykkumar01.vaultspace.utils.Mp4LayoutAnalyzer;
 import com.github.jaykkumar01.vaultspace.utils.UriUtils;
 import com.google.api.client.googleapis.media.MediaHttpUploader;
 import com.google.api.client.http.*;
+import com.google.api.client.util.Data;
 import com.google.api.client.util.DateTime;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -27,12 +34,26 @@ import java.io.InputStream;
 import java.util.*;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 
 public final class UploadDriveHelper {
 
     private static final String TAG = "VaultSpace:UploadDrive";
-    private static final int CHUNK = MediaHttpUploader.MINIMUM_CHUNK_SIZE;
+    private static final String FIELDS = "id,name,mimeType,createdTime,modifiedTime,size,sha256Checksum,appProperties";
+    private static final String EXISTING_FIELDS = FIELDS + ",trashed,parents";
+
+    // small-file fast path: one multipart request, no resumable session
+    private static final long SMALL_FILE_BYTES = 5L * 1024 * 1024;
+    private static final int ID_BATCH_SIZE = 100;
+    private static final int THUMB_PARALLEL = 4;
+    private static final int HASH_BUFFER = 64 * 1024;
+    private static final String PROP_SHA256 = "vs_sha256";
+
+    // follow-up metadata patches of a burst share one batch request per window
+    public static final long DEFAULT_METADATA_BATCH_WINDOW_MS = 500;
 
     public static final class UploadFailure extends Exception {
         public final FailureReason reason;
@@ -50,12 +71,36 @@ public final class UploadDriveHelper {
     private final Context appContext;
     private final ContentResolver resolver;
     private final TrustedAccountsRepository trustedAccountsRepo;
+    private final UploadSessionStore sessionStore;
+    private final ContentHashStore hashStore;
     private final ConcurrentHashMap<String, Drive> driveCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DriveIdPool> idPools = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DriveMetadataBatcher> batchers = new ConcurrentHashMap<>();
+    private final ExecutorService thumbExecutor = Executors.newFixedThreadPool(THUMB_PARALLEL);
+    private final ScheduledExecutorService batchScheduler = Executors.newSingleThreadScheduledExecutor();
+    private final long metadataBatchWindowMs;
+    private final int chunkFloor;
+    private final int chunkCeiling;
 
     public UploadDriveHelper(@NonNull Context context) {
+        this(context, DEFAULT_METADATA_BATCH_WINDOW_MS);
+    }
+
+    public UploadDriveHelper(@NonNull Context context, long metadataBatchWindowMs) {
+        this(context, metadataBatchWindowMs, AdaptiveChunkSizer.DEFAULT_FLOOR, AdaptiveChunkSizer.DEFAULT_CEILING);
+    }
+
+    /** {@code chunkFloor} / {@code chunkCeiling} bound the adaptive resumable chunk size. */
+    public UploadDriveHelper(@NonNull Context context, long metadataBatchWindowMs, int chunkFloor, int chunkCeiling) {
+        this.metadataBatchWindowMs = metadataBatchWindowMs;
+        this.chunkFloor = chunkFloor;
+        this.chunkCeiling = chunkCeiling;
         appContext = context.getApplicationContext();
         resolver = appContext.getContentResolver();
         trustedAccountsRepo = TrustedAccountsRepository.getInstance(context);
+        UserSession session = new UserSession(appContext);
+        sessionStore = session.getUploadSessionStore();
+        hashStore = session.getContentHashStore();
     }
 
     private Drive getDrive(String email) {
@@ -64,33 +109,263 @@ public final class UploadDriveHelper {
         );
     }
 
+    private DriveIdPool getIdPool(String email) {
+        return idPools.computeIfAbsent(
+                email, e -> new DriveIdPool(getDrive(e), ID_BATCH_SIZE)
+        );
+    }
+
+    private DriveMetadataBatcher getBatcher(String email) {
+        return batchers.computeIfAbsent(
+                email, e -> new DriveMetadataBatcher(getDrive(e), metadataBatchWindowMs, batchScheduler)
+        );
+    }
+
     /* ================= Public API ================= */
 
+    /**
+     * Uploads into {@code email}'s Drive. The account is chosen (and its
+     * bytes reserved) by the dispatcher before the task starts.
+     *
+     * Files larger than one chunk go through a persisted resumable session,
+     * so a later attempt with the same selection id continues from the
+     * server-confirmed offset.
+     */
     public UploadedItem upload(
+            String email,
             String parentId,
             UploadSelection selection,
+            String sha256,
             ProgressCallback cb,
             CancelToken token
     ) throws UploadFailure, CancellationException {
 
-        Log.d(TAG, "upload start parentId=" + parentId + " uri=" + selection.uri);
+        Log.d(TAG, "upload start parentId=" + parentId + " account=" + email + " uri=" + selection.uri);
 
         if (UriUtils.isPermissionRevoked(appContext, selection.uri))
             throw new UploadFailure(FailureReason.URI_NOT_FOUND, "Uri not accessible");
 
-        String email = pickRandomAccount(selection.sizeBytes);
         Drive drive = getDrive(email);
+        String safeMime = selection.mimeType != null ? selection.mimeType : "application/octet-stream";
 
-        String thumbFileId = null;
-        if (selection.thumbnailPath != null) {
-            try {
-                thumbFileId = uploadThumbnail(drive, selection.thumbnailPath);
-            } catch (Exception e) {
-                Log.w(TAG, "thumbnail upload failed, continuing", e);
+        try {
+            UploadedItem item = resumeIfPossible(email, drive, selection, safeMime, cb, token);
+
+            if (item == null) {
+                ThumbUpload thumb = startThumbnail(email, drive, selection);
+                String thumbFileId = thumb.id();
+                File meta = buildMeta(parentId, selection, thumbFileId, sha256);
+
+                File f;
+                try {
+                    f = selection.sizeBytes > SMALL_FILE_BYTES
+                            ? uploadResumable(email, drive, meta, thumbFileId, selection, safeMime, cb, token)
+                            : uploadDirect(email, drive, meta, selection, safeMime, cb, token);
+                } catch (IOException | RuntimeException | UploadFailure e) {
+                    if (thumb.pending() != null) thumb.pending().cancel(true);
+                    throw e;
+                }
+
+                if (thumbFileId != null && !awaitThumbnail(thumb)) {
+                    unlinkThumbnail(email, f.getId());
+                    thumbFileId = null;
+                }
+                item = toUploadedItem(f, selection, thumbFileId);
             }
+
+            trustedAccountsRepo.recordUploadUsage(email, selection.sizeBytes);
+            return item;
+
+        } catch (HttpResponseException e) {
+            int c = e.getStatusCode();
+            if (c == 401 || c == 403)
+                throw new UploadFailure(FailureReason.NO_ACCESS, "Drive permission denied", e);
+            throw new UploadFailure(FailureReason.DRIVE_ERROR, "Drive HTTP " + c, e);
+
+        } catch (IOException e) {
+            throw new UploadFailure(FailureReason.IO_ERROR, "IO error", e);
+        }
+    }
+
+    /** Outcome of the pre-upload dedup check; {@code sha256} tags a fresh upload. */
+    public record VaultLookup(UploadedItem copy, String sha256) {
+    }
+
+    /**
+     * Looks for this selection's bytes already in the album, whichever
+     * account uploaded them. The source key (uri|size|moment) is a fast
+     * path that needs no read. On a miss, a small file (fast-path size) is
+     * hashed and matched against the local sha256 index, then against the
+     * album's {@value #PROP_SHA256} appProperties on Drive. Larger files
+     * are never read twice: their hash comes from the upload stream and is
+     * indexed afterwards. Blocking.
+     * Stale index rows (trashed, moved, deleted) are dropped.
+     */
+    public VaultLookup findVaultedCopy(String email, UploadSelection selection, CancelToken token) {
+        Drive drive = getDrive(email);
+        String groupId = selection.context.groupId;
+
+        VaultedContentEntity known = hashStore.find(selection);
+        if (known != null) {
+            File f = fetchCopy(drive, groupId, known.fileId);
+            if (f != null) return vaultHit(selection, known.sha256, f);
         }
 
+        // a large source is hashed by the upload itself, not by a separate pass
+        if (selection.sizeBytes > SMALL_FILE_BYTES) return new VaultLookup(null, null);
+
+        String sha256 = hashSource(selection, token);
+        if (sha256 == null) return new VaultLookup(null, null);
+
+        VaultedContentEntity sameBytes = hashStore.findByHash(sha256, groupId);
+        if (sameBytes != null) {
+            File f = fetchCopy(drive, groupId, sameBytes.fileId);
+            if (f != null) return vaultHit(selection, sha256, f);
+        }
+
+        File f = queryCopy(drive, groupId, sha256);
+        if (f != null) return vaultHit(selection, sha256, f);
+
+        return new VaultLookup(null, sha256);
+    }
+
+    private VaultLookup vaultHit(UploadSelection selection, String sha256, File f) {
+        Log.d(TAG, "dedup hit id=" + selection.id + " file=" + f.getId());
+        hashStore.record(selection, sha256, f.getId());   // next time the source key hits
+        Map<String, String> props = f.getAppProperties();
+        return new VaultLookup(toUploadedItem(f, selection, props != null ? props.get("thumb") : null), sha256);
+    }
+
+    /** The indexed file, if it still lives untrashed in the album. */
+    private File fetchCopy(Drive drive, String groupId, String fileId) {
+        try {
+            File f = drive.files().get(fileId).setFields(EXISTING_FIELDS).execute();
+
+            boolean inAlbum = f.getParents() != null && f.getParents().contains(groupId);
+            if (Boolean.TRUE.equals(f.getTrashed()) || !inAlbum) {
+                hashStore.forgetFile(fileId);
+                return null;
+            }
+            return f;
+
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == 404) hashStore.forgetFile(fileId);
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "dedup lookup failed, uploading", e);
+            return null;
+        }
+    }
+
+    /** Same bytes uploaded from another device or account, found by appProperty. */
+    private File queryCopy(Drive drive, String groupId, String sha256) {
+        try {
+            FileList list = drive.files().list()
+                    .setQ("'" + groupId + "' in parents and trashed=false"
+                            + " and appProperties has { key='" + PROP_SHA256 + "' and value='" + sha256 + "' }")
+                    .setFields("files(" + FIELDS + ")")
+                    .setPageSize(1)
+                    .execute();
+            List<File> files = list.getFiles();
+            return files == null || files.isEmpty() ? null : files.get(0);
+
+        } catch (IOException e) {
+            Log.w(TAG, "dedup query failed, uploading", e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads a small source once, far cheaper than the upload it may save.
+     * The upload stream still hashes what it sends, so a source that
+     * changes in between is caught in indexContent.
+     */
+    private String hashSource(UploadSelection selection, CancelToken token) {
+        HashingInputStream in = null;
+        try {
+            in = openStream(selection.uri, token);
+            byte[] buf = new byte[HASH_BUFFER];
+            while (in.read(buf) != -1) {
+                // digest updates as it reads
+            }
+            return in.hexIfComplete(selection.sizeBytes);
+
+        } catch (UploadFailure | IOException e) {
+            Log.w(TAG, "source hash failed id=" + selection.id, e);
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /* ================= Thumbnail ================= */
+
+    /** Thumbnail id the media references, plus the upload still in flight (if any). */
+    private record ThumbUpload(String id, Future<String> pending) {
+    }
+
+    /**
+     * Starts the thumbnail upload. With a pre-allocated id it runs alongside
+     * the media upload; if allocation fails it is uploaded first, as before.
+     */
+    private ThumbUpload startThumbnail(String email, Drive drive, UploadSelection selection) {
+        String path = selection.thumbnailPath;
+        if (path == null) return new ThumbUpload(null, null);
+
+        try {
+            String id = getIdPool(email).next();
+            return new ThumbUpload(id, thumbExecutor.submit(() -> uploadThumbnail(drive, path, id)));
+        } catch (IOException e) {
+            Log.w(TAG, "id pre-allocation failed, uploading thumbnail first", e);
+            return new ThumbUpload(uploadThumbnailQuietly(drive, path, null), null);
+        }
+    }
+
+    private static boolean awaitThumbnail(ThumbUpload thumb) {
+        if (thumb.pending() == null) return thumb.id() != null;
+        try {
+            return thumb.pending().get() != null;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            Log.w(TAG, "thumbnail upload failed, continuing", e);
+            return false;
+        }
+    }
+
+    private String uploadThumbnailQuietly(Drive drive, String path, String id) {
+        try {
+            return uploadThumbnail(drive, path, id);
+        } catch (Exception e) {
+            Log.w(TAG, "thumbnail upload failed, continuing", e);
+            return null;
+        }
+    }
+
+    /** Drops the "thumb" link from a media file whose thumbnail never landed. */
+    private void unlinkThumbnail(String email, String fileId) {
+        getBatcher(email).patchAppProperties(fileId, Collections.singletonMap("thumb", Data.NULL_STRING));
+    }
+
+    /**
+     * The session's thumbnail id if that upload actually landed: it ran
+     * alongside the media, so a crash can leave the id saved but unused.
+     * An unreachable Drive keeps the id; only a definite miss drops it.
+     */
+    private static String landedThumbnail(Drive drive, String thumbFileId) {
+        if (thumbFileId == null) return null;
+        try {
+            File t = drive.files().get(thumbFileId).setFields("id,trashed").execute();
+            return Boolean.TRUE.equals(t.getTrashed()) ? null : thumbFileId;
+        } catch (HttpResponseException e) {
+            return e.getStatusCode() == 404 ? null : thumbFileId;
+        } catch (IOException e) {
+            return thumbFileId;
+        }
+    }
+
+    /* ================= Metadata ================= */
 
+    private File buildMeta(String parentId, UploadSelection selection, String thumbFileId, String sha256) {
         File meta = new File()
                 .setName(selection.displayName)
                 .setMimeType(selection.mimeType)
@@ -101,18 +376,26 @@ public final class UploadDriveHelper {
         if (thumbFileId != null)
             appProps.put("thumb", thumbFileId);
 
+        // lets any account find these bytes in the album before uploading them again
+        if (sha256 != null)
+            appProps.put(PROP_SHA256, sha256);
+
         // 🔑 layout-critical metadata (NEW)
         appProps.put("vs_aspect_ratio", Float.toString(selection.aspectRatio));
         appProps.put("vs_rotation", Integer.toString(selection.rotation));
         appProps.put("vs_duration", Long.toString(selection.durationMillis));
 
+        // lets playback fetch a tail moov alongside the head instead of after it
+        if (selection.type == UploadType.VIDEO) {
+            Mp4LayoutAnalyzer.Result layout = Mp4LayoutAnalyzer.analyze(resolver, selection.uri, selection.sizeBytes);
+            if (layout != null) appProps.put("vs_mp4_layout", layout.encode());
+        }
+
         Log.d(TAG,
                 "UPLOAD props | ar=" + selection.aspectRatio +
                         " rot=" + selection.rotation +
-                        " durMs=" + selection.durationMillis);
-
-
-
+                        " durMs=" + selection.durationMillis +
+                        " mp4=" + appProps.get("vs_mp4_layout"));
 
         long origin = selection.originMoment;
         long moment = selection.momentMillis;
@@ -132,111 +415,241 @@ public final class UploadDriveHelper {
         if (!appProps.isEmpty())
             meta.setAppProperties(appProps);
 
+        return meta;
+    }
 
-        InputStream in = null;
-        String safeMime = selection.mimeType != null ? selection.mimeType : "application/octet-stream";
+    /* ================= Resumable ================= */
 
-        try {
+    /**
+     * Continues a persisted session for this selection, if one exists on
+     * the same account and the server still knows it. Returns null when a
+     * fresh upload is needed.
+     */
+    private UploadedItem resumeIfPossible(
+            String email,
+            Drive drive,
+            UploadSelection selection,
+            String mime,
+            ProgressCallback cb,
+            CancelToken token
+    ) throws UploadFailure, IOException {
 
-            AbstractInputStreamContent content = buildContent(selection.uri, safeMime, selection.sizeBytes, token);
+        UploadSessionEntity session = sessionStore.get(selection.id);
+        if (session == null) return null;
 
-            in = ((InputStreamContent) content).getInputStream();
+        if (!session.accountEmail.equals(email) || session.sizeBytes != selection.sizeBytes) {
+            sessionStore.remove(selection.id);
+            return null;
+        }
 
-            UploadedItem item = uploadPreparedFile(drive, meta, thumbFileId, content, cb, selection, token);
+        ResumableUploader uploader = new ResumableUploader(drive, FIELDS);
+        ResumableUploader.Status status = uploader.query(session.sessionUri, selection.sizeBytes);
 
-            trustedAccountsRepo.recordUploadUsage(email, selection.sizeBytes);
-            return item;
+        if (status == null) {
+            Log.d(TAG, "resumable session expired id=" + selection.id);
+            sessionStore.remove(selection.id);
+            return null;
+        }
 
-        } finally {
-            closeQuietly(in);
+        String thumbFileId = landedThumbnail(drive, session.thumbFileId);
+
+        File f;
+        if (status.file() != null) {
+            sessionStore.remove(selection.id);
+            f = status.file();
+        } else {
+            Log.d(TAG, "resuming id=" + selection.id + " at " + status.committed() + "/" + selection.sizeBytes);
+            f = streamSession(email, drive, uploader, session.sessionUri, status.committed(), selection, mime, cb, token);
         }
+
+        if (session.thumbFileId != null && thumbFileId == null) unlinkThumbnail(email, f.getId());
+        return toUploadedItem(f, selection, thumbFileId);
     }
 
-    /* ================= Utilities ================= */
+    private File uploadResumable(
+            String email,
+            Drive drive,
+            File meta,
+            String thumbFileId,
+            UploadSelection selection,
+            String mime,
+            ProgressCallback cb,
+            CancelToken token
+    ) throws UploadFailure, IOException {
+
+        ResumableUploader uploader = new ResumableUploader(drive, FIELDS);
+        String sessionUri = uploader.initiate(meta, mime, selection.sizeBytes);
+
+        sessionStore.save(new UploadSessionEntity(
+                selection.id,
+                selection.context.groupId,
+                email,
+                sessionUri,
+                0L,
+                selection.sizeBytes,
+                thumbFileId,
+                System.currentTimeMillis()
+        ));
+
+        return streamSession(email, drive, uploader, sessionUri, 0L, selection, mime, cb, token);
+    }
 
-    private AbstractInputStreamContent buildContent(Uri uri, String mime, long size, CancelToken token) throws UploadFailure {
+    private File streamSession(
+            String email,
+            Drive drive,
+            ResumableUploader uploader,
+            String sessionUri,
+            long offset,
+            UploadSelection selection,
+            String mime,
+            ProgressCallback cb,
+            CancelToken token
+    ) throws UploadFailure, IOException {
 
+        HashingInputStream in = openStream(selection.uri, token);
         try {
-            InputStream raw = resolver.openInputStream(uri);
-            if (raw == null) throw new FileNotFoundException("Null input stream");
+            skipFully(in, offset);
+
+            AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(chunkFloor, chunkCeiling, AdaptiveChunkSizer.DEFAULT_INITIAL);
+            File f = uploader.upload(
+                    sessionUri, in, mime, selection.sizeBytes, offset, sizer, cb,
+                    committed -> sessionStore.updateCommitted(selection.id, committed),
+                    token
+            );
 
-            InputStream in = new CancellableInputStream(raw, token);
-            InputStreamContent c = new InputStreamContent(mime, in);
-            c.setLength(size);
-            return c;
+            sessionStore.remove(selection.id);
+            indexContent(email, drive, selection, in, f);
+            return f;
 
-        } catch (FileNotFoundException e) {
-            throw new UploadFailure(FailureReason.URI_NOT_FOUND, "Input stream not found", e);
+        } finally {
+            closeQuietly(in);
         }
     }
 
-    private UploadedItem uploadPreparedFile(
+    /* ================= Direct ================= */
+
+    private File uploadDirect(
+            String email,
             Drive drive,
             File meta,
-            String thumbFileId,
-            AbstractInputStreamContent content,
-            ProgressCallback cb,
             UploadSelection selection,
+            String mime,
+            ProgressCallback cb,
             CancelToken token
-    ) throws UploadFailure, CancellationException {
+    ) throws UploadFailure, IOException {
 
+        HashingInputStream in = openStream(selection.uri, token);
         try {
+            InputStreamContent content = new InputStreamContent(mime, in);
+            content.setLength(selection.sizeBytes);
+
             Drive.Files.Create req = drive.files().create(meta, content);
-            req.setFields("id,name,mimeType,createdTime,modifiedTime,size");
+            req.setFields(FIELDS);
 
             MediaHttpUploader u = req.getMediaHttpUploader();
-            u.setDirectUploadEnabled(selection.sizeBytes <= CHUNK);
-            if (selection.sizeBytes > CHUNK) u.setChunkSize(CHUNK);
-
+            u.setDirectUploadEnabled(true);
             u.setProgressListener(p -> {
                 if (token.isCancelled())
                     throw new CancellationException();
-
-                long total = content.getLength() > 0 ? content.getLength() : selection.sizeBytes;
-                cb.onProgress(p.getNumBytesUploaded(), total);
+                cb.onProgress(p.getNumBytesUploaded(), selection.sizeBytes);
             });
 
             File f = req.execute();
-            Log.d(TAG, "thumb=" + (thumbFileId != null ? thumbFileId : "none"));
-
-
-            long originMoment =
-                    f.getCreatedTime() != null
-                            ? f.getCreatedTime().getValue()
-                            : selection.originMoment;
-
-            long momentMillis =
-                    f.getModifiedTime() != null
-                            ? f.getModifiedTime().getValue()
-                            : selection.momentMillis;
-
-            boolean vsOrigin = selection.originMoment > 0;
-
-            return new UploadedItem(
-                    f.getId(),
-                    f.getName(),
-                    f.getMimeType(),
-                    f.getSize() != null ? f.getSize() : 0L,
-                    originMoment,
-                    momentMillis,
-                    vsOrigin,
-                    selection.aspectRatio,
-                    selection.rotation,
-                    selection.durationMillis,   // 🟢 FIX
-                    thumbFileId
-            );
+            indexContent(email, drive, selection, in, f);
+            return f;
 
+        } finally {
+            closeQuietly(in);
+        }
+    }
 
+    /* ================= Dedup index ================= */
 
-        } catch (HttpResponseException e) {
-            int c = e.getStatusCode();
-            if (c == 401 || c == 403)
-                throw new UploadFailure(FailureReason.NO_ACCESS, "Drive permission denied", e);
-            throw new UploadFailure(FailureReason.DRIVE_ERROR, "Drive HTTP " + c, e);
+    /**
+     * Records what was just uploaded. Drive's own sha256Checksum of the
+     * stored file must match what was streamed; a mismatch means the copy
+     * is corrupt, so it is removed and the upload fails (and is retried).
+     */
+    private void indexContent(String email, Drive drive, UploadSelection selection, HashingInputStream in, File f)
+            throws UploadFailure {
 
-        } catch (IOException e) {
-            throw new UploadFailure(FailureReason.IO_ERROR, "IO error", e);
+        String local = in.hexIfComplete(selection.sizeBytes);
+        if (local == null) return;   // source changed size mid-read; nothing trustworthy to record
+
+        String remote = f.getSha256Checksum();
+        if (remote != null && !remote.equalsIgnoreCase(local)) {
+            Log.e(TAG, "checksum mismatch id=" + selection.id + " file=" + f.getId());
+            try {
+                drive.files().delete(f.getId()).execute();
+            } catch (IOException e) {
+                Log.w(TAG, "corrupt copy delete failed id=" + f.getId(), e);
+            }
+            throw new UploadFailure(FailureReason.IO_ERROR, "Checksum mismatch");
         }
+
+        // not hashed up front (large file, or the pre-hash failed), or the source changed since
+        Map<String, String> props = f.getAppProperties();
+        if (props == null || !local.equalsIgnoreCase(props.get(PROP_SHA256)))
+            getBatcher(email).patchAppProperties(f.getId(), Collections.singletonMap(PROP_SHA256, local));
+
+        hashStore.record(selection, local, f.getId());
+    }
+
+    /* ================= Utilities ================= */
+
+    private HashingInputStream openStream(Uri uri, CancelToken token) throws UploadFailure {
+        try {
+            InputStream raw = resolver.openInputStream(uri);
+            if (raw == null) throw new FileNotFoundException("Null input stream");
+            return new HashingInputStream(new CancellableInputStream(raw, token));
+
+        } catch (FileNotFoundException e) {
+            throw new UploadFailure(FailureReason.URI_NOT_FOUND, "Input stream not found", e);
+        }
+    }
+
+    /** Reads past {@code bytes}; the hashing stream reads through, so the hash covers them. */
+    private static void skipFully(InputStream in, long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) {
+                if (in.read() == -1) throw new IOException("Stream shorter than resume offset");
+                skipped = 1;
+            }
+            bytes -= skipped;
+        }
+    }
+
+    private static UploadedItem toUploadedItem(File f, UploadSelection selection, String thumbFileId) {
+        Log.d(TAG, "thumb=" + (thumbFileId != null ? thumbFileId : "none"));
+
+        long originMoment =
+                f.getCreatedTime() != null
+                        ? f.getCreatedTime().getValue()
+                        : selection.originMoment;
+
+        long momentMillis =
+                f.getModifiedTime() != null
+                        ? f.getModifiedTime().getValue()
+                        : selection.momentMillis;
+
+        boolean vsOrigin = selection.originMoment > 0;
+        Map<String, String> props = f.getAppProperties();
+
+        return new UploadedItem(
+                f.getId(),
+                f.getName(),
+                f.getMimeType(),
+                f.getSize() != null ? f.getSize() : 0L,
+                originMoment,
+                momentMillis,
+                vsOrigin,
+                selection.aspectRatio,
+                selection.rotation,
+                selection.durationMillis,   // 🟢 FIX
+                thumbFileId,
+                props != null ? props.get("vs_mp4_layout") : null
+        );
     }
 
     private static void closeQuietly(InputStream in) {
@@ -246,18 +659,7 @@ public final class UploadDriveHelper {
         }
     }
 
-    private String pickRandomAccount(long sizeBytes) throws UploadFailure {
-        Iterable<TrustedAccount> snapshot = trustedAccountsRepo.getAccountsSnapshot();
-        List<String> eligible = new ArrayList<>();
-        for (TrustedAccount a : snapshot)
-            if (a.totalQuota - a.usedQuota >= sizeBytes)
-                eligible.add(a.email);
-        if (eligible.isEmpty())
-            throw new UploadFailure(FailureReason.NO_SPACE, "No account has space");
-        return eligible.get(ThreadLocalRandom.current().nextInt(eligible.size()));
-    }
-
-    private String uploadThumbnail(Drive drive, String path) throws Exception {
+    private String uploadThumbnail(Drive drive, String path, String id) throws Exception {
         String folderId = DriveFolderRepository.getThumbnailsRootId(appContext);
         java.io.File file = new java.io.File(path);
 
@@ -265,6 +667,7 @@ public final class UploadDriveHelper {
                 .setName("media_thumb_" + UUID.randomUUID().toString() + ".jpg")
                 .setMimeType("image/jpeg")
                 .setParents(Collections.singletonList(folderId));
+        if (id != null) meta.setId(id);
 
         InputStreamContent content =
                 new InputStreamContent("image/jpeg", new FileInputStream(file));
@@ -275,4 +678,12 @@ public final class UploadDriveHelper {
                 .execute()
                 .getId();
     }
+
+    /* ================= Lifecycle ================= */
+
+    public void release() {
+        thumbExecutor.shutdownNow();
+        for (DriveMetadataBatcher b : batchers.values()) batchScheduler.execute(b::flush);
+        batchScheduler.shutdown();   // queued patches still go out
+    }
 }
@@ -0,0 +1,57 @@
+package com.github.jaykkumar01.vaultspace.core.upload.helper;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global concurrency cap driven by measured aggregate upload throughput.
+ *
+ * Hill-climbs one slot at a time: while the dispatcher is saturated and
+ * throughput holds or grows, probe one more slot; when it drops, back off.
+ */
+final class BandwidthGovernor {
+
+    private static final String TAG = "VaultSpace:BandwidthGov";
+
+    private static final long WINDOW_MS = 3000L;
+    private static final double DROP_RATIO = 0.85;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicLong windowBytes = new AtomicLong();
+
+    private int limit;
+    private long windowStart = SystemClock.elapsedRealtime();
+    private double lastRate;
+
+    BandwidthGovernor(int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = minLimit;
+    }
+
+    void onBytes(long delta) {
+        if (delta > 0) windowBytes.addAndGet(delta);
+    }
+
+    /** Current cap; re-evaluated at most once per window. */
+    synchronized int limit(int running) {
+        long now = SystemClock.elapsedRealtime();
+        long elapsed = now - windowStart;
+        if (elapsed < WINDOW_MS) return limit;
+
+        double rate = windowBytes.getAndSet(0L) * 1000.0 / elapsed;
+        windowStart = now;
+
+        // an unsaturated window says nothing about extra slots
+        if (running >= limit) {
+            if (rate < lastRate * DROP_RATIO) limit = Math.max(minLimit, limit - 1);
+            else limit = Math.min(maxLimit, limit + 1);
+            Log.d(TAG, "rate=" + (long) rate + "B/s limit=" + limit);
+        }
+        lastRate = rate;
+        return limit;
+    }
+}
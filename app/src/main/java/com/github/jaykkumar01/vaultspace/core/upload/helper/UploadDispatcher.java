@@ -2,19 +2,44 @@ package com.github.jaykkumar01.vaultspace.core.upload.helper;
 
 import android.content.Context;
 
+import com.github.jaykkumar01.vaultspace.core.session.UploadSessionStore;
+import com.github.jaykkumar01.vaultspace.core.session.UserSession;
+import com.github.jaykkumar01.vaultspace.core.session.db.resume.UploadSessionEntity;
+import com.github.jaykkumar01.vaultspace.core.upload.base.FailureReason;
 import com.github.jaykkumar01.vaultspace.core.upload.base.UploadSelection;
 import com.github.jaykkumar01.vaultspace.core.upload.drive.UploadDriveHelper;
+import com.github.jaykkumar01.vaultspace.core.upload.scheduler.AccountScheduler;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Dispatches upload tasks into per-account lanes.
+ *
+ * Drive rate limits are per account, so each lane runs at most
+ * {@link #LANE_PARALLEL} uploads. A {@link BandwidthGovernor} caps the
+ * global number of running uploads by measured throughput, and at most
+ * {@link #LANE_BACKLOG} tasks wait per lane before the global queue stops
+ * draining (reserved bytes stay bounded).
+ *
+ * Accounts whose lane is full are passed over when placing the next file,
+ * and the Room lookup and account reservation happen outside this
+ * object's monitor; lane state is re-checked before the task starts.
+ */
 public final class UploadDispatcher {
 
-    private static final int MAX_PARALLEL = 3;
+    private static final int MIN_PARALLEL = 3;
+    private static final int MAX_PARALLEL = 12;
+    private static final int LANE_PARALLEL = 2;
+    private static final int LANE_BACKLOG = 2;
 
     private final ExecutorService executor = Executors.newFixedThreadPool(MAX_PARALLEL);
     private final ConcurrentLinkedQueue<UploadTask> queue = new ConcurrentLinkedQueue<>();
@@ -22,6 +47,19 @@ public final class UploadDispatcher {
     private final AtomicInteger running = new AtomicInteger();
 
     private final UploadDriveHelper driveHelper;
+    private final AccountScheduler accountScheduler;
+    private final UploadSessionStore sessionStore;
+    private final BandwidthGovernor governor = new BandwidthGovernor(MIN_PARALLEL, MAX_PARALLEL);
+
+    /* ================= Lanes ================= */
+
+    private static final class Lane {
+        final ArrayDeque<UploadTask> waiting = new ArrayDeque<>();
+        int running;
+    }
+
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private int waitingTotal;
 
     /* ================= Generation ================= */
 
@@ -45,6 +83,8 @@ public final class UploadDispatcher {
 
     public UploadDispatcher(Context context) {
         this.driveHelper = new UploadDriveHelper(context);
+        this.accountScheduler = new AccountScheduler(context, AccountScheduler.Strategy.FREE_SPACE_WEIGHTED);
+        this.sessionStore = new UserSession(context).getUploadSessionStore();
     }
 
     /* ================= Enqueue ================= */
@@ -66,35 +106,117 @@ public final class UploadDispatcher {
     /* ================= Scheduling ================= */
 
     private void trySchedule() {
-        synchronized (this) {
-            while (running.get() < MAX_PARALLEL) {
-                UploadTask task = queue.poll();
-                if (task == null) return;
-
-                running.incrementAndGet();
-
-                final Future<?>[] ref = new Future<?>[1];
-                ref[0] = executor.submit(() -> {
-                    try {
-                        task.run();
-                    } finally {
-                        onTaskFinished(task.groupId, ref[0]);
+        List<UploadTask> noSpace = new ArrayList<>();
+
+        while (true) {
+            UploadTask task;
+            Set<String> busy;
+
+            synchronized (this) {
+                int limit = governor.limit(running.get());
+
+                // 1. lanes that freed a slot take their waiting tasks first
+                for (Lane lane : lanes.values()) {
+                    while (running.get() < limit && lane.running < LANE_PARALLEL) {
+                        UploadTask waiting = lane.waiting.poll();
+                        if (waiting == null) break;
+                        waitingTotal--;
+                        start(lane, waiting);
                     }
-                });
+                }
+
+                // 2. drain the global queue into lanes, bounded by backlog
+                int backlogLimit = Math.max(1, lanes.size()) * LANE_BACKLOG;
+                if (running.get() >= limit || waitingTotal >= backlogLimit) break;
+
+                task = queue.poll();
+                if (task == null) break;
+                busy = busyLanes();
+            }
 
-                runningByGroup
-                        .computeIfAbsent(task.groupId, k -> ConcurrentHashMap.newKeySet())
-                        .add(ref[0]);
+            // Room and the accounts snapshot may block: outside the monitor
+            AccountScheduler.Reservation r = reserveFor(task, busy);
+            if (r == null) {
+                noSpace.add(task);
+                continue;
+            }
+            task.reservation = r;
+
+            synchronized (this) {
+                // cancelled while unlocked: it is no longer in any queue
+                if (task.isStale()) {
+                    accountScheduler.release(r, false);
+                    continue;
+                }
+
+                Lane lane = lanes.computeIfAbsent(r.email, k -> new Lane());
+                if (lane.running < LANE_PARALLEL && running.get() < governor.limit(running.get())) {
+                    start(lane, task);
+                } else {
+                    lane.waiting.add(task);
+                    waitingTotal++;
+                }
             }
         }
+
+        for (UploadTask t : noSpace) t.fail(FailureReason.NO_SPACE);
+    }
+
+    /** Accounts that cannot start another upload right now. Holds the monitor. */
+    private Set<String> busyLanes() {
+        Set<String> busy = new HashSet<>();
+        for (Map.Entry<String, Lane> e : lanes.entrySet())
+            if (e.getValue().running >= LANE_PARALLEL) busy.add(e.getKey());
+        return busy;
+    }
+
+    /**
+     * A persisted resumable session pins the task to the account that
+     * started it; anything else prefers an account whose lane has room.
+     */
+    private AccountScheduler.Reservation reserveFor(UploadTask task, Set<String> busy) {
+        long bytes = task.selection.sizeBytes;
+        UploadSessionEntity session = sessionStore.get(task.uploadId);
+        if (session != null) {
+            AccountScheduler.Reservation pinned = accountScheduler.reserveOn(session.accountEmail, bytes);
+            if (pinned != null) return pinned;
+        }
+        return accountScheduler.reserve(bytes, busy);
     }
 
-    private void onTaskFinished(String groupId, Future<?> future) {
-        running.decrementAndGet();
-        cleanup(groupId, future);
+    private void start(Lane lane, UploadTask task) {
+        running.incrementAndGet();
+        lane.running++;
+
+        final Future<?>[] ref = new Future<?>[1];
+        ref[0] = executor.submit(() -> {
+            try {
+                task.run();
+            } finally {
+                onTaskFinished(task, ref[0]);
+            }
+        });
+
+        runningByGroup
+                .computeIfAbsent(task.groupId, k -> ConcurrentHashMap.newKeySet())
+                .add(ref[0]);
+    }
+
+    private void onTaskFinished(UploadTask task, Future<?> future) {
+        synchronized (this) {
+            running.decrementAndGet();
+            Lane lane = lanes.get(task.reservation.email);
+            if (lane != null) lane.running--;
+            accountScheduler.release(task.reservation, task.uploaded);
+        }
+        cleanup(task.groupId, future);
         trySchedule();
     }
 
+    void onBytesTransferred(long delta) {
+        governor.onBytes(delta);
+    }
+
     /* ================= Cancel ================= */
 
     public void cancelGroup(String groupId) {
@@ -104,6 +226,7 @@ public final class UploadDispatcher {
         if (set != null) for (Future<?> f : set) f.cancel(true);
 
         queue.removeIf(t -> t.groupId.equals(groupId));
+        dropWaiting(groupId);
     }
 
     public void cancelAll() {
@@ -117,6 +240,21 @@ public final class UploadDispatcher {
 
         runningByGroup.clear();
         queue.clear();
+        dropWaiting(null);
+    }
+
+    /** Removes lane-waiting tasks of {@code groupId} (all when null) and frees their reservations. */
+    private synchronized void dropWaiting(String groupId) {
+        for (Lane lane : lanes.values()) {
+            Iterator<UploadTask> it = lane.waiting.iterator();
+            while (it.hasNext()) {
+                UploadTask t = it.next();
+                if (groupId != null && !t.groupId.equals(groupId)) continue;
+                it.remove();
+                waitingTotal--;
+                accountScheduler.release(t.reservation, false);
+            }
+        }
     }
 
     /* ================= Misc ================= */
@@ -128,6 +266,7 @@ public final class UploadDispatcher {
     public void shutdown() {
         cancelAll();
         executor.shutdownNow();
+        driveHelper.release();
     }
 
     private void cleanup(String groupId, Future<?> future) {
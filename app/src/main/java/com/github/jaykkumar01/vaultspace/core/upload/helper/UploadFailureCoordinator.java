@@ -5,6 +5,7 @@ import android.util.Log;
 
 import com.github.jaykkumar01.vaultspace.core.selection.UriSelection;
 import com.github.jaykkumar01.vaultspace.core.session.UploadRetryStore;
+import com.github.jaykkumar01.vaultspace.core.session.UploadSessionStore;
 import com.github.jaykkumar01.vaultspace.core.session.cache.UploadCache;
 import com.github.jaykkumar01.vaultspace.core.upload.base.FailureReason;
 import com.github.jaykkumar01.vaultspace.core.upload.base.UploadContext;
@@ -22,11 +23,18 @@ public final class UploadFailureCoordinator {
     private final Context appContext;
     private final UploadCache uploadCache;
     private final UploadRetryStore retryStore;
-
-    public UploadFailureCoordinator(Context appContext, UploadCache uploadCache, UploadRetryStore retryStore) {
+    private final UploadSessionStore sessionStore;
+
+    public UploadFailureCoordinator(
+            Context appContext,
+            UploadCache uploadCache,
+            UploadRetryStore retryStore,
+            UploadSessionStore sessionStore
+    ) {
         this.appContext = appContext;
         this.uploadCache = uploadCache;
         this.retryStore = retryStore;
+        this.sessionStore = sessionStore;
     }
 
 
@@ -129,6 +137,7 @@ public final class UploadFailureCoordinator {
                 Log.w(TAG, "Failed to delete thumb: " + f.getAbsolutePath());
         }
         retryStore.clearGroup(groupId);
+        sessionStore.clearGroup(groupId);
     }
 
 
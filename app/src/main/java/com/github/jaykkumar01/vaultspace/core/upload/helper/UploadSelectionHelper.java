@@ -1,6 +1,7 @@
 package com.github.jaykkumar01.vaultspace.core.upload.helper;
 
 import android.net.Uri;
+import android.os.SystemClock;
 
 import androidx.appcompat.app.AppCompatActivity;
 
@@ -10,22 +11,52 @@ import com.github.jaykkumar01.vaultspace.utils.UriUtils;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves picked Uris into UploadSelections and delivers them in batches
+ * as they complete, so uploads start while the rest is still being probed.
+ *
+ * Guarantees:
+ * - One process-wide resolve pool (no pool per pick)
+ * - At most WINDOW_PER_THREAD * threads Uris in flight (backpressure)
+ * - Callback is invoked at least once per resolve (empty if nothing resolved)
+ * - Each batch is sorted DESC by momentMillis
+ */
 public final class UploadSelectionHelper {
 
     /* ================= Callback ================= */
 
     public interface Callback {
+        /** Called on the resolving thread, once per batch. */
         void onResolved(List<UploadSelection> selections);
     }
 
+    /* ================= Constants ================= */
+
+    private static final int THREADS =
+            Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int WINDOW_PER_THREAD = 2;
+
+    // first batch goes out almost immediately, later ones grow to amortize enqueue
+    private static final int FIRST_BATCH = 4;
+    private static final int MAX_BATCH = 64;
+    private static final long FLUSH_INTERVAL_MS = 400;
+
+    private static final ExecutorService resolvePool = Executors.newFixedThreadPool(THREADS);
+
     /* ================= State ================= */
 
     private final AppCompatActivity context;
     private final String groupId;
+    private final Set<Future<UploadSelection>> inFlight = ConcurrentHashMap.newKeySet();
 
     private volatile boolean released;
 
@@ -38,47 +69,83 @@ public final class UploadSelectionHelper {
 
     /* ================= Public API ================= */
 
+    /** Blocks the calling thread until every Uri is resolved or the helper is released. */
     public void resolve(List<Uri> uris, Callback callback) {
         if (released || uris == null || uris.isEmpty()) return;
 
-        int cpu = Runtime.getRuntime().availableProcessors();
-        int threads = Math.min(uris.size(), Math.max(1, cpu - 1));
+        CompletionService<UploadSelection> completion = new ExecutorCompletionService<>(resolvePool);
+        int window = THREADS * WINDOW_PER_THREAD;
+        int next = 0, pending = 0, delivered = 0;
 
-        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+        int batchSize = FIRST_BATCH;
+        List<UploadSelection> batch = new ArrayList<>(batchSize);
+        long lastFlush = SystemClock.elapsedRealtime();
 
-            List<Future<UploadSelection>> futures = new ArrayList<>(uris.size());
+        try {
+            while (!released && (next < uris.size() || pending > 0)) {
 
-            for (Uri uri : uris) {
-                if (released) break;
-                futures.add(executor.submit(() -> released ? null : resolveSingle(uri)));
-            }
+                /* ---------- keep the window full ---------- */
+                while (next < uris.size() && pending < window) {
+                    Uri uri = uris.get(next++);
+                    inFlight.add(completion.submit(() -> released ? null : resolveSingle(uri)));
+                    pending++;
+                }
 
-            List<UploadSelection> result = new ArrayList<>(uris.size());
+                /* ---------- collect ---------- */
+                Future<UploadSelection> f = completion.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (f != null) {
+                    pending--;
+                    inFlight.remove(f);
+                    UploadSelection s = getQuietly(f);
+                    if (s != null) batch.add(s);
+                }
 
-            for (Future<UploadSelection> f : futures) {
-                if (released) break;
-                try {
-                    UploadSelection s = f.get();
-                    if (s != null) result.add(s);
-                } catch (Exception ignored) {
+                /* ---------- deliver ---------- */
+                long now = SystemClock.elapsedRealtime();
+                boolean due = batch.size() >= batchSize || now - lastFlush >= FLUSH_INTERVAL_MS;
+                if (!batch.isEmpty() && due && !released) {
+                    delivered += deliver(batch, callback);
+                    batch = new ArrayList<>(batchSize);
+                    batchSize = Math.min(MAX_BATCH, batchSize * 2);
+                    lastFlush = now;
                 }
             }
-
-            if (released) return;
-
-            /* ===== SORT ONCE (DESC by momentMillis) ===== */
-            result.sort(Comparator.comparingLong((UploadSelection s) -> s.momentMillis).reversed());
-
-            callback.onResolved(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelInFlight();
+            return;
         }
+
+        if (released) return;
+        if (!batch.isEmpty() || delivered == 0) deliver(batch, callback);
     }
 
     public void release() {
         released = true;
+        cancelInFlight();
     }
 
     /* ================= Internal ================= */
 
+    private static int deliver(List<UploadSelection> batch, Callback callback) {
+        batch.sort(Comparator.comparingLong((UploadSelection s) -> s.momentMillis).reversed());
+        callback.onResolved(batch);
+        return batch.size();
+    }
+
+    private void cancelInFlight() {
+        for (Future<UploadSelection> f : inFlight) f.cancel(true);
+        inFlight.clear();
+    }
+
+    private static UploadSelection getQuietly(Future<UploadSelection> f) {
+        try {
+            return f.get();
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
     private UploadSelection resolveSingle(Uri uri) {
         if (released) return null;
         try {
@@ -2,6 +2,7 @@ package com.github.jaykkumar01.vaultspace.core.upload.helper;
 
 import com.github.jaykkumar01.vaultspace.core.upload.base.*;
 import com.github.jaykkumar01.vaultspace.core.upload.drive.UploadDriveHelper;
+import com.github.jaykkumar01.vaultspace.core.upload.scheduler.AccountScheduler;
 
 import java.util.concurrent.CancellationException;
 
@@ -19,8 +20,13 @@ public final class UploadTask implements Runnable {
 
     private final UploadDriveHelper helper;
     private final Callback cb;
+    private final UploadDispatcher dispatcher;
     private final CancelToken cancelToken;
 
+    /* assigned by the dispatcher before the task is started */
+    AccountScheduler.Reservation reservation;
+    volatile boolean uploaded;
+
     public UploadTask(
             UploadSelection s,
             UploadDriveHelper h,
@@ -33,6 +39,7 @@ public final class UploadTask implements Runnable {
         this.selection = s;
         this.helper = h;
         this.cb = cb;
+        this.dispatcher = dispatcher;
         this.cancelToken = () ->
                 dispatcher.currentGeneration(groupId) != generation;
     }
@@ -41,18 +48,34 @@ public final class UploadTask implements Runnable {
     public void run() {
         if (Thread.currentThread().isInterrupted()) return;
 
+        // seeded by the first callback: a resumed session starts at its committed offset
+        long[] lastUploaded = {-1L};
+
         try {
+            // already in this album: no bytes move, so the reservation is released uncommitted
+            UploadDriveHelper.VaultLookup lookup = helper.findVaultedCopy(reservation.email, selection, cancelToken);
+            if (lookup.copy() != null) {
+                if (cancelToken.isCancelled()) return;
+                cb.onSuccess(groupId, selection, lookup.copy());
+                return;
+            }
+
             UploadedItem item = helper.upload(
+                    reservation.email,
                     groupId,
                     selection,
+                    lookup.sha256(),
                     (u, t) -> {
                         if (cancelToken.isCancelled())
                             throw new CancellationException();
+                        if (lastUploaded[0] >= 0) dispatcher.onBytesTransferred(u - lastUploaded[0]);
+                        lastUploaded[0] = u;
                         cb.onProgress(uploadId, groupId, selection, u, t);
                     },
                     cancelToken
             );
 
+            uploaded = true;
             if (cancelToken.isCancelled()) return;
             cb.onSuccess(groupId, selection, item);
 
@@ -68,4 +91,15 @@ public final class UploadTask implements Runnable {
             throw e;
         }
     }
+
+    /** True once the task's group was cancelled or re-enqueued. */
+    boolean isStale() {
+        return cancelToken.isCancelled();
+    }
+
+    /** Reports a failure that happened before the task could start. */
+    void fail(FailureReason reason) {
+        if (cancelToken.isCancelled()) return;
+        cb.onFailure(groupId, selection, reason);
+    }
 }
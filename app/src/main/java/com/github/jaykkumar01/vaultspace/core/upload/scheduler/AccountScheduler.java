@@ -0,0 +1,179 @@
+package com.github.jaykkumar01.vaultspace.core.upload.scheduler;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.jaykkumar01.vaultspace.core.drive.TrustedAccountsRepository;
+import com.github.jaykkumar01.vaultspace.models.TrustedAccount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * AccountScheduler
+ *
+ * Chooses the trusted account for each upload and reserves its bytes
+ * until the upload settles, so parallel tasks never oversubscribe the
+ * same account.
+ *
+ * Slots are loaded from {@link TrustedAccountsRepository}'s snapshot and
+ * reloaded only when its account set changes; committed uploads are
+ * applied locally in between.
+ */
+public final class AccountScheduler {
+
+    private static final String TAG = "VaultSpace:AccountScheduler";
+
+    /* ================= Strategy ================= */
+
+    public enum Strategy {
+        FREE_SPACE_WEIGHTED,
+        LEAST_IN_FLIGHT,
+        BIN_PACKING;
+
+        PlacementPolicy newPolicy() {
+            return switch (this) {
+                case FREE_SPACE_WEIGHTED -> new FreeSpaceWeightedPolicy();
+                case LEAST_IN_FLIGHT -> new LeastInFlightPolicy();
+                case BIN_PACKING -> new BinPackingPolicy();
+            };
+        }
+    }
+
+    /* ================= Reservation ================= */
+
+    public static final class Reservation {
+        @NonNull
+        public final String email;
+        public final long bytes;
+        private boolean settled;
+
+        private Reservation(@NonNull String email, long bytes) {
+            this.email = email;
+            this.bytes = bytes;
+        }
+    }
+
+    /* ================= State ================= */
+
+    private final TrustedAccountsRepository accountsRepo;
+    private final PlacementPolicy policy;
+    private final Map<String, AccountSlot> slots = new HashMap<>();
+
+    private int loadedAccountsVersion = -1;
+
+    public AccountScheduler(@NonNull Context context, @NonNull Strategy strategy) {
+        accountsRepo = TrustedAccountsRepository.getInstance(context);
+        policy = strategy.newPolicy();
+    }
+
+    /* ================= Public API ================= */
+
+    /**
+     * Picks an account able to hold {@code bytes} and reserves them.
+     * Returns null when no account has room.
+     */
+    @Nullable
+    public Reservation reserve(long bytes) {
+        return reserve(bytes, Collections.emptySet());
+    }
+
+    /**
+     * Like {@link #reserve(long)}, but accounts in {@code busy} are only
+     * used when no other account has room. Lets the caller steer files
+     * away from accounts that cannot start them right now.
+     */
+    @Nullable
+    public synchronized Reservation reserve(long bytes, @NonNull Set<String> busy) {
+        reloadIfNeeded();
+
+        long need = Math.max(bytes, 0L);
+        List<AccountSlot> parked = new ArrayList<>(busy.size());
+        for (String email : busy) {
+            AccountSlot s = slots.get(email);
+            if (s == null) continue;
+            policy.detach(s);
+            parked.add(s);
+        }
+        AccountSlot slot = policy.pick(need);
+        for (AccountSlot s : parked) policy.attach(s);
+        if (slot == null && !parked.isEmpty()) slot = policy.pick(need);
+        if (slot == null) return null;
+
+        policy.detach(slot);
+        slot.reservedBytes += bytes;
+        policy.attach(slot);
+
+        Log.d(TAG, "reserve " + bytes + " -> " + slot.email + " available=" + slot.available());
+        return new Reservation(slot.email, bytes);
+    }
+
+    /**
+     * Reserves {@code bytes} on a specific account (e.g. to continue a
+     * resumable session there). Returns null if it is gone or full.
+     */
+    @Nullable
+    public synchronized Reservation reserveOn(@NonNull String email, long bytes) {
+        reloadIfNeeded();
+
+        AccountSlot slot = slots.get(email);
+        if (slot == null || slot.available() < bytes) return null;
+
+        policy.detach(slot);
+        slot.reservedBytes += bytes;
+        policy.attach(slot);
+        return new Reservation(slot.email, bytes);
+    }
+
+    /**
+     * Returns the reserved bytes. When {@code committed}, the bytes are
+     * also charged against the account's free space.
+     */
+    public synchronized void release(@Nullable Reservation r, boolean committed) {
+        if (r == null || r.settled) return;
+        r.settled = true;
+
+        AccountSlot slot = slots.get(r.email);
+        if (slot == null) return;
+
+        policy.detach(slot);
+        slot.reservedBytes = Math.max(0L, slot.reservedBytes - r.bytes);
+        // a reload since reserve may already count these bytes; charging them
+        // again only under-reports free space until the next reload
+        if (committed) slot.freeBytes -= r.bytes;
+        policy.attach(slot);
+    }
+
+    /* ================= Internal ================= */
+
+    private void reloadIfNeeded() {
+        int version = accountsRepo.getAccountsVersion();
+        if (version == loadedAccountsVersion) return;
+
+        Iterable<TrustedAccount> snapshot = accountsRepo.getAccountsSnapshot();
+
+        List<AccountSlot> list = new ArrayList<>();
+        Map<String, AccountSlot> previous = new HashMap<>(slots);
+        slots.clear();
+
+        for (TrustedAccount a : snapshot) {
+            if (a == null || a.email == null || slots.containsKey(a.email)) continue;
+            AccountSlot s = new AccountSlot(a.email, list.size(), a.totalQuota - a.usedQuota);
+            AccountSlot old = previous.get(a.email);
+            if (old != null) s.reservedBytes = old.reservedBytes;
+            slots.put(a.email, s);
+            list.add(s);
+        }
+
+        policy.reset(list);
+        loadedAccountsVersion = version;
+        Log.d(TAG, "loaded " + list.size() + " accounts");
+    }
+}
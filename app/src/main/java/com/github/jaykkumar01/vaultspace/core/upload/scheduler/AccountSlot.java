@@ -0,0 +1,24 @@
+package com.github.jaykkumar01.vaultspace.core.upload.scheduler;
+
+/**
+ * Mutable per-account placement state owned by {@link AccountScheduler}.
+ * Only touched while holding the scheduler lock.
+ */
+final class AccountSlot {
+
+    final String email;
+    final int index;
+
+    long freeBytes;
+    long reservedBytes;
+
+    AccountSlot(String email, int index, long freeBytes) {
+        this.email = email;
+        this.index = index;
+        this.freeBytes = freeBytes;
+    }
+
+    long available() {
+        return freeBytes - reservedBytes;
+    }
+}
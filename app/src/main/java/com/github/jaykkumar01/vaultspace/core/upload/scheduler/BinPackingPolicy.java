@@ -0,0 +1,44 @@
+package com.github.jaykkumar01.vaultspace.core.upload.scheduler;
+
+import androidx.annotation.Nullable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Best-fit placement: the account whose remaining space is the smallest
+ * that still fits the file. Keeps large holes free for large videos.
+ * O(log n) pick / update.
+ */
+final class BinPackingPolicy implements PlacementPolicy {
+
+    private static final Comparator<AccountSlot> BY_AVAILABLE =
+            Comparator.comparingLong(AccountSlot::available)
+                    .thenComparingInt(s -> s.index);
+
+    private final TreeSet<AccountSlot> byAvailable = new TreeSet<>(BY_AVAILABLE);
+
+    @Override
+    public void reset(List<AccountSlot> slots) {
+        byAvailable.clear();
+        byAvailable.addAll(slots);
+    }
+
+    @Nullable
+    @Override
+    public AccountSlot pick(long bytes) {
+        // index -1 sorts before every real slot with the same availability
+        return byAvailable.ceiling(new AccountSlot(null, -1, bytes));
+    }
+
+    @Override
+    public void detach(AccountSlot slot) {
+        byAvailable.remove(slot);
+    }
+
+    @Override
+    public void attach(AccountSlot slot) {
+        byAvailable.add(slot);
+    }
+}
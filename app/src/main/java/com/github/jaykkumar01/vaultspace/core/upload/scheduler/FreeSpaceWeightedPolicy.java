@@ -0,0 +1,79 @@
+package com.github.jaykkumar01.vaultspace.core.upload.scheduler;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random placement weighted by remaining space, so accounts fill at the
+ * same relative rate. Weights live in a Fenwick tree (O(log n) sample and
+ * update); if the sampled account cannot fit the file, falls back to best fit.
+ */
+final class FreeSpaceWeightedPolicy implements PlacementPolicy {
+
+    private final BinPackingPolicy fallback = new BinPackingPolicy();
+
+    private AccountSlot[] slots = new AccountSlot[0];
+    private long[] weights = new long[0];
+    private long[] tree = new long[1];
+    private long totalWeight;
+
+    @Override
+    public void reset(List<AccountSlot> list) {
+        int n = list.size();
+        slots = list.toArray(new AccountSlot[0]);
+        weights = new long[n];
+        tree = new long[n + 1];
+        totalWeight = 0L;
+        for (AccountSlot s : slots) setWeight(s.index, s.available());
+        fallback.reset(list);
+    }
+
+    @Nullable
+    @Override
+    public AccountSlot pick(long bytes) {
+        if (totalWeight <= 0) return null;
+
+        AccountSlot s = slots[find(ThreadLocalRandom.current().nextLong(totalWeight))];
+        if (s.available() >= bytes) return s;
+        return fallback.pick(bytes);
+    }
+
+    @Override
+    public void detach(AccountSlot slot) {
+        setWeight(slot.index, 0L);   // a detached slot is never sampled
+        fallback.detach(slot);
+    }
+
+    @Override
+    public void attach(AccountSlot slot) {
+        setWeight(slot.index, slot.available());
+        fallback.attach(slot);
+    }
+
+    /* ================= Fenwick ================= */
+
+    private void setWeight(int i, long w) {
+        w = Math.max(w, 0L);
+        long delta = w - weights[i];
+        if (delta == 0) return;
+        weights[i] = w;
+        totalWeight += delta;
+        for (int j = i + 1; j < tree.length; j += j & -j) tree[j] += delta;
+    }
+
+    /** Smallest index whose prefix sum exceeds {@code target}. */
+    private int find(long target) {
+        int n = tree.length - 1;
+        int pos = 0;
+        for (int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= n && tree[next] <= target) {
+                pos = next;
+                target -= tree[next];
+            }
+        }
+        return pos;
+    }
+}
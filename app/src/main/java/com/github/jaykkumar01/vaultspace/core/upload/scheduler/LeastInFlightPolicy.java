@@ -0,0 +1,130 @@
+package com.github.jaykkumar01.vaultspace.core.upload.scheduler;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Places each file on the account with the fewest bytes currently
+ * reserved by in-flight uploads, spreading parallel work across accounts.
+ *
+ * Slots sit in an AVL tree ordered by in-flight bytes, each subtree
+ * carrying the largest available space inside it, so pick descends
+ * straight to the least loaded slot that fits: O(log n) pick / update.
+ */
+final class LeastInFlightPolicy implements PlacementPolicy {
+
+    private static final Comparator<AccountSlot> BY_IN_FLIGHT =
+            Comparator.comparingLong((AccountSlot s) -> s.reservedBytes)
+                    .thenComparing(Comparator.comparingLong(AccountSlot::available).reversed())
+                    .thenComparingInt(s -> s.index);
+
+    /* ================= Nodes (immutable) ================= */
+
+    // slots only change while detached, so values read at construction stay valid
+    private static final class Node {
+        final AccountSlot slot;
+        final Node left, right;
+        final int height;
+        final long maxAvailable;
+
+        Node(AccountSlot slot, Node left, Node right) {
+            this.slot = slot;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.maxAvailable = Math.max(slot.available(), Math.max(maxAvailable(left), maxAvailable(right)));
+        }
+    }
+
+    private Node root;
+
+    /* ================= PlacementPolicy ================= */
+
+    @Override
+    public void reset(List<AccountSlot> slots) {
+        List<AccountSlot> sorted = new ArrayList<>(slots);
+        sorted.sort(BY_IN_FLIGHT);
+        root = build(sorted, 0, sorted.size());
+    }
+
+    @Nullable
+    @Override
+    public AccountSlot pick(long bytes) {
+        Node n = root;
+        while (n != null) {
+            if (maxAvailable(n.left) >= bytes) n = n.left;
+            else if (n.slot.available() >= bytes) return n.slot;
+            else if (maxAvailable(n.right) >= bytes) n = n.right;
+            else return null;
+        }
+        return null;
+    }
+
+    @Override
+    public void detach(AccountSlot slot) {
+        root = remove(root, slot);
+    }
+
+    @Override
+    public void attach(AccountSlot slot) {
+        root = insert(root, slot);
+    }
+
+    /* ================= Tree ================= */
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static long maxAvailable(Node n) {
+        return n == null ? Long.MIN_VALUE : n.maxAvailable;
+    }
+
+    private static Node build(List<AccountSlot> sorted, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node(sorted.get(mid), build(sorted, from, mid), build(sorted, mid + 1, to));
+    }
+
+    private static Node insert(Node n, AccountSlot s) {
+        if (n == null) return new Node(s, null, null);
+        int c = BY_IN_FLIGHT.compare(s, n.slot);
+        if (c < 0) return balance(n.slot, insert(n.left, s), n.right);
+        if (c > 0) return balance(n.slot, n.left, insert(n.right, s));
+        return new Node(s, n.left, n.right);
+    }
+
+    private static Node remove(Node n, AccountSlot s) {
+        if (n == null) return null;
+        int c = BY_IN_FLIGHT.compare(s, n.slot);
+        if (c < 0) return balance(n.slot, remove(n.left, s), n.right);
+        if (c > 0) return balance(n.slot, n.left, remove(n.right, s));
+
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+        Node min = n.right;
+        while (min.left != null) min = min.left;
+        return balance(min.slot, n.left, removeMin(n.right));
+    }
+
+    private static Node removeMin(Node n) {
+        if (n.left == null) return n.right;
+        return balance(n.slot, removeMin(n.left), n.right);
+    }
+
+    private static Node balance(AccountSlot s, Node l, Node r) {
+        int hl = height(l), hr = height(r);
+        if (hl > hr + 1) {
+            if (height(l.left) >= height(l.right)) return new Node(l.slot, l.left, new Node(s, l.right, r));
+            return new Node(l.right.slot, new Node(l.slot, l.left, l.right.left), new Node(s, l.right.right, r));
+        }
+        if (hr > hl + 1) {
+            if (height(r.right) >= height(r.left)) return new Node(r.slot, new Node(s, l, r.left), r.right);
+            return new Node(r.left.slot, new Node(s, l, r.left.left), new Node(r.slot, r.left.right, r.right));
+        }
+        return new Node(s, l, r);
+    }
+}
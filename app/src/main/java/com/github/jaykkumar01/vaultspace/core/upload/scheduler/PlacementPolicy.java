@@ -0,0 +1,23 @@
+package com.github.jaykkumar01.vaultspace.core.upload.scheduler;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Ordering strategy used by {@link AccountScheduler}.
+ *
+ * The scheduler always calls {@link #detach} before mutating a slot
+ * and {@link #attach} right after, so policies can keep sorted indexes.
+ */
+interface PlacementPolicy {
+
+    void reset(List<AccountSlot> slots);
+
+    @Nullable
+    AccountSlot pick(long bytes);
+
+    void detach(AccountSlot slot);
+
+    void attach(AccountSlot slot);
+}
@@ -7,6 +7,7 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 
+import com.github.jaykkumar01.vaultspace.core.drive.DriveChangeSync;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveClientProvider;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveFolderRepository;
 import com.github.jaykkumar01.vaultspace.models.AlbumInfo;
@@ -51,22 +52,11 @@ public final class AlbumsDriveHelper {
                 String rootId = DriveFolderRepository.getAlbumsRootId(appContext);
                 if (rootId == null) { post(() -> ok.call(List.of())); return; }
 
+                DriveChangeSync.get(appContext).ensureStartToken();   // before listing
                 List<File> files = albumsFetcher.fetchAll(rootId);
                 List<AlbumInfo> out = new ArrayList<>(files.size());
 
-                for (File f : files) {
-                    Map<String,String> props = f.getAppProperties();
-                    String coverId = props != null ? props.get(PROP_COVER) : null;
-                    String coverPath = coverResolver.resolve(coverId);
-
-                    out.add(new AlbumInfo(
-                            f.getId(),
-                            f.getName(),
-                            f.getCreatedTime().getValue(),
-                            f.getModifiedTime().getValue(),
-                            coverPath
-                    ));
-                }
+                for (File f : files) out.add(toAlbumInfo(f));
 
                 post(() -> ok.call(out));
 
@@ -77,6 +67,25 @@ public final class AlbumsDriveHelper {
     }
 
 
+    /**
+     * Album folder -> AlbumInfo, resolving its cover.
+     * Blocking; worker threads only (also used by the change sync).
+     */
+    public AlbumInfo toAlbumInfo(File f) throws Exception {
+        Map<String,String> props = f.getAppProperties();
+        String coverId = props != null ? props.get(PROP_COVER) : null;
+        String coverPath = coverResolver.resolve(coverId);
+
+        return new AlbumInfo(
+                f.getId(),
+                f.getName(),
+                f.getCreatedTime().getValue(),
+                f.getModifiedTime().getValue(),
+                coverPath
+        );
+    }
+
+
     /* ================= Create ================= */
 
     public void createAlbum(ExecutorService exec, String albumName, Success<AlbumInfo> ok, Failure err) {
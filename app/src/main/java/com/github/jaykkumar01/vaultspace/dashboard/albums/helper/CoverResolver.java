@@ -4,7 +4,8 @@ import android.content.Context;
 
 import androidx.annotation.Nullable;
 
-import com.github.jaykkumar01.vaultspace.core.drive.DriveClientProvider;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager.Partition;
 import com.google.api.services.drive.Drive;
 
 import java.io.File;
@@ -13,17 +14,14 @@ import java.io.OutputStream;
 
 public final class CoverResolver {
 
-    private static final String DIR_NAME = "album_covers";
-
     private final Drive drive;
+    private final DiskCacheManager diskCache;
     private final File coversDir;
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     public CoverResolver(Context context, Drive drive) {
-        Context app = context.getApplicationContext();
         this.drive = drive;
-        coversDir = new File(app.getCacheDir(), DIR_NAME);
-        if (!coversDir.exists()) coversDir.mkdirs();
+        this.diskCache = DiskCacheManager.get(context);
+        this.coversDir = diskCache.dir(Partition.COVERS);
     }
 
     @Nullable
@@ -31,12 +29,17 @@ public final class CoverResolver {
         if (coverFileId == null) return null;
 
         File out = new File(coversDir, coverFileId);
-        if (out.exists()) return out.getAbsolutePath();
+        if (out.exists()) {
+            diskCache.recordHit(Partition.COVERS, out.length());
+            return out.getAbsolutePath();
+        }
 
+        diskCache.recordMiss(Partition.COVERS);
         try (OutputStream os = new FileOutputStream(out)) {
             drive.files().get(coverFileId).executeMediaAndDownloadTo(os);
         }
 
+        diskCache.onWrite(Partition.COVERS, out);
         return out.getAbsolutePath();
     }
 
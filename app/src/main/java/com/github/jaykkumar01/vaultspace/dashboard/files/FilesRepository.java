@@ -4,12 +4,17 @@ import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
 
+import androidx.annotation.NonNull;
+
+import com.github.jaykkumar01.vaultspace.core.drive.DriveChangeSync;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveClientProvider;
 import com.github.jaykkumar01.vaultspace.core.session.UserSession;
 import com.github.jaykkumar01.vaultspace.core.session.cache.FilesCache;
 import com.github.jaykkumar01.vaultspace.dashboard.files.drive.FilesDriveHelper;
 import com.github.jaykkumar01.vaultspace.models.FileNode;
 import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.File;
 
 import java.util.*;
 import java.util.concurrent.Executor;
@@ -53,12 +58,18 @@ public final class FilesRepository {
     private final FilesDriveHelper driveHelper;
     private final Executor executor = Executors.newSingleThreadExecutor();
     private final FilesCache cache;
+    private final DriveChangeSync changeSync;
 
     private String rootId;
 
+    /** Folder on screen; the UI applies node deltas to it regardless of parent */
+    private volatile String openFolderId;
+
     private FilesRepository(Context c) {
         cache = new UserSession(c).getVaultCache().files;
         driveHelper = new FilesDriveHelper(c);
+        changeSync = DriveChangeSync.get(c);
+        changeSync.addSink(changeSink);
     }
 
     /* ================= Initialize ================= */
@@ -67,6 +78,7 @@ public final class FilesRepository {
         executor.execute(() -> {
             try {
                 rootId = driveHelper.resolveFilesRoot();
+                openFolderId = rootId;
 
                 if (!cache.isInitialized()) cache.initialize(rootId);
                 notifyReady();
@@ -75,6 +87,7 @@ public final class FilesRepository {
                     loadFolderFromDrive(rootId);
                 } else {
                     notifyFolder(rootId);
+                    changeSync.sync();   // cached: catch up on deltas, not a re-list
                 }
 
             } catch (Exception e) {
@@ -103,13 +116,65 @@ public final class FilesRepository {
 
     public void openFolder(String folderId) {
         if (folderId == null) return;
+        openFolderId = folderId;
 
         // 1️⃣ Always show cache instantly
         notifyFolder(folderId);
 
-        // 2️⃣ If not loaded → fetch from Drive
+        // 2️⃣ If not loaded → fetch from Drive, else catch up on deltas
         if (!cache.isFolderLoaded(folderId)) {
             loadFolderFromDrive(folderId);
+        } else {
+            changeSync.sync();
+        }
+    }
+
+    /* ================= Change sync ================= */
+
+    private final DriveChangeSync.ChangeSink changeSink = new DriveChangeSync.ChangeSink() {
+        @Override public void onChanges(@NonNull List<Change> changes) {
+            // serialized with every other cache write
+            executor.execute(() -> {
+                for (Change ch : changes) applyChange(ch);
+            });
+        }
+
+        @Override public void onResyncRequired() {
+            executor.execute(() -> {
+                cache.markAllStale();
+                String open = openFolderId;
+                if (open != null) loadFolderFromDrive(open);
+            });
+        }
+    };
+
+    /** Only loaded folders are touched; others list on open. */
+    private void applyChange(Change ch) {
+        String id = ch.getFileId();
+        if (id == null) return;
+
+        File f = ch.getFile();
+        boolean gone = Boolean.TRUE.equals(ch.getRemoved()) || f == null || Boolean.TRUE.equals(f.getTrashed());
+        String newParent = gone || f.getParents() == null || f.getParents().isEmpty() ? null : f.getParents().get(0);
+        boolean visible = newParent != null && cache.isFolderLoaded(newParent);
+
+        // removed, trashed or moved out
+        String oldParent = cache.getParent(id);
+        if (oldParent != null && (!visible || !oldParent.equals(newParent))) {
+            cache.deleteNode(id);
+            if (oldParent.equals(openFolderId)) notifyRemoved(oldParent, id);
+            oldParent = null;
+        }
+        if (!visible) return;
+
+        FileNode node = driveHelper.toNode(f);
+        boolean open = newParent.equals(openFolderId);
+
+        if (oldParent == null) {
+            if (cache.addNode(newParent, node) && open) notifyAdded(newParent, node);
+        } else if (!node.equals(cache.getNode(id))) {
+            cache.replaceNode(id, node);
+            if (open) notifyUpdated(newParent, node);
         }
     }
 
@@ -2,6 +2,7 @@ package com.github.jaykkumar01.vaultspace.dashboard.files.drive;
 
 import android.content.Context;
 import androidx.annotation.NonNull;
+import com.github.jaykkumar01.vaultspace.core.drive.DriveChangeSync;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveClientProvider;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveFolderRepository;
 import com.github.jaykkumar01.vaultspace.models.FileNode;
@@ -49,6 +50,7 @@ public final class FilesDriveHelper {
         executor.execute(() -> {
             try {
                 Drive drive = DriveClientProvider.getPrimaryDrive(context);
+                DriveChangeSync.get(context).ensureStartToken();   // before listing
                 List<FileNode> result = fetchChildrenOf(drive, parentId);
                 ok.call(result);
             } catch (Exception e) {
@@ -111,7 +113,7 @@ public final class FilesDriveHelper {
         return toNode(updated);
     }
 
-    private FileNode toNode(File f) {
+    public FileNode toNode(File f) {
         long size = f.getSize() == null ? 0L : f.getSize();
         long modified = f.getModifiedTime() == null ? 0L : f.getModifiedTime().getValue();
         return new FileNode(f.getId(), f.getName(), f.getMimeType(), size, modified);
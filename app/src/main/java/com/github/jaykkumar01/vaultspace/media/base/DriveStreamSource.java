@@ -7,6 +7,11 @@ public interface DriveStreamSource {
 
     StreamSession open(long position) throws IOException;
 
+    /** Opens at most {@code length} bytes; sources without range ends may return more. */
+    default StreamSession open(long position, long length) throws IOException {
+        return open(position);
+    }
+
     interface StreamSession {
         InputStream stream();
         long length();     // exact bytes available from this open
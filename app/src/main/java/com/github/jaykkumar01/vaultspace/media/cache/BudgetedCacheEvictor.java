@@ -0,0 +1,85 @@
+package com.github.jaykkumar01.vaultspace.media.cache;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.cache.Cache;
+import androidx.media3.datasource.cache.CacheEvictor;
+import androidx.media3.datasource.cache.CacheSpan;
+
+import java.util.TreeSet;
+
+/**
+ * Least-recently-used evictor whose limit can move after the cache is
+ * built. LeastRecentlyUsedCacheEvictor fixes its size at construction;
+ * this one follows the VIDEO partition budget as free storage changes.
+ *
+ * Span callbacks run under the SimpleCache lock; only the limit is
+ * written from outside, so it is the only volatile field.
+ */
+@UnstableApi
+final class BudgetedCacheEvictor implements CacheEvictor {
+
+    /* ---------------- STATE ---------------- */
+
+    private final TreeSet<CacheSpan> leastRecentlyUsed = new TreeSet<>(BudgetedCacheEvictor::compare);
+    private volatile long maxBytes;
+    private long currentSize;
+
+    BudgetedCacheEvictor(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** Takes effect on the next write; the budget manager trims right away if needed. */
+    void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /* ---------------- CACHE EVICTOR ---------------- */
+
+    @Override
+    public boolean requiresCacheSpanTouches() {
+        return true;
+    }
+
+    @Override
+    public void onCacheInitialized() {
+    }
+
+    @Override
+    public void onStartFile(@NonNull Cache cache, @NonNull String key, long position, long length) {
+        if (length != C.LENGTH_UNSET) evictCache(cache, length);
+    }
+
+    @Override
+    public void onSpanAdded(@NonNull Cache cache, @NonNull CacheSpan span) {
+        leastRecentlyUsed.add(span);
+        currentSize += span.length;
+        evictCache(cache, 0);
+    }
+
+    @Override
+    public void onSpanRemoved(@NonNull Cache cache, @NonNull CacheSpan span) {
+        leastRecentlyUsed.remove(span);
+        currentSize -= span.length;
+    }
+
+    @Override
+    public void onSpanTouched(@NonNull Cache cache, @NonNull CacheSpan oldSpan, @NonNull CacheSpan newSpan) {
+        onSpanRemoved(cache, oldSpan);
+        onSpanAdded(cache, newSpan);
+    }
+
+    /* ---------------- INTERNAL ---------------- */
+
+    private void evictCache(Cache cache, long requiredSpace) {
+        while (currentSize + requiredSpace > maxBytes && !leastRecentlyUsed.isEmpty())
+            cache.removeSpan(leastRecentlyUsed.first());
+    }
+
+    private static int compare(CacheSpan a, CacheSpan b) {
+        if (a.lastTouchTimestamp != b.lastTouchTimestamp)
+            return a.lastTouchTimestamp < b.lastTouchTimestamp ? -1 : 1;
+        return a.compareTo(b);
+    }
+}
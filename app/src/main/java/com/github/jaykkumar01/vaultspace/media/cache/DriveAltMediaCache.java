@@ -10,10 +10,16 @@ import androidx.media3.database.StandaloneDatabaseProvider;
 import androidx.media3.datasource.DataSource;
 import androidx.media3.datasource.cache.Cache;
 import androidx.media3.datasource.cache.CacheDataSource;
-import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor;
+import androidx.media3.datasource.cache.CacheSpan;
 import androidx.media3.datasource.cache.SimpleCache;
 
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager.Partition;
+
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 @UnstableApi
 public final class DriveAltMediaCache {
@@ -21,8 +27,6 @@ public final class DriveAltMediaCache {
     /* ---------------- CONSTANTS ---------------- */
 
     private static final String TAG = "DriveAltMediaCache";
-    private static final String CACHE_DIR_NAME = "exo_drive_altmedia_cache";
-    private static final long MAX_CACHE_BYTES = 120L * 1024L * 1024L;
 
     /* ---------------- SINGLETON CACHE ---------------- */
 
@@ -31,29 +35,50 @@ public final class DriveAltMediaCache {
     /* ---------------- CORE ---------------- */
 
     private final Context context;
+    private final DiskCacheManager budgets;
 
     public DriveAltMediaCache(@NonNull Context context) {
         this.context = context.getApplicationContext();
+        this.budgets = DiskCacheManager.get(this.context);
     }
 
     /* ---------------- CACHE INIT ---------------- */
 
-    private synchronized Cache getCache() {
-        if (cache != null) return cache;
-
-        File dir = new File(context.getCacheDir(), CACHE_DIR_NAME);
-
-        Log.d(TAG, "Initializing cache at: " + dir.getAbsolutePath());
-        Log.d(TAG, "Max cache size: " + (MAX_CACHE_BYTES / (1024 * 1024)) + " MB");
-
-        DatabaseProvider db = new StandaloneDatabaseProvider(context);
-        cache = new SimpleCache(
-                dir,
-                new LeastRecentlyUsedCacheEvictor(MAX_CACHE_BYTES),
-                db
-        );
-
-        return cache;
+    private Cache getCache() {
+        // the SimpleCache is shared by every instance, so is its lock;
+        // a second SimpleCache on the same folder would throw
+        synchronized (DriveAltMediaCache.class) {
+            if (cache != null) return cache;
+
+            File dir = budgets.dir(Partition.VIDEO);
+            long maxBytes = budgets.budget(Partition.VIDEO);
+
+            Log.d(TAG, "Initializing cache at: " + dir.getAbsolutePath());
+            Log.d(TAG, "Max cache size: " + (maxBytes / (1024 * 1024)) + " MB");
+
+            DatabaseProvider db = new StandaloneDatabaseProvider(context);
+            BudgetedCacheEvictor evictor = new BudgetedCacheEvictor(maxBytes);
+            cache = new SimpleCache(
+                    dir,
+                    evictor,
+                    db
+            );
+
+            SimpleCache owned = cache;
+            budgets.register(Partition.VIDEO, new DiskCacheManager.Evictable() {
+                @Override public long usedBytes() {
+                    return owned.getCacheSpace();
+                }
+                @Override public long evict(long bytes) {
+                    return evictOldestSpans(owned, bytes);
+                }
+                @Override public void onBudgetChanged(long budget) {
+                    evictor.setMaxBytes(budget);
+                }
+            });
+
+            return cache;
+        }
     }
 
     /* ---------------- CACHE DATASOURCE WRAP ---------------- */
@@ -67,7 +92,37 @@ public final class DriveAltMediaCache {
                 .setCache(getCache())
                 .setCacheKeyFactory(spec -> fileId) // stable per media file
                 .setUpstreamDataSourceFactory(upstream)
-                .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR);
+                .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR)
+                .setEventListener(new CacheDataSource.EventListener() {
+                    @Override public void onCachedBytesRead(long cacheSizeBytes, long cachedBytesRead) {
+                        budgets.recordHit(Partition.VIDEO, cachedBytesRead);
+                    }
+                    @Override public void onCacheIgnored(int reason) {
+                    }
+                });
+    }
+
+    /* ---------------- CACHE QUERIES ---------------- */
+
+    /** Bytes of [position, position + length) already cached for {@code fileId}. */
+    public long cachedBytes(@NonNull String fileId, long position, long length) {
+        return getCache().getCachedBytes(fileId, position, length);
+    }
+
+    /* ---------------- PRESSURE EVICTION ---------------- */
+
+    private static long evictOldestSpans(SimpleCache c, long bytes) {
+        List<CacheSpan> spans = new ArrayList<>();
+        for (String key : c.getKeys()) spans.addAll(c.getCachedSpans(key));
+        spans.sort(Comparator.comparingLong(s -> s.lastTouchTimestamp));
+
+        long freed = 0;
+        for (CacheSpan span : spans) {
+            if (freed >= bytes) break;
+            c.removeSpan(span);
+            freed += span.length;
+        }
+        return freed;
     }
 
     /* ---------------- RELEASE ---------------- */
@@ -0,0 +1,94 @@
+package com.github.jaykkumar01.vaultspace.media.cache;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.CacheWriter;
+
+import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
+import com.github.jaykkumar01.vaultspace.media.datasource.DriveRangeDataSource;
+import com.github.jaykkumar01.vaultspace.utils.Mp4LayoutAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fast start for MP4s whose moov atom sits at the end of the file
+ * (typical for phone recordings). The head and the moov are fetched in
+ * parallel into {@link DriveAltMediaCache} before prepare, so ExoPlayer
+ * finds both cached instead of discovering the moov after the head.
+ *
+ * Guarantees:
+ * - Only runs with a layout stored at upload ("vs_mp4_layout")
+ * - Bounded by WARM_TIMEOUT_MS; playback then proceeds as usual
+ * - Already-cached ranges are not fetched again
+ */
+@UnstableApi
+public final class Mp4FastStart {
+
+    private static final String TAG = "Video:FastStart";
+    private static final String SCHEME = "vaultspace://drive/";
+    private static final long WARM_TIMEOUT_MS = 4000;
+
+    private static final ExecutorService pool = Executors.newFixedThreadPool(2);
+
+    private Mp4FastStart() {
+    }
+
+    /** True when {@link #warm} would fetch anything. */
+    public static boolean applies(@NonNull AlbumMedia media) {
+        Mp4LayoutAnalyzer.Result layout = Mp4LayoutAnalyzer.decode(media.mp4Layout, media.sizeBytes);
+        return layout != null && layout.moovAtTail;
+    }
+
+    /** Blocking; call off the main thread. Returns once both ranges are cached or on timeout. */
+    public static void warm(@NonNull Context context, @NonNull DriveAltMediaCache cache, @NonNull AlbumMedia media) {
+        Mp4LayoutAnalyzer.Result layout = Mp4LayoutAnalyzer.decode(media.mp4Layout, media.sizeBytes);
+        if (layout == null || !layout.moovAtTail) return;
+
+        Context app = context.getApplicationContext();
+        CacheDataSource.Factory factory = cache.wrap(media.fileId,
+                () -> new DriveRangeDataSource(app, media.fileId));
+        Uri uri = Uri.parse(SCHEME + media.fileId);
+
+        long startMs = SystemClock.elapsedRealtime();
+        List<CacheWriter> writers = new ArrayList<>(2);
+        List<Future<?>> futures = new ArrayList<>(2);
+
+        for (DataSpec spec : new DataSpec[]{
+                new DataSpec(uri, 0, layout.headRequiredBytes),
+                new DataSpec(uri, layout.moovStart, layout.tailRequiredBytes)
+        }) {
+            CacheWriter w = new CacheWriter(factory.createDataSource(), spec, null, null);
+            writers.add(w);
+            futures.add(pool.submit(() -> {
+                w.cache();
+                return null;
+            }));
+        }
+
+        try {
+            long deadline = startMs + WARM_TIMEOUT_MS;
+            for (Future<?> f : futures)
+                f.get(Math.max(0, deadline - SystemClock.elapsedRealtime()), TimeUnit.MILLISECONDS);
+            Log.d(TAG, "warmed fileId=" + media.fileId
+                    + " head=" + layout.headRequiredBytes
+                    + " moov=" + layout.tailRequiredBytes
+                    + " in " + (SystemClock.elapsedRealtime() - startMs) + "ms");
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            for (CacheWriter w : writers) w.cancel();
+            Log.w(TAG, "warm-up skipped fileId=" + media.fileId + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.jaykkumar01.vaultspace.media.cache;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.TransferListener;
+import androidx.media3.datasource.cache.CacheWriter;
+
+import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
+import com.github.jaykkumar01.vaultspace.media.datasource.DriveRangeDataSource;
+import com.github.jaykkumar01.vaultspace.utils.Mp4LayoutAnalyzer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pre-caches the opening seconds of neighbouring videos into
+ * {@link DriveAltMediaCache}, so swiping to them starts warm.
+ *
+ * Guarantees:
+ * - One job at a time; a new request cancels the previous one
+ * - Throttled to MAX_BYTES_PER_SEC so the playing video keeps the link
+ * - At most BUDGET_BYTES written per request, counting only uncached bytes
+ * - Tail-moov files get their moov too (see {@link Mp4FastStart})
+ */
+@UnstableApi
+public final class VideoPrecacher {
+
+    private static final String TAG = "Video:Precache";
+    private static final String SCHEME = "vaultspace://drive/";
+
+    private static final long HEAD_SECONDS = 5;
+    private static final long MIN_HEAD_BYTES = 512 * 1024;
+    private static final long MAX_HEAD_BYTES = 6L * 1024 * 1024;
+    private static final long BUDGET_BYTES = 16L * 1024 * 1024;
+    private static final long MAX_BYTES_PER_SEC = 2L * 1024 * 1024;
+
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+    private final Context appContext;
+    private final DriveAltMediaCache cache;
+
+    private Future<?> job;
+    private volatile CacheWriter active;
+
+    public VideoPrecacher(@NonNull Context context, @NonNull DriveAltMediaCache cache) {
+        this.appContext = context.getApplicationContext();
+        this.cache = cache;
+    }
+
+    /* ================= Public API ================= */
+
+    /** Replaces any pending work with {@code media}, nearest first; non-videos are skipped. */
+    public synchronized void precache(@NonNull List<AlbumMedia> media) {
+        cancel();
+        List<AlbumMedia> videos = new ArrayList<>(media.size());
+        for (AlbumMedia m : media) if (m != null && m.isVideo && m.sizeBytes > 0) videos.add(m);
+        if (!videos.isEmpty()) job = worker.submit(() -> run(videos));
+    }
+
+    public synchronized void cancel() {
+        if (job != null) job.cancel(true);
+        job = null;
+        CacheWriter w = active;
+        if (w != null) w.cancel();
+    }
+
+    /* ================= Internal ================= */
+
+    private void run(List<AlbumMedia> videos) {
+        long budget = BUDGET_BYTES;
+
+        for (AlbumMedia m : videos) {
+            for (DataSpec spec : rangesFor(m)) {
+                if (Thread.currentThread().isInterrupted()) return;
+
+                long missing = spec.length - cache.cachedBytes(m.fileId, spec.position, spec.length);
+                if (missing <= 0) continue;
+                if (missing > budget) {
+                    Log.d(TAG, "budget exhausted before fileId=" + m.fileId);
+                    return;
+                }
+
+                if (!write(m, spec)) return;
+                budget -= missing;
+            }
+        }
+    }
+
+    private boolean write(AlbumMedia m, DataSpec spec) {
+        DataSource upstream = new ThrottledDataSource(new DriveRangeDataSource(appContext, m.fileId));
+        CacheWriter w = new CacheWriter(cache.wrap(m.fileId, () -> upstream).createDataSource(), spec, null, null);
+        active = w;
+        try {
+            w.cache();
+            Log.d(TAG, "cached fileId=" + m.fileId + " @" + spec.position + "+" + spec.length);
+            return true;
+        } catch (InterruptedIOException e) {
+            return false;
+        } catch (IOException e) {
+            Log.w(TAG, "precache failed fileId=" + m.fileId + ": " + e.getMessage());
+            return true;   // next neighbour may still work
+        } finally {
+            active = null;
+        }
+    }
+
+    /** First HEAD_SECONDS of playback (by average bitrate), plus a tail moov. */
+    private static List<DataSpec> rangesFor(AlbumMedia m) {
+        Uri uri = Uri.parse(SCHEME + m.fileId);
+        List<DataSpec> out = new ArrayList<>(2);
+
+        long head = m.durationMillis > 0
+                ? m.sizeBytes * HEAD_SECONDS * 1000 / m.durationMillis
+                : MAX_HEAD_BYTES;
+        head = Math.min(m.sizeBytes, Math.max(MIN_HEAD_BYTES, Math.min(MAX_HEAD_BYTES, head)));
+        out.add(new DataSpec(uri, 0, head));
+
+        Mp4LayoutAnalyzer.Result layout = Mp4LayoutAnalyzer.decode(m.mp4Layout, m.sizeBytes);
+        if (layout != null && layout.moovAtTail && layout.moovStart >= head)
+            out.add(new DataSpec(uri, layout.moovStart, layout.tailRequiredBytes));
+        return out;
+    }
+
+    /* ================= Throttle ================= */
+
+    /** Paces reads to MAX_BYTES_PER_SEC, measured from open(). */
+    private static final class ThrottledDataSource implements DataSource {
+
+        private final DataSource upstream;
+        private long openedAt;
+        private long transferred;
+
+        ThrottledDataSource(DataSource upstream) {
+            this.upstream = upstream;
+        }
+
+        @Override
+        public long open(@NonNull DataSpec spec) throws IOException {
+            openedAt = SystemClock.elapsedRealtime();
+            transferred = 0;
+            return upstream.open(spec);
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            long earliest = openedAt + transferred * 1000 / MAX_BYTES_PER_SEC;
+            long wait = earliest - SystemClock.elapsedRealtime();
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+
+            int read = upstream.read(buffer, offset, length);
+            if (read != C.RESULT_END_OF_INPUT) transferred += read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            upstream.close();
+        }
+
+        @Override public void addTransferListener(@NonNull TransferListener listener) {}
+        @Override public @Nullable Uri getUri() { return upstream.getUri(); }
+        @Override public @NonNull Map<String, List<String>> getResponseHeaders() { return upstream.getResponseHeaders(); }
+    }
+}
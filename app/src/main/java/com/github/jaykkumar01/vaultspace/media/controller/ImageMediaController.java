@@ -20,6 +20,7 @@ public final class ImageMediaController {
     private MediaLoadCallback callback;
     private Bitmap fullBitmap;
     private boolean released;
+    private String currentFileId;   // late results for a previous item are dropped
 
     public ImageMediaController(@NonNull Context context, @NonNull VaultImageView imageView, MediaLoadCallback callback) {
         this.imageView = imageView;
@@ -30,6 +31,7 @@ public final class ImageMediaController {
 
     public void show(@NonNull AlbumMedia media) {
         released = false;
+        currentFileId = media.fileId;
         if (callback != null) callback.onMediaLoading("Loading image…");
 
         driveHelper.loadOriginalBitmap(
@@ -40,7 +42,7 @@ public final class ImageMediaController {
                     public void onReady(@NonNull Bitmap bmp) {
                         Bitmap out = rotateIfNeeded(bmp, media.rotation);
                         imageView.post(() -> {
-                            if (released) return;
+                            if (released || !media.fileId.equals(currentFileId)) return;
                             replaceWithOriginal(out);
                             if (callback != null) callback.onMediaReady();
                         });
@@ -48,13 +50,19 @@ public final class ImageMediaController {
 
                     @Override
                     public void onError(@NonNull Exception e) {
-                        if (released) return;
+                        if (released || !media.fileId.equals(currentFileId)) return;
                         if (callback != null) callback.onMediaError(e);
                     }
                 }
         );
     }
 
+    /** Hides the current image; the controller stays usable for the next one. */
+    public void hide() {
+        currentFileId = null;
+        imageView.setVisibility(View.GONE);
+    }
+
     public void release() {
         released = true;
         if (fullBitmap != null && !fullBitmap.isRecycled()) {
@@ -20,9 +20,13 @@ import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.exoplayer.source.ProgressiveMediaSource;
 import androidx.media3.ui.PlayerView;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
 import com.github.jaykkumar01.vaultspace.media.base.MediaLoadCallback;
 import com.github.jaykkumar01.vaultspace.media.cache.DriveAltMediaCache;
+import com.github.jaykkumar01.vaultspace.media.cache.Mp4FastStart;
 import com.github.jaykkumar01.vaultspace.media.datasource.DriveDataSource;
 
 @UnstableApi
@@ -30,6 +34,7 @@ public final class VideoMediaController {
 
     private static final String TAG = "Video:MediaController";
     private static final String SCHEME = "vaultspace://drive/";
+    private static final ExecutorService warmup = Executors.newSingleThreadExecutor();
 
     /* ---------------- CORE ---------------- */
 
@@ -45,6 +50,7 @@ public final class VideoMediaController {
 
     private boolean playWhenReady = true;
     private long resumePosition = 0L;
+    private boolean preparePending;   // fast-start warm-up in flight
 
     /* ---------------- DATA PIPELINE ---------------- */
 
@@ -71,10 +77,15 @@ public final class VideoMediaController {
     public void show(@NonNull AlbumMedia media) {
 
         Log.d(TAG, "show(" + media.fileId + ")");
+        if (this.media != null && !this.media.fileId.equals(media.fileId)) {
+            resumePosition = 0L;
+            playWhenReady = true;
+        }
         this.media = media;
 
         /* ---- Playback DataSource ---- */
 
+        if (driveSource != null) driveSource.onPlayerRelease();
         driveSource = new DriveDataSource(context, media);
         DataSource.Factory playbackUpstream = () -> driveSource;
         cacheFactory = cache.wrap(media.fileId, playbackUpstream);
@@ -82,11 +93,33 @@ public final class VideoMediaController {
     }
 
 
+    /** Stops the current video; the controller stays usable for the next one. */
+    public void hide() {
+        releasePlayer();
+        if (driveSource != null) driveSource.onPlayerRelease();
+        view.setVisibility(GONE);
+    }
+
     public void onStart() {
-        if (player != null || media == null) return;
+        if (player != null || media == null || preparePending) return;
 
         callback.onMediaLoading("Loading video…");
-        preparePlayer();
+
+        if (!Mp4FastStart.applies(media)) {
+            preparePlayer();
+            return;
+        }
+
+        AlbumMedia target = media;
+        preparePending = true;
+        warmup.execute(() -> {
+            Mp4FastStart.warm(context, cache, target);
+            main.post(() -> {
+                if (!preparePending || media != target || player != null) return;
+                preparePending = false;
+                preparePlayer();
+            });
+        });
     }
 
     public void onResume() {
@@ -150,6 +183,7 @@ public final class VideoMediaController {
 
     private void releasePlayer() {
 
+        preparePending = false;
         if (player == null) return;
 
         driveSource.onPlayerRelease();
@@ -13,14 +13,20 @@ import androidx.media3.datasource.DataSpec;
 import androidx.media3.datasource.TransferListener;
 
 import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager;
 import com.github.jaykkumar01.vaultspace.media.base.DriveStreamSource;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Reads Drive media through a {@link ReadAheadBuffer}, so ExoPlayer reads
+ * are served from memory while a background reader stays ahead of them.
+ * The buffer outlives close(): a re-open near the buffered range (small
+ * seeks, the next load after a cache hit) reuses the in-flight request.
+ */
 @UnstableApi
 public final class DriveDataSource implements DataSource {
 
@@ -30,6 +36,7 @@ public final class DriveDataSource implements DataSource {
 
     private final DriveStreamSource source;
     private final AlbumMedia media;
+    private final DiskCacheManager diskCache;
 
     /* ---------------- TIMING ---------------- */
 
@@ -37,18 +44,22 @@ public final class DriveDataSource implements DataSource {
 
     /* ---------------- SESSION ---------------- */
 
-    private DriveStreamSource.StreamSession session;
-    private InputStream stream;
+    private ReadAheadBuffer buffer;
+    private boolean opened;
 
     /* ---------------- STATE ---------------- */
 
     private @Nullable Uri uri;
     private long openPosition;
     private long bytesRead;
+    private long bytesRemaining;
+    private long fileLength = C.LENGTH_UNSET;
+    private int reuseCount;
 
     public DriveDataSource(Context context, AlbumMedia media) {
         this.media = media;
         this.source = new DriveOkHttpSource(context, media.fileId);
+        this.diskCache = DiskCacheManager.get(context);
         this.startNs = System.nanoTime();
         Log.d(TAG, "INIT fileId=" + media.fileId + " size=" + media.sizeBytes);
     }
@@ -62,13 +73,27 @@ public final class DriveDataSource implements DataSource {
         openPosition = spec.position;
         bytesRead = 0;
 
-        Log.d(TAG, "OPEN @" + openPosition + " fileId=" + media.fileId);
-
-        session = source.open(openPosition);
-        stream = session.stream();
-
-        long length = session.length();
-        return length >= 0 ? length : C.LENGTH_UNSET;
+        if (buffer != null && buffer.covers(openPosition)) {
+            reuseCount++;
+            Log.d(TAG, "REUSE @" + openPosition + " fileId=" + media.fileId);
+        } else {
+            Log.d(TAG, "OPEN @" + openPosition + " fileId=" + media.fileId);
+            diskCache.recordMiss(DiskCacheManager.Partition.VIDEO);
+            if (buffer != null) buffer.close();
+            buffer = null;
+
+            DriveStreamSource.StreamSession session = source.open(openPosition);
+            long length = session.length();
+            fileLength = length >= 0 ? openPosition + length : C.LENGTH_UNSET;
+            buffer = new ReadAheadBuffer(session, openPosition);
+        }
+
+        buffer.seek(openPosition);
+        opened = true;
+
+        long available = fileLength == C.LENGTH_UNSET ? C.LENGTH_UNSET : fileLength - openPosition;
+        bytesRemaining = spec.length != C.LENGTH_UNSET ? spec.length : available;
+        return bytesRemaining;
     }
 
     /* ========================= READ ========================= */
@@ -76,15 +101,19 @@ public final class DriveDataSource implements DataSource {
     @Override
     public int read(@NonNull byte[] target, int offset, int length) throws IOException {
 
-        if (stream == null)
+        if (!opened || length == 0)
+            return length == 0 ? 0 : C.RESULT_END_OF_INPUT;
+        if (bytesRemaining == 0)
             return C.RESULT_END_OF_INPUT;
 
-        int read = stream.read(target, offset, length);
+        int max = bytesRemaining == C.LENGTH_UNSET ? length : (int) Math.min(length, bytesRemaining);
+        int read = buffer.read(target, offset, max);
 
         if (read == -1)
             return C.RESULT_END_OF_INPUT;
 
         bytesRead += read;
+        if (bytesRemaining != C.LENGTH_UNSET) bytesRemaining -= read;
         return read;
     }
 
@@ -93,8 +122,8 @@ public final class DriveDataSource implements DataSource {
     @Override
     public void close() {
 
-        try { if (stream != null) stream.close(); } catch (Exception ignored) {}
-        try { if (session != null) session.cancel(); } catch (Exception ignored) {}
+        // keep reading ahead; the next open() may pick up where this left off
+        if (buffer != null) buffer.park();
 
         Log.d(TAG,
                 "CLOSE @" + openPosition +
@@ -102,8 +131,7 @@ public final class DriveDataSource implements DataSource {
                         " bytesRead=" + bytesRead
         );
 
-        stream = null;
-        session = null;
+        opened = false;
         uri = null;
     }
 
@@ -111,12 +139,14 @@ public final class DriveDataSource implements DataSource {
 
     public void onPlayerReady() {
         long readyMs = (System.nanoTime() - startNs) / 1_000_000;
-        Log.d(TAG, "PLAYER READY fileId=" + media.fileId + " timeToReadyMs=" + readyMs);
+        Log.d(TAG, "PLAYER READY fileId=" + media.fileId + " timeToReadyMs=" + readyMs + " reused=" + reuseCount);
     }
 
     /* ========================= RELEASE ========================= */
 
     public void onPlayerRelease() {
+        if (buffer != null) buffer.close();
+        buffer = null;
     }
 
     /* ========================= MISC ========================= */
@@ -4,7 +4,7 @@ import android.content.Context;
 
 import androidx.annotation.NonNull;
 
-import com.github.jaykkumar01.vaultspace.core.auth.DriveAuthGate;
+import com.github.jaykkumar01.vaultspace.core.auth.DriveTokenManager;
 import com.github.jaykkumar01.vaultspace.media.base.DriveStreamSource;
 
 import java.io.IOException;
@@ -21,7 +21,7 @@ final class DriveHttpSource implements DriveStreamSource {
     private final String fileId;
     private final Context appContext;
 
-    // Token cached per instance
+    // token sent with the last request, so a 401 can name the stale one
     private String token;
 
     DriveHttpSource(Context context, String fileId) {
@@ -41,7 +41,6 @@ final class DriveHttpSource implements DriveStreamSource {
         // If token expired, retry once with fresh token
         if (code == HttpURLConnection.HTTP_UNAUTHORIZED) {
             conn.disconnect();
-            token = null;
             conn = buildConnection(position, true);
             code = conn.getResponseCode();
         }
@@ -80,9 +79,8 @@ final class DriveHttpSource implements DriveStreamSource {
     @NonNull
     private HttpURLConnection buildConnection(long position, boolean forceRefreshToken) throws IOException {
 
-        if (token == null || forceRefreshToken) {
-            token = DriveAuthGate.get(appContext).getToken();
-        }
+        DriveTokenManager tokens = DriveTokenManager.primary(appContext);
+        token = forceRefreshToken ? tokens.refreshAfterFailure(token) : tokens.getToken();
 
         URL url = new URL(BASE_URL + fileId + "?alt=media");
         HttpURLConnection conn = (HttpURLConnection) url.openConnection();
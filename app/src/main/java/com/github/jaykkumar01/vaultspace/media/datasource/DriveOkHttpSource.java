@@ -4,45 +4,29 @@ import android.content.Context;
 
 import androidx.annotation.NonNull;
 
-import com.github.jaykkumar01.vaultspace.core.auth.DriveAuthGate;
+import com.github.jaykkumar01.vaultspace.core.auth.DriveTokenManager;
+import com.github.jaykkumar01.vaultspace.core.drive.DriveHttpClient;
 import com.github.jaykkumar01.vaultspace.media.base.DriveStreamSource;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
-import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
-import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
 
 final class DriveOkHttpSource implements DriveStreamSource {
 
     private static final String BASE_URL = "https://www.googleapis.com/drive/v3/files/";
-    private static final int CONNECT_TIMEOUT_MS = 6000;
-    private static final int READ_TIMEOUT_MS = 15000;
-
-    /* ---------------- SHARED HTTP/2 CLIENT ---------------- */
-
-    private static final ConnectionPool CONNECTION_POOL =
-            new ConnectionPool(8, 5, TimeUnit.MINUTES);
-
-    private static final OkHttpClient CLIENT = new OkHttpClient.Builder()
-            .connectTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
-            .readTimeout(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
-            .connectionPool(CONNECTION_POOL)
-            .protocols(java.util.Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
-            .retryOnConnectionFailure(true)
-            .build();
+    private static final OkHttpClient CLIENT = DriveHttpClient.get();
 
 
     /* ---------------- CORE ---------------- */
 
     private final Context appContext;
     private final String fileId;
-    private String token;
+    private String token;   // sent with the last request
 
     DriveOkHttpSource(@NonNull Context context, @NonNull String fileId) {
         this.appContext = context.getApplicationContext();
@@ -53,14 +37,18 @@ final class DriveOkHttpSource implements DriveStreamSource {
 
     @Override
     public StreamSession open(long position) throws IOException {
+        return open(position, -1);
+    }
+
+    @Override
+    public StreamSession open(long position, long rangeLength) throws IOException {
 
-        Call call = newCall(position, false);
+        Call call = newCall(position, rangeLength, false);
         Response response = call.execute();
 
         if (response.code() == 401) {
             response.close();
-            token = null;
-            call = newCall(position, true);
+            call = newCall(position, rangeLength, true);
             response = call.execute();
         }
 
@@ -69,22 +57,22 @@ final class DriveOkHttpSource implements DriveStreamSource {
 
         final InputStream stream = response.body().byteStream();
 
-        long length;
+        long resolvedLength;
 
-        if (response.code() == 206) {
+        if (response.code() == 206 && rangeLength < 0) {
             String contentRange = response.header("Content-Range");
             // Example: "bytes 36-999999/1000000"
             if (contentRange != null && contentRange.contains("/")) {
                 long total = Long.parseLong(contentRange.substring(contentRange.indexOf("/") + 1));
-                length = total - position;
+                resolvedLength = total - position;
             } else {
-                length = response.body().contentLength();
+                resolvedLength = response.body().contentLength();
             }
         } else {
-            length = response.body().contentLength();
+            resolvedLength = response.body().contentLength();
         }
 
-        final long finalLength = length;
+        final long finalLength = resolvedLength;
         final Call finalCall = call;
         final Response finalResponse = response;
 
@@ -102,10 +90,10 @@ final class DriveOkHttpSource implements DriveStreamSource {
 
     /* ========================= REQUEST ========================= */
 
-    private Call newCall(long position, boolean forceRefresh) {
+    private Call newCall(long position, long length, boolean forceRefresh) {
 
-        if (token == null || forceRefresh)
-            token = DriveAuthGate.get(appContext).getToken();
+        DriveTokenManager tokens = DriveTokenManager.primary(appContext);
+        token = forceRefresh ? tokens.refreshAfterFailure(token) : tokens.getToken();
 
         String url = BASE_URL + fileId + "?alt=media";
 
@@ -115,7 +103,9 @@ final class DriveOkHttpSource implements DriveStreamSource {
                 .header("Authorization", "Bearer " + token)
                 .header("Accept-Encoding", "identity");
 
-        if (position > 0)
+        if (length > 0)
+            builder.header("Range", "bytes=" + position + "-" + (position + length - 1));
+        else if (position > 0)
             builder.header("Range", "bytes=" + position + "-");
 
         return CLIENT.newCall(builder.build());
@@ -0,0 +1,77 @@
+package com.github.jaykkumar01.vaultspace.media.datasource;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.TransferListener;
+
+import com.github.jaykkumar01.vaultspace.media.base.DriveStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain, bounded Drive reads for cache warm-up: one ranged request per
+ * open, no read-ahead, so fetching a few KB never pulls megabytes.
+ * Playback goes through {@link DriveDataSource} instead.
+ */
+@UnstableApi
+public final class DriveRangeDataSource implements DataSource {
+
+    private final DriveStreamSource source;
+
+    private DriveStreamSource.StreamSession session;
+    private InputStream stream;
+    private @Nullable Uri uri;
+    private long bytesRemaining;
+
+    public DriveRangeDataSource(Context context, String fileId) {
+        this.source = new DriveOkHttpSource(context, fileId);
+    }
+
+    @Override
+    public long open(@NonNull DataSpec spec) throws IOException {
+        uri = spec.uri;
+        session = source.open(spec.position, spec.length);
+        stream = session.stream();
+
+        long length = session.length();
+        if (spec.length != C.LENGTH_UNSET) bytesRemaining = spec.length;
+        else bytesRemaining = length >= 0 ? length : C.LENGTH_UNSET;
+        return bytesRemaining;
+    }
+
+    @Override
+    public int read(@NonNull byte[] target, int offset, int length) throws IOException {
+        if (length == 0) return 0;
+        if (stream == null || bytesRemaining == 0) return C.RESULT_END_OF_INPUT;
+
+        int max = bytesRemaining == C.LENGTH_UNSET ? length : (int) Math.min(length, bytesRemaining);
+        int read = stream.read(target, offset, max);
+        if (read == -1) return C.RESULT_END_OF_INPUT;
+
+        if (bytesRemaining != C.LENGTH_UNSET) bytesRemaining -= read;
+        return read;
+    }
+
+    @Override
+    public void close() {
+        try { if (session != null) session.cancel(); } catch (Exception ignored) {}
+        session = null;
+        stream = null;
+        uri = null;
+    }
+
+    @Override public void addTransferListener(@NonNull TransferListener listener) {}
+    @Override public @Nullable Uri getUri() { return uri; }
+    @Override public @NonNull Map<String, List<String>> getResponseHeaders() { return Collections.emptyMap(); }
+}
@@ -0,0 +1,197 @@
+package com.github.jaykkumar01.vaultspace.media.datasource;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.github.jaykkumar01.vaultspace.media.base.DriveStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * Bounded ring buffer in front of one Drive stream, filled by a background
+ * reader ahead of the playhead.
+ *
+ * Guarantees:
+ * - At most CAPACITY bytes held; the reader pauses when it is that far ahead
+ * - KEEP_BEHIND bytes before the playhead stay readable (small back seeks)
+ * - Forward seeks up to FORWARD_REUSE past the filled edge wait for the
+ *   in-flight stream instead of opening a new request
+ * - A parked buffer (no DataSource open) stops itself after PARK_TIMEOUT_MS
+ */
+final class ReadAheadBuffer {
+
+    private static final String TAG = "Video:ReadAhead";
+
+    private static final int CAPACITY = 4 * 1024 * 1024;
+    private static final int CHUNK = 64 * 1024;
+    private static final int KEEP_BEHIND = 512 * 1024;
+    private static final long FORWARD_REUSE = 1024 * 1024;
+
+    private static final long PARK_TIMEOUT_MS = 15_000;
+    private static final long WAIT_SLICE_MS = 500;
+
+    /* ---------------- CORE ---------------- */
+
+    private final DriveStreamSource.StreamSession session;
+    private final byte[] ring = new byte[CAPACITY];
+    private final long start;
+    private final Thread reader;
+
+    /* ---------------- STATE (guarded by this) ---------------- */
+
+    private long writePos;      // next file position the reader fills
+    private long readPos;       // playhead: next file position handed out
+    private boolean eof;
+    private boolean closed;
+    private IOException error;
+    private long parkedAt;      // 0 while a DataSource has it open
+
+    ReadAheadBuffer(DriveStreamSource.StreamSession session, long start) {
+        this.session = session;
+        this.start = start;
+        this.writePos = start;
+        this.readPos = start;
+        this.reader = new Thread(this::fill, "VaultSpace-ReadAhead");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /* ========================= PLAYHEAD SIDE ========================= */
+
+    /** True if a read at {@code pos} can be served without a new request. */
+    synchronized boolean covers(long pos) {
+        if (closed || error != null) return false;
+        // bytes that far back may be overwritten by a chunk already in flight
+        long oldest = Math.max(start, writePos + CHUNK - CAPACITY);
+        long newest = eof ? writePos : writePos + FORWARD_REUSE;
+        return pos >= oldest && pos <= newest;
+    }
+
+    synchronized void seek(long pos) {
+        readPos = pos;
+        parkedAt = 0;
+        notifyAll();
+    }
+
+    synchronized void park() {
+        parkedAt = SystemClock.elapsedRealtime();
+    }
+
+    /** Blocks until bytes at the playhead are buffered; -1 at end of stream. */
+    synchronized int read(byte[] target, int offset, int length) throws IOException {
+        while (writePos <= readPos && !eof && error == null && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+
+        if (writePos > readPos) {
+            int n = (int) Math.min(length, writePos - readPos);
+            copyOut(readPos, target, offset, n);
+            readPos += n;
+            notifyAll();
+            return n;
+        }
+
+        if (error != null) throw error;
+        if (closed) throw new IOException("Read-ahead closed");
+        return -1;
+    }
+
+    void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        session.cancel();
+        reader.interrupt();
+    }
+
+    /* ========================= READER SIDE ========================= */
+
+    private void fill() {
+        InputStream in = session.stream();
+        byte[] chunk = new byte[CHUNK];
+
+        try {
+            while (true) {
+                int want = awaitSpace();
+                if (want <= 0) return;
+
+                int n = in.read(chunk, 0, want);
+
+                synchronized (this) {
+                    if (closed) return;
+                    if (n < 0) {
+                        eof = true;
+                        notifyAll();
+                        return;
+                    }
+                    copyIn(writePos, chunk, n);
+                    writePos += n;
+                    notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                if (!closed) {
+                    Log.w(TAG, "read-ahead failed @" + writePos + ": " + e.getMessage());
+                    error = e;
+                }
+                notifyAll();
+            }
+        } finally {
+            boolean shutDown;
+            synchronized (this) {
+                shutDown = !closed && error == null && !eof;
+            }
+            if (shutDown) close();
+        }
+    }
+
+    /** Waits until the reader may fetch; returns how many bytes, or 0 to stop. */
+    private synchronized int awaitSpace() {
+        while (!closed) {
+            long ahead = writePos - readPos;
+            long space = CAPACITY - KEEP_BEHIND - ahead;
+            if (space > 0) return (int) Math.min(CHUNK, space);
+
+            if (parkedAt > 0 && SystemClock.elapsedRealtime() - parkedAt > PARK_TIMEOUT_MS) {
+                Log.d(TAG, "parked too long, stopping @" + writePos);
+                return 0;
+            }
+            try {
+                wait(WAIT_SLICE_MS);
+            } catch (InterruptedException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /* ========================= RING ========================= */
+
+    private void copyIn(long pos, byte[] src, int n) {
+        int at = index(pos);
+        int first = Math.min(n, CAPACITY - at);
+        System.arraycopy(src, 0, ring, at, first);
+        if (first < n) System.arraycopy(src, first, ring, 0, n - first);
+    }
+
+    private void copyOut(long pos, byte[] dst, int offset, int n) {
+        int at = index(pos);
+        int first = Math.min(n, CAPACITY - at);
+        System.arraycopy(ring, at, dst, offset, first);
+        if (first < n) System.arraycopy(ring, 0, dst, offset + first, n - first);
+    }
+
+    private int index(long pos) {
+        return (int) ((pos - start) % CAPACITY);
+    }
+}
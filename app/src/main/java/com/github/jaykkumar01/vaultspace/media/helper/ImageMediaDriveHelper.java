@@ -11,9 +11,14 @@ import androidx.annotation.NonNull;
 
 import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
 import com.github.jaykkumar01.vaultspace.core.drive.DriveClientProvider;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager;
+import com.github.jaykkumar01.vaultspace.core.session.cache.DiskCacheManager.Partition;
 import com.google.api.services.drive.Drive;
 
-import java.io.InputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -22,7 +27,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * MediaDriveHelper
  *
  * Responsibilities:
- * - Download original image ONCE from Drive
+ * - Download original image ONCE from Drive (then served from the
+ *   ORIGINALS disk partition)
  * - Decode bitmap off main thread
  * - Deliver bitmap on main thread
  */
@@ -36,12 +42,14 @@ public final class ImageMediaDriveHelper {
     private static final String TAG = "VaultSpace:MediaDrive";
 
     private final Drive drive;
+    private final DiskCacheManager diskCache;
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
     private final AtomicBoolean cancelled = new AtomicBoolean(false);
 
     public ImageMediaDriveHelper(@NonNull Context context) {
         this.drive = DriveClientProvider.getPrimaryDrive(context);
+        this.diskCache = DiskCacheManager.get(context);
     }
 
     /* ============================================================
@@ -55,16 +63,13 @@ public final class ImageMediaDriveHelper {
         executor.execute(() -> {
             if (cancelled.get()) return;
 
-            try (InputStream in = drive.files()
-                    .get(media.fileId)
-                    .setAlt("media")
-                    .setSupportsAllDrives(true)
-                    .executeMediaAsInputStream()) {
+            try {
+                File file = originalFile(media);
 
                 BitmapFactory.Options opts = new BitmapFactory.Options();
                 opts.inPreferredConfig = Bitmap.Config.ARGB_8888;
 
-                Bitmap bmp = BitmapFactory.decodeStream(in, null, opts);
+                Bitmap bmp = BitmapFactory.decodeFile(file.getAbsolutePath(), opts);
                 if (bmp == null)
                     throw new RuntimeException("Bitmap decode failed");
 
@@ -77,6 +82,37 @@ public final class ImageMediaDriveHelper {
         });
     }
 
+    /** Cached original, downloading it first on a miss. */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private File originalFile(AlbumMedia media) throws IOException {
+        File dir = diskCache.dir(Partition.ORIGINALS);
+        File out = new File(dir, media.fileId);
+        if (out.exists()) {
+            out.setLastModified(System.currentTimeMillis());
+            diskCache.recordHit(Partition.ORIGINALS, out.length());
+            return out;
+        }
+
+        diskCache.recordMiss(Partition.ORIGINALS);
+        File tmp = new File(dir, media.fileId + ".part");
+        try (OutputStream os = new FileOutputStream(tmp)) {
+            drive.files()
+                    .get(media.fileId)
+                    .setSupportsAllDrives(true)
+                    .executeMediaAndDownloadTo(os);
+        } catch (IOException | RuntimeException e) {
+            tmp.delete();
+            throw e;
+        }
+        if (!tmp.renameTo(out)) {
+            tmp.delete();
+            throw new IOException("Could not cache original " + media.fileId);
+        }
+
+        diskCache.onWrite(Partition.ORIGINALS, out);
+        return out;
+    }
+
     /* ============================================================
      * Lifecycle
      * ============================================================ */
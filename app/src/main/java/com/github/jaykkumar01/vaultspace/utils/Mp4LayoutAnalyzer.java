@@ -48,27 +48,8 @@ public final class Mp4LayoutAnalyzer {
                     return null;
 
                 // Compare bytes directly instead of creating String
-                if (isMoov(header)) {
-
-                    long moovStart = offset;
-                    long moovSize = atomSize;
-                    long moovEnd = moovStart + moovSize;
-                    boolean moovAtTail = (moovEnd == fileSize);
-
-                    long headRequired = moovAtTail
-                            ? Math.min(SMALL_HEAD_BYTES, fileSize)
-                            : moovEnd;
-
-                    long tailRequired = moovAtTail ? moovSize : 0;
-
-                    return new Result(
-                            moovStart,
-                            moovSize,
-                            headRequired,
-                            tailRequired,
-                            moovAtTail
-                    );
-                }
+                if (isMoov(header))
+                    return layout(offset, atomSize, fileSize);
 
                 if (!skipFully(in, atomSize - headerLength))
                     return null;
@@ -81,6 +62,43 @@ public final class Mp4LayoutAnalyzer {
         return null;
     }
 
+    /**
+     * Parses {@link Result#encode()} output; null if absent or malformed.
+     * Cheap enough for the playback path, so no file access is needed there.
+     */
+    @Nullable
+    public static Result decode(@Nullable String encoded, long fileSize) {
+        if (encoded == null || fileSize <= 0) return null;
+        try {
+            int sep = encoded.indexOf(':');
+            long moovStart = Long.parseLong(encoded.substring(0, sep));
+            long moovSize = Long.parseLong(encoded.substring(sep + 1));
+            if (moovStart < 0 || moovSize <= 0 || moovStart + moovSize > fileSize) return null;
+            return layout(moovStart, moovSize, fileSize);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Result layout(long moovStart, long moovSize, long fileSize) {
+        long moovEnd = moovStart + moovSize;
+        boolean moovAtTail = (moovEnd == fileSize);
+
+        long headRequired = moovAtTail
+                ? Math.min(SMALL_HEAD_BYTES, fileSize)
+                : moovEnd;
+
+        long tailRequired = moovAtTail ? moovSize : 0;
+
+        return new Result(
+                moovStart,
+                moovSize,
+                headRequired,
+                tailRequired,
+                moovAtTail
+        );
+    }
+
     private static boolean readFully(InputStream in, byte[] buffer, int length) throws Exception {
         int total = 0;
         while (total < length) {
@@ -144,5 +162,10 @@ public final class Mp4LayoutAnalyzer {
             this.tailRequiredBytes = tailRequiredBytes;
             this.moovAtTail = moovAtTail;
         }
+
+        /** Compact form stored as the "vs_mp4_layout" appProperty. */
+        public String encode() {
+            return moovStart + ":" + moovSize;
+        }
     }
 }
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.ImageDecoder;
+import android.graphics.Matrix;
 import android.media.MediaMetadataRetriever;
 import android.net.Uri;
 import android.os.Build;
@@ -14,11 +15,29 @@ import androidx.annotation.Nullable;
 
 import com.github.jaykkumar01.vaultspace.core.upload.base.UploadType;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.UUID;
-
+import java.util.concurrent.Semaphore;
+
+/**
+ * Thumbnail stage of selection resolve.
+ *
+ * Guarantees:
+ * - At most DECODE_PARALLEL decodes in flight, whatever the resolve pool size
+ * - Decode buffers are reused across selections (inBitmap pool)
+ * - Crop, downscale and orientation happen in ONE bitmap allocation
+ *
+ * Callers that already hold the source open (EXIF stream, video retriever)
+ * pass it in instead of letting the generator open the Uri again.
+ */
 public final class ThumbnailGenerator {
 
     /* ================= Constants ================= */
@@ -28,84 +47,205 @@ public final class ThumbnailGenerator {
     private static final float MAX_ASPECT = 16f / 9f;
     private static final float EXTREME_ASPECT = 3.0f;
     private static final int MIN_THUMB_DIM = 256;
+    private static final int MAX_DECODE_DIM = MIN_THUMB_DIM * 4;
+
+    private static final int DECODE_PARALLEL = 2;
+    private static final int JPEG_QUALITY = 75;
+    private static final int OUT_BUFFER = 32 * 1024;
+
+    /** How far a shared stream may be read (EXIF, bounds) and still rewound. */
+    public static final int HEADER_MARK_LIMIT = 512 * 1024;
+
+    private static final Semaphore decodePermits = new Semaphore(DECODE_PARALLEL);
+    private static final BitmapPool pool = new BitmapPool(DECODE_PARALLEL);
 
     /* ================= Public API ================= */
 
+    /**
+     * Decodes from a stream the caller already opened (and marked with
+     * {@link #HEADER_MARK_LIMIT} before reading headers). Returns null if the
+     * stream cannot be rewound or decoded; the caller then falls back to
+     * {@link #generate}.
+     */
+    @Nullable
+    public static String fromImageStream(
+            @NonNull BufferedInputStream in,
+            int rotation,
+            @NonNull File outputDir
+    ) {
+        if (!acquire()) return null;
+        long t0 = System.nanoTime();
+        Bitmap bmp = null;
+        try {
+            in.reset();
+            in.mark(HEADER_MARK_LIMIT);
+
+            BitmapFactory.Options o = new BitmapFactory.Options();
+            o.inJustDecodeBounds = true;
+            BitmapFactory.decodeStream(in, null, o);
+            if (o.outWidth <= 0 || o.outHeight <= 0) return null;
+
+            in.reset();
+            bmp = decodeSampled(in, o);
+            return bmp != null ? finish(bmp, rotation, outputDir, "stream", t0) : null;
+
+        } catch (IOException e) {
+            Log.d(TAG, "shared stream not rewindable, reopening");
+            return null;
+        } catch (Throwable t) {
+            return null;
+        } finally {
+            if (bmp != null) pool.offer(bmp);
+            decodePermits.release();
+        }
+    }
+
+    /** Grabs a frame from a retriever the caller already set up for metadata. */
+    @Nullable
+    public static String fromVideo(@NonNull MediaMetadataRetriever r, @NonNull File outputDir) {
+        if (!acquire()) return null;
+        long t0 = System.nanoTime();
+        Bitmap bmp = null;
+        try {
+            bmp = grabFrame(r);
+            // frames come out already rotated
+            return bmp != null ? finish(bmp, 0, outputDir, "video", t0) : null;
+        } catch (Throwable t) {
+            return null;
+        } finally {
+            if (bmp != null) bmp.recycle();
+            decodePermits.release();
+        }
+    }
+
+    /** Opens the Uri itself; used when no shared source was usable. */
     @Nullable
     public static String generate(
             @NonNull Context context,
             @NonNull Uri uri,
             @NonNull UploadType type,
+            int rotation,
             @NonNull File outputDir
     ) {
+        if (!acquire()) return null;
         long t0 = System.nanoTime();
         Bitmap bmp = null;
-
         try {
-            bmp = (type == UploadType.VIDEO)
-                    ? decodeVideo(context, uri)
-                    : decodeImage(context, uri);
+            if (type == UploadType.VIDEO) {
+                bmp = decodeVideo(context, uri);
+                rotation = 0;
+            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                bmp = decodeImage(context, uri);
+                rotation = 0;   // ImageDecoder applies EXIF orientation itself
+            } else {
+                bmp = decodeImageLegacy(context, uri);
+            }
 
-            if (bmp == null) return null;
+            return bmp != null ? finish(bmp, rotation, outputDir, type.name(), t0) : null;
 
-            bmp = smartCropIfExtreme(bmp);
-            bmp = clampToMinSide(bmp);
+        } catch (Throwable ignored) {
+            return null;
+        } finally {
+            if (bmp != null) pool.offer(bmp);
+            decodePermits.release();
+        }
+    }
+
+    /* ================= Pipeline ================= */
+
+    private static boolean acquire() {
+        try {
+            decodePermits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-            File out = new File(outputDir, UUID.randomUUID() + ".jpg");
-            try (FileOutputStream fos = new FileOutputStream(out)) {
-                bmp.compress(Bitmap.CompressFormat.JPEG, 75, fos);
+    /** Crop + scale + orient in one allocation, then encode. Does not consume {@code src}. */
+    @NonNull
+    private static String finish(
+            @NonNull Bitmap src,
+            int rotation,
+            @NonNull File outputDir,
+            @NonNull String label,
+            long t0
+    ) throws IOException {
+
+        Bitmap out = transform(src, rotation);
+        try {
+            File file = new File(outputDir, UUID.randomUUID() + ".jpg");
+            try (OutputStream os = new BufferedOutputStream(new FileOutputStream(file), OUT_BUFFER)) {
+                out.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, os);
             }
 
             long ms = (System.nanoTime() - t0) / 1_000_000;
-            Log.d(TAG, "Thumb gen (" + type + ") in " + ms + "ms");
-
-            return out.getAbsolutePath();
+            Log.d(TAG, "Thumb gen (" + label + ") in " + ms + "ms");
+            return file.getAbsolutePath();
 
-        } catch (Throwable ignored) {
-            return null;
         } finally {
-            if (bmp != null) bmp.recycle();
+            if (out != src) out.recycle();
         }
     }
 
     /* ================= Image ================= */
 
     @Nullable
-    private static Bitmap decodeImage(@NonNull Context context, @NonNull Uri uri) throws Exception {
+    private static Bitmap decodeSampled(@NonNull InputStream in, @NonNull BitmapFactory.Options bounds) {
+        int w = bounds.outWidth, h = bounds.outHeight;
 
-        // -------- API 28+ --------
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
-            return ImageDecoder.decodeBitmap(
-                    ImageDecoder.createSource(context.getContentResolver(), uri),
-                    (d, info, src) -> {
-                        d.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+        BitmapFactory.Options o = new BitmapFactory.Options();
+        o.inSampleSize = isExtremeAspect(w, h) ? 1 : calculateSampleSize(w, h);
+        o.inMutable = true;
+        o.inPreferredConfig = Bitmap.Config.ARGB_8888;
 
-                        int w = info.getSize().getWidth();
-                        int h = info.getSize().getHeight();
+        int outW = (w + o.inSampleSize - 1) / o.inSampleSize;
+        int outH = (h + o.inSampleSize - 1) / o.inSampleSize;
+        o.inBitmap = pool.take((long) outW * outH * 4);
 
-                        if (!isExtremeAspect(w, h)) {
-                            d.setTargetSampleSize(calculateSampleSize(w, h));
-                        }
-                    }
-            );
+        try {
+            return BitmapFactory.decodeStream(in, null, o);
+        } catch (IllegalArgumentException e) {
+            // inBitmap rejected (format quirk); the stream is spent, so the caller reopens
+            if (o.inBitmap == null) throw e;
+            pool.offer(o.inBitmap);
+            return null;
         }
+    }
+
+    @Nullable
+    private static Bitmap decodeImage(@NonNull Context context, @NonNull Uri uri) throws Exception {
+        return ImageDecoder.decodeBitmap(
+                ImageDecoder.createSource(context.getContentResolver(), uri),
+                (d, info, src) -> {
+                    d.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+
+                    int w = info.getSize().getWidth();
+                    int h = info.getSize().getHeight();
+
+                    if (!isExtremeAspect(w, h)) {
+                        d.setTargetSampleSize(calculateSampleSize(w, h));
+                    }
+                }
+        );
+    }
+
+    @Nullable
+    private static Bitmap decodeImageLegacy(@NonNull Context context, @NonNull Uri uri) throws Exception {
+        try (InputStream raw = context.getContentResolver().openInputStream(uri)) {
+            if (raw == null) return null;
 
-        // -------- Pre-P --------
-        try (InputStream is = context.getContentResolver().openInputStream(uri)) {
-            if (is == null) return null;
+            BufferedInputStream in = new BufferedInputStream(raw);
+            in.mark(HEADER_MARK_LIMIT);
 
             BitmapFactory.Options o = new BitmapFactory.Options();
             o.inJustDecodeBounds = true;
-            BitmapFactory.decodeStream(is, null, o);
+            BitmapFactory.decodeStream(in, null, o);
+            if (o.outWidth <= 0 || o.outHeight <= 0) return null;
 
-            o.inJustDecodeBounds = false;
-            o.inSampleSize = isExtremeAspect(o.outWidth, o.outHeight)
-                    ? 1
-                    : calculateSampleSize(o.outWidth, o.outHeight);
-
-            try (InputStream is2 = context.getContentResolver().openInputStream(uri)) {
-                return BitmapFactory.decodeStream(is2, null, o);
-            }
+            in.reset();
+            return decodeSampled(in, o);
         }
     }
 
@@ -115,30 +255,58 @@ public final class ThumbnailGenerator {
     private static Bitmap decodeVideo(@NonNull Context context, @NonNull Uri uri) {
         try (MediaMetadataRetriever r = new MediaMetadataRetriever()) {
             r.setDataSource(context, uri);
-            return r.getFrameAtTime(-1, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+            return grabFrame(r);
         } catch (Throwable ignored) {
             return null;
         }
     }
 
+    @Nullable
+    private static Bitmap grabFrame(@NonNull MediaMetadataRetriever r) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+            // decoder scales for us: no full-resolution frame on the heap
+            return r.getScaledFrameAtTime(
+                    -1, MediaMetadataRetriever.OPTION_CLOSEST_SYNC,
+                    MAX_DECODE_DIM, MAX_DECODE_DIM
+            );
+        }
+        return r.getFrameAtTime(-1, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+    }
+
     /* ================= Geometry ================= */
 
+    /**
+     * Center-crops extreme aspects to MAX_ASPECT, scales the short side
+     * down to MIN_THUMB_DIM and applies {@code rotation} (negative = mirrored,
+     * as produced by UriUtils) — all through a single createBitmap.
+     */
     @NonNull
-    private static Bitmap smartCropIfExtreme(@NonNull Bitmap src) {
+    private static Bitmap transform(@NonNull Bitmap src, int rotation) {
         int w = src.getWidth(), h = src.getHeight();
+
+        /* ---------- crop ---------- */
         float ratio = (float) w / h;
+        int cw = w, ch = h;
+        if (ratio > MAX_ASPECT) cw = Math.round(h * MAX_ASPECT);
+        else if (ratio < 1f / MAX_ASPECT) ch = Math.round(w * MAX_ASPECT);
+        int x = (w - cw) >> 1;
+        int y = (h - ch) >> 1;
+
+        /* ---------- scale ---------- */
+        int min = Math.min(cw, ch);
+        float scale = min > MIN_THUMB_DIM ? (float) MIN_THUMB_DIM / min : 1f;
 
-        if (ratio >= 1f / MAX_ASPECT && ratio <= MAX_ASPECT) return src;
+        /* ---------- orient ---------- */
+        int degrees = Math.abs(rotation);
+        boolean mirror = rotation < 0;
 
-        boolean wide = ratio > 1f;
-        int newW = wide ? Math.round(h * MAX_ASPECT) : w;
-        int newH = wide ? h : Math.round(w * MAX_ASPECT);
-        int x = (w - newW) >> 1;
-        int y = (h - newH) >> 1;
+        if (x == 0 && y == 0 && scale == 1f && degrees == 0 && !mirror) return src;
 
-        Bitmap out = Bitmap.createBitmap(src, x, y, newW, newH);
-        if (out != src) src.recycle();
-        return out;
+        Matrix m = new Matrix();
+        m.setScale(mirror ? -scale : scale, scale);
+        if (degrees != 0) m.postRotate(degrees);
+
+        return Bitmap.createBitmap(src, x, y, cw, ch, m, true);
     }
 
     /* ================= Utils ================= */
@@ -150,26 +318,58 @@ public final class ThumbnailGenerator {
 
     private static int calculateSampleSize(int w, int h) {
         int s = 1;
-        while ((w / s) > MIN_THUMB_DIM * 4 || (h / s) > MIN_THUMB_DIM * 4)
+        while ((w / s) > MAX_DECODE_DIM || (h / s) > MAX_DECODE_DIM)
             s <<= 1;
         return s;
     }
 
-    @NonNull
-    private static Bitmap clampToMinSide(@NonNull Bitmap src) {
-        int w = src.getWidth(), h = src.getHeight();
-        int min = Math.min(w, h);
-        if (min < MIN_THUMB_DIM) return src;
+    /* ================= Bitmap pool ================= */
+
+    /**
+     * Mutable decode targets kept between selections. Sampled decodes are
+     * at most MAX_DECODE_DIM on a side, so a couple of buffers serve a whole
+     * batch; anything that doesn't fit simply decodes into a new bitmap.
+     */
+    private static final class BitmapPool {
 
-        boolean widthIsMin = w <= h;
-        float ratio = (float) h / w;
+        private final int capacity;
+        private final ArrayDeque<Bitmap> free = new ArrayDeque<>();
 
-        int outW = widthIsMin ? MIN_THUMB_DIM : Math.round(MIN_THUMB_DIM / ratio);
-        int outH = widthIsMin ? Math.round(MIN_THUMB_DIM * ratio) : MIN_THUMB_DIM;
+        BitmapPool(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Nullable
+        synchronized Bitmap take(long bytes) {
+            for (Iterator<Bitmap> it = free.iterator(); it.hasNext(); ) {
+                Bitmap b = it.next();
+                if (b.getAllocationByteCount() >= bytes) {
+                    it.remove();
+                    return b;
+                }
+            }
+            return null;
+        }
 
-        Bitmap out = Bitmap.createScaledBitmap(src, outW, outH, true);
-        if (out != src) src.recycle();
-        return out;
+        synchronized void offer(@NonNull Bitmap b) {
+            if (!b.isMutable() || b.isRecycled()
+                    || b.getWidth() > MAX_DECODE_DIM || b.getHeight() > MAX_DECODE_DIM) {
+                b.recycle();
+                return;
+            }
+            if (free.size() >= capacity) {
+                Bitmap smallest = b;
+                for (Bitmap f : free)
+                    if (f.getAllocationByteCount() < smallest.getAllocationByteCount()) smallest = f;
+                if (smallest == b) {
+                    b.recycle();
+                    return;
+                }
+                free.remove(smallest);
+                smallest.recycle();
+            }
+            free.addLast(b);
+        }
     }
 
     private ThumbnailGenerator() {}
@@ -17,6 +17,7 @@ import androidx.exifinterface.media.ExifInterface;
 import com.github.jaykkumar01.vaultspace.core.upload.base.UploadSelection;
 import com.github.jaykkumar01.vaultspace.core.upload.base.UploadType;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -62,13 +63,16 @@ public final class UriUtils {
         float aspectRatio = 1f;
         int rotation = 0;
         long durationMillis = 0;
-
+        String thumb = null;
 
         /* ---------- Media-aware extraction ---------- */
 
         if (type == UploadType.PHOTO) {
-            try (InputStream in = cr.openInputStream(uri)) {
-                if (in != null) {
+            try (InputStream raw = cr.openInputStream(uri)) {
+                if (raw != null) {
+                    // one open for EXIF and thumbnail: headers stay rewindable
+                    BufferedInputStream in = new BufferedInputStream(raw);
+                    in.mark(ThumbnailGenerator.HEADER_MARK_LIMIT);
                     ExifInterface exif = new ExifInterface(in);
 
                     originMoment = readExifOrigin(exif);
@@ -96,6 +100,8 @@ public final class UriUtils {
                     if (base.modifiedMillis <= 0 && originMoment > 0) {
                         momentMillis = originMoment;
                     }
+
+                    thumb = ThumbnailGenerator.fromImageStream(in, rotation, thumbDir(ctx));
                 }
             } catch (Exception ignored) {
             }
@@ -135,19 +141,11 @@ public final class UriUtils {
                     momentMillis = readVideoDateTaken(cr, uri);
                     if (momentMillis <= 0) momentMillis = originMoment;
                 }
-            } catch (Exception ignored) {
-            }
-            Mp4LayoutAnalyzer.Result layout = Mp4LayoutAnalyzer.analyze(cr, uri, base.sizeBytes);
 
-            if (layout != null) {
-                Log.d(TAG,
-                        "MP4 layout | moovStart=" + layout.moovStart +
-                                " moovSize=" + layout.moovSize +
-                                " moovAtTail=" + layout.moovAtTail +
-                                " headRequiredBytes=" + layout.headRequiredBytes +
-                                " tailRequiredBytes=" + layout.tailRequiredBytes);
+                thumb = ThumbnailGenerator.fromVideo(r, thumbDir(ctx));
+            } catch (Exception ignored) {
             }
-
+            // MP4 layout is analyzed at upload time (UploadDriveHelper), not per pick
         }
 
 
@@ -173,12 +171,9 @@ public final class UriUtils {
 
         /* ---------- Thumbnail ---------- */
 
-        String thumb = null;
-        if (type == UploadType.PHOTO || type == UploadType.VIDEO) {
-            File dir = new File(ctx.getCacheDir(), "thumbs");
-            @SuppressLint("ResultOfMethodCallIgnored")
-            boolean ignored = dir.exists() || dir.mkdirs();
-            thumb = ThumbnailGenerator.generate(ctx, uri, type, dir);
+        // shared source unusable (non-rewindable header, odd codec): open again
+        if (thumb == null && (type == UploadType.PHOTO || type == UploadType.VIDEO)) {
+            thumb = ThumbnailGenerator.generate(ctx, uri, type, rotation, thumbDir(ctx));
         }
 
         String id = UUID.randomUUID().toString();
@@ -199,6 +194,13 @@ public final class UriUtils {
 
     }
 
+    private static File thumbDir(Context ctx) {
+        File dir = new File(ctx.getCacheDir(), "thumbs");
+        @SuppressLint("ResultOfMethodCallIgnored")
+        boolean ignored = dir.exists() || dir.mkdirs();
+        return dir;
+    }
+
     /* =========================
      * Base metadata (single query)
      * ========================= */
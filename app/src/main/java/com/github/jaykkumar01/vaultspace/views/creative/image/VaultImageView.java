@@ -76,6 +76,10 @@ public final class VaultImageView extends AppCompatImageView {
         post(this::computeBaseMatrix);
     }
 
+    public boolean isZoomed(){
+        return bitmap != null && currentScale > baseScale * 1.01f;
+    }
+
     public void reset(){
         runScaleAnimation(currentScale, baseScale,
                 getWidth() * .5f, getHeight() * .5f, RESET_ANIM_MS);
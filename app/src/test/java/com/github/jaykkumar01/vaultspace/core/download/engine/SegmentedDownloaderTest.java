@@ -0,0 +1,99 @@
+package com.github.jaykkumar01.vaultspace.core.download.engine;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SegmentedDownloaderTest {
+
+    private static final long MB = 1024L * 1024;
+
+    /** Ranges must tile [0, size) exactly, in order. */
+    private static void assertCovers(List<SegmentedDownloader.Range> ranges, long size) {
+        long expectedStart = 0;
+        for (SegmentedDownloader.Range r : ranges) {
+            assertEquals(expectedStart, r.next);
+            assertTrue(r.end >= r.next);
+            expectedStart = r.end + 1;
+        }
+        assertEquals(size, expectedStart);
+    }
+
+    @Test
+    public void smallFileIsOneRange() {
+        List<SegmentedDownloader.Range> ranges = SegmentedDownloader.plan(3 * MB);
+        assertEquals(1, ranges.size());
+        assertCovers(ranges, 3 * MB);
+    }
+
+    @Test
+    public void segmentsNeverGoBelowMinimumSize() {
+        List<SegmentedDownloader.Range> ranges = SegmentedDownloader.plan(20 * MB);
+        assertEquals(2, ranges.size());
+        assertCovers(ranges, 20 * MB);
+    }
+
+    @Test
+    public void largeFileIsCappedAtFourRanges() {
+        long size = 1000 * MB + 3;
+        List<SegmentedDownloader.Range> ranges = SegmentedDownloader.plan(size);
+        assertEquals(4, ranges.size());
+        assertCovers(ranges, size);
+    }
+
+    @Test
+    public void formatParseRoundTrip() {
+        long size = 100 * MB;
+        List<SegmentedDownloader.Range> ranges = SegmentedDownloader.plan(size);
+        ranges.get(0).next += 12345;
+        ranges.get(1).next = ranges.get(1).end + 1;   // finished range
+
+        String formatted = SegmentedDownloader.format(ranges);
+        List<SegmentedDownloader.Range> parsed = SegmentedDownloader.parse(formatted, size);
+
+        assertNotNull(parsed);
+        assertEquals(ranges.size(), parsed.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i).next, parsed.get(i).next);
+            assertEquals(ranges.get(i).end, parsed.get(i).end);
+        }
+        assertEquals(0, parsed.get(1).remaining());
+        assertEquals(formatted, SegmentedDownloader.format(parsed));
+    }
+
+    @Test
+    public void parseRejectsMalformedOrOversizedState() {
+        assertNull(SegmentedDownloader.parse("", 100));
+        assertNull(SegmentedDownloader.parse("garbage", 100));
+        assertNull(SegmentedDownloader.parse("0-99,x-5", 100));
+        assertNull(SegmentedDownloader.parse("0-100", 100));     // end past the file
+        assertNull(SegmentedDownloader.parse("-1-50", 100));
+        assertNull(SegmentedDownloader.parse("60-50", 100));     // next beyond end + 1
+        assertNotNull(SegmentedDownloader.parse("51-50", 100));  // exactly done
+    }
+
+    @Test
+    public void onlyAMissingFileIsFinal() {
+        assertTrue(SegmentedDownloader.isGone(404));
+        assertTrue(SegmentedDownloader.isGone(410));
+        assertFalse(SegmentedDownloader.isGone(403));
+        assertFalse(SegmentedDownloader.isGone(429));
+    }
+
+    @Test
+    public void throttlingBacksOffButRefusalsDoNot() {
+        String userLimit = "{\"error\":{\"errors\":[{\"domain\":\"usageLimits\",\"reason\":\"userRateLimitExceeded\"}],\"code\":403}}";
+        String rateLimit = "{\"error\":{\"errors\":[{\"reason\":\"rateLimitExceeded\"}],\"code\":403}}";
+        String forbidden = "{\"error\":{\"errors\":[{\"reason\":\"insufficientFilePermissions\"}],\"code\":403}}";
+
+        assertTrue(SegmentedDownloader.shouldBackOff(403, userLimit));
+        assertTrue(SegmentedDownloader.shouldBackOff(403, rateLimit));
+        assertFalse(SegmentedDownloader.shouldBackOff(403, forbidden));
+        assertFalse(SegmentedDownloader.shouldBackOff(403, null));
+        assertTrue(SegmentedDownloader.shouldBackOff(429, null));
+        assertTrue(SegmentedDownloader.shouldBackOff(503, null));
+        assertFalse(SegmentedDownloader.shouldBackOff(400, null));
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.jaykkumar01.vaultspace.core.session.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class DiskLruIndexTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private File write(File dir, String name, int size) throws IOException {
+        File f = new File(dir, name);
+        try (FileOutputStream out = new FileOutputStream(f)) {
+            out.write(new byte[size]);
+        }
+        return f;
+    }
+
+    private static int journalLines(File dir) throws IOException {
+        return Files.readAllLines(new File(dir, "journal").toPath()).size();
+    }
+
+    @Test
+    public void replayRestoresEntriesAndLruOrder() throws IOException {
+        File dir = tmp.newFolder();
+        DiskLruIndex first = new DiskLruIndex(dir);
+        for (String name : new String[]{"a", "b", "c"}) {
+            write(dir, name, 10);
+            first.put(name, 10);
+        }
+        assertNotNull(first.get("a"));   // order is now b, c, a
+        first.remove("c");
+        first.evict(0);                  // flushes the buffered touch
+
+        DiskLruIndex replayed = new DiskLruIndex(dir);
+        assertEquals(20, replayed.usedBytes());
+        assertNull(replayed.get("c"));
+
+        assertEquals(10, replayed.evict(1));
+        assertFalse(new File(dir, "b").exists());
+        assertNotNull(replayed.get("a"));
+    }
+
+    @Test
+    public void scansDirectoryWithoutJournal() throws IOException {
+        File dir = tmp.newFolder();
+        write(dir, "x", 5);
+        write(dir, "y", 7);
+        write(dir, "z" + DiskLruIndex.PARTIAL_SUFFIX, 100);
+
+        DiskLruIndex index = new DiskLruIndex(dir);
+        assertEquals(12, index.usedBytes());
+        assertNull(index.get("z" + DiskLruIndex.PARTIAL_SUFFIX));
+    }
+
+    @Test
+    public void getDropsEntryWhoseFileIsGone() throws IOException {
+        File dir = tmp.newFolder();
+        DiskLruIndex index = new DiskLruIndex(dir);
+        File f = write(dir, "a", 10);
+        index.put("a", 10);
+
+        assertTrue(f.delete());
+        assertNull(index.get("a"));
+        assertEquals(0, index.usedBytes());
+    }
+
+    @Test
+    public void journalIsCompactedToLiveEntries() throws IOException {
+        File dir = tmp.newFolder();
+        DiskLruIndex index = new DiskLruIndex(dir);
+        write(dir, "keep", 3);
+        index.put("keep", 3);
+        for (int i = 0; i < 3000; i++) {
+            index.put("tmp", 1);
+            index.remove("tmp");
+        }
+        assertTrue(journalLines(dir) <= 1001);
+
+        DiskLruIndex replayed = new DiskLruIndex(dir);
+        assertEquals(3, replayed.usedBytes());
+        assertNotNull(replayed.get("keep"));
+    }
+
+    @Test
+    public void evictedEntriesDoNotComeBackAfterCompaction() throws IOException {
+        File dir = tmp.newFolder();
+        DiskLruIndex index = new DiskLruIndex(dir);
+        int count = 1200;   // evicting them all crosses the compaction threshold mid-loop
+        for (int i = 0; i < count; i++) {
+            write(dir, "f" + i, 1);
+            index.put("f" + i, 1);
+        }
+        assertEquals(count, index.evict(count));
+
+        DiskLruIndex replayed = new DiskLruIndex(dir);
+        assertEquals(0, replayed.usedBytes());
+    }
+
+    @Test
+    public void resetForgetsEverything() throws IOException {
+        File dir = tmp.newFolder();
+        DiskLruIndex index = new DiskLruIndex(dir);
+        write(dir, "a", 4);
+        index.put("a", 4);
+
+        for (File f : dir.listFiles()) assertTrue(f.delete());
+        index.reset();
+        assertEquals(0, index.usedBytes());
+    }
+}
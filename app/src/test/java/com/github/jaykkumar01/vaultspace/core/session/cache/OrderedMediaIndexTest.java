@@ -0,0 +1,111 @@
+package com.github.jaykkumar01.vaultspace.core.session.cache;
+
+import com.github.jaykkumar01.vaultspace.album.model.AlbumMedia;
+import com.github.jaykkumar01.vaultspace.core.upload.base.UploadedItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OrderedMediaIndexTest {
+
+    private static AlbumMedia media(String fileId, long momentMillis) {
+        return new AlbumMedia(new UploadedItem(fileId, fileId + ".jpg", "image/jpeg",
+                1, momentMillis, momentMillis, true, 1f, 0, 0, null, null));
+    }
+
+    /** The index must always agree with a plain sorted list. */
+    private static void assertMatches(List<AlbumMedia> expected, OrderedMediaIndex index) {
+        assertEquals(expected.size(), index.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), index.get(i));
+            assertEquals(i, index.rank(expected.get(i)));
+        }
+        assertEquals(expected, new ArrayList<>(index.snapshot()));
+    }
+
+    @Test
+    public void ordersNewestFirstThenByFileId() {
+        OrderedMediaIndex index = new OrderedMediaIndex();
+        AlbumMedia old = media("a", 100);
+        AlbumMedia newB = media("b", 200);
+        AlbumMedia newA = media("a2", 200);
+        index.insert(old);
+        index.insert(newB);
+        index.insert(newA);
+
+        assertSame(newA, index.get(0));
+        assertSame(newB, index.get(1));
+        assertSame(old, index.get(2));
+        assertEquals(-1, index.rank(media("missing", 150)));
+    }
+
+    @Test
+    public void insertReplacesSameKey() {
+        OrderedMediaIndex index = new OrderedMediaIndex();
+        index.insert(media("a", 100));
+        AlbumMedia replacement = media("a", 100);
+        index.insert(replacement);
+
+        assertEquals(1, index.size());
+        assertSame(replacement, index.get(0));
+    }
+
+    @Test
+    public void randomInsertsAndRemovesMatchSortedList() {
+        Random random = new Random(42);
+        OrderedMediaIndex index = new OrderedMediaIndex();
+        List<AlbumMedia> expected = new ArrayList<>();
+
+        for (int op = 0; op < 2000; op++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                AlbumMedia m = media("f" + op, random.nextInt(50));
+                index.insert(m);
+                expected.add(m);
+            } else {
+                AlbumMedia m = expected.remove(random.nextInt(expected.size()));
+                index.remove(m);
+                assertEquals(-1, index.rank(m));
+            }
+        }
+        expected.sort(OrderedMediaIndex::compare);
+        assertMatches(expected, index);
+    }
+
+    @Test
+    public void buildFromSortedInput() {
+        List<AlbumMedia> sorted = new ArrayList<>();
+        for (int i = 0; i < 100; i++) sorted.add(media("f" + i, 1000 - i));
+
+        OrderedMediaIndex index = new OrderedMediaIndex();
+        index.build(sorted);
+        assertMatches(sorted, index);
+    }
+
+    @Test
+    public void snapshotIgnoresLaterMutations() {
+        OrderedMediaIndex index = new OrderedMediaIndex();
+        AlbumMedia a = media("a", 300);
+        AlbumMedia b = media("b", 200);
+        index.insert(a);
+        index.insert(b);
+
+        List<AlbumMedia> snapshot = index.snapshot();
+        index.remove(a);
+        index.insert(media("c", 100));
+
+        assertEquals(List.of(a, b), new ArrayList<>(snapshot));
+        assertEquals(2, index.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void snapshotRejectsOutOfRange() {
+        OrderedMediaIndex index = new OrderedMediaIndex();
+        index.insert(media("a", 1));
+        index.snapshot().get(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.jaykkumar01.vaultspace.core.upload.scheduler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LeastInFlightPolicyTest {
+
+    /** Linear reference: least reserved, then most available, then lowest index. */
+    private static AccountSlot bruteForce(List<AccountSlot> slots, long bytes) {
+        AccountSlot best = null;
+        for (AccountSlot s : slots) {
+            if (s.available() < bytes) continue;
+            if (best == null
+                    || s.reservedBytes < best.reservedBytes
+                    || (s.reservedBytes == best.reservedBytes && s.available() > best.available())
+                    || (s.reservedBytes == best.reservedBytes && s.available() == best.available() && s.index < best.index))
+                best = s;
+        }
+        return best;
+    }
+
+    @Test
+    public void picksLeastLoadedSlotThatFits() {
+        AccountSlot busy = new AccountSlot("a", 0, 1000);
+        busy.reservedBytes = 100;
+        AccountSlot idleSmall = new AccountSlot("b", 1, 50);
+        AccountSlot idleLarge = new AccountSlot("c", 2, 500);
+
+        LeastInFlightPolicy policy = new LeastInFlightPolicy();
+        policy.reset(List.of(busy, idleSmall, idleLarge));
+
+        assertSame(idleLarge, policy.pick(40));
+        assertSame(idleLarge, policy.pick(400));
+        assertSame(busy, policy.pick(800));
+        assertNull(policy.pick(2000));
+    }
+
+    @Test
+    public void randomReservationsMatchBruteForce() {
+        Random random = new Random(7);
+        List<AccountSlot> slots = new ArrayList<>();
+        for (int i = 0; i < 40; i++) slots.add(new AccountSlot("s" + i, i, random.nextInt(1000)));
+
+        LeastInFlightPolicy policy = new LeastInFlightPolicy();
+        policy.reset(slots);
+
+        for (int op = 0; op < 5000; op++) {
+            long bytes = random.nextInt(600);
+            assertSame(bruteForce(slots, bytes), policy.pick(bytes));
+
+            // mutate one slot the way AccountScheduler does: detach, change, attach
+            AccountSlot s = slots.get(random.nextInt(slots.size()));
+            policy.detach(s);
+            if (random.nextBoolean()) s.reservedBytes += random.nextInt(200);
+            else s.reservedBytes = Math.max(0, s.reservedBytes - random.nextInt(200));
+            if (random.nextInt(10) == 0) s.freeBytes = random.nextInt(1000);
+            policy.attach(s);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.jaykkumar01.vaultspace.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class Mp4LayoutAnalyzerTest {
+
+    @Test
+    public void moovAtHeadNeedsOnlyThePrefix() {
+        Mp4LayoutAnalyzer.Result r = Mp4LayoutAnalyzer.decode("32:4000", 1_000_000);
+
+        assertNotNull(r);
+        assertFalse(r.moovAtTail);
+        assertEquals(32, r.moovStart);
+        assertEquals(4000, r.moovSize);
+        assertEquals(4032, r.headRequiredBytes);
+        assertEquals(0, r.tailRequiredBytes);
+    }
+
+    @Test
+    public void moovAtTailNeedsSmallHeadAndTheMoov() {
+        long size = 10_000_000;
+        Mp4LayoutAnalyzer.Result r = Mp4LayoutAnalyzer.decode((size - 5000) + ":5000", size);
+
+        assertNotNull(r);
+        assertTrue(r.moovAtTail);
+        assertEquals(64 * 1024, r.headRequiredBytes);
+        assertEquals(5000, r.tailRequiredBytes);
+    }
+
+    @Test
+    public void smallHeadIsClampedToFileSize() {
+        Mp4LayoutAnalyzer.Result r = Mp4LayoutAnalyzer.decode("1000:24", 1024);
+
+        assertNotNull(r);
+        assertTrue(r.moovAtTail);
+        assertEquals(1024, r.headRequiredBytes);
+    }
+
+    @Test
+    public void encodeDecodeRoundTrip() {
+        Mp4LayoutAnalyzer.Result r = Mp4LayoutAnalyzer.decode("40:1200", 50_000);
+        assertNotNull(r);
+        assertEquals("40:1200", r.encode());
+
+        Mp4LayoutAnalyzer.Result again = Mp4LayoutAnalyzer.decode(r.encode(), 50_000);
+        assertNotNull(again);
+        assertEquals(r.headRequiredBytes, again.headRequiredBytes);
+        assertEquals(r.tailRequiredBytes, again.tailRequiredBytes);
+    }
+
+    @Test
+    public void rejectsMissingOrMalformedLayouts() {
+        assertNull(Mp4LayoutAnalyzer.decode(null, 1000));
+        assertNull(Mp4LayoutAnalyzer.decode("10:20", 0));
+        assertNull(Mp4LayoutAnalyzer.decode("", 1000));
+        assertNull(Mp4LayoutAnalyzer.decode("1020", 1000));
+        assertNull(Mp4LayoutAnalyzer.decode("a:b", 1000));
+        assertNull(Mp4LayoutAnalyzer.decode("-1:20", 1000));
+        assertNull(Mp4LayoutAnalyzer.decode("10:0", 1000));
+        assertNull(Mp4LayoutAnalyzer.decode("990:20", 1000));   // past the end of the file
+    }
+}